@@ -0,0 +1,78 @@
+package org.grobid.core.lexicon;
+
+import org.apache.commons.io.FileUtils;
+import org.grobid.core.analyzers.QuantityAnalyzer;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.OffsetPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit name matching of the sentences of the locust test data, with the {@link FastMatcher} and with the
+ * {@link UnitNameMatcher}, both loaded with all the terms of the unit lexicon.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitNameMatcherBenchmark {
+
+    private FastMatcher fastMatcher;
+    private UnitNameMatcher unitNameMatcher;
+    private List<List<LayoutToken>> sentences;
+
+    @Setup
+    public void setUp() throws Exception {
+        GrobidProperties.getInstance();
+
+        List<String> terms = new ArrayList<>();
+        new QuantityLexicon(terms::add);
+
+        fastMatcher = new FastMatcher();
+        unitNameMatcher = new UnitNameMatcher();
+        for (String term : terms) {
+            fastMatcher.loadTerm(term, QuantityAnalyzer.getInstance());
+            unitNameMatcher.loadTerm(term, QuantityAnalyzer.getInstance());
+        }
+        unitNameMatcher.compile();
+
+        sentences = new ArrayList<>();
+        for (String line : FileUtils.readLines(new File("resources/locust/testData.txt"), StandardCharsets.UTF_8)) {
+            sentences.add(QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(line));
+        }
+    }
+
+    @Benchmark
+    public void fastMatcher(Blackhole blackhole) {
+        for (List<LayoutToken> tokens : sentences) {
+            List<OffsetPosition> positions = fastMatcher.matchLayoutToken(tokens);
+            blackhole.consume(positions);
+        }
+    }
+
+    @Benchmark
+    public void unitNameMatcher(Blackhole blackhole) {
+        for (List<LayoutToken> tokens : sentences) {
+            List<OffsetPosition> positions = unitNameMatcher.matchLayoutToken(tokens);
+            blackhole.consume(positions);
+        }
+    }
+}
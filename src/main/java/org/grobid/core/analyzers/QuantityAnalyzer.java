@@ -1,15 +1,12 @@
 package org.grobid.core.analyzers;
 
 import org.apache.commons.lang3.NotImplementedException;
-import org.apache.commons.lang3.StringUtils;
 import org.grobid.core.lang.Language;
 import org.grobid.core.layout.LayoutToken;
-import org.grobid.core.utilities.OffsetPosition;
-import org.grobid.core.utilities.UnicodeUtil;
+import org.grobid.core.utilities.TextNormalizer;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.StringTokenizer;
 
 /**
  * Quantity tokenizer adequate for all Indo-European languages and special characters.
@@ -20,6 +17,9 @@ import java.util.StringTokenizer;
  * 1m74 ->  tokens.add(new LayoutToken("1"));
  * tokens.add(new LayoutToken("m"));
  * tokens.add(new LayoutToken("74"));
+ * <p>
+ * The text is scanned in a single pass: each delimiter character is a token, and the sequences of other
+ * characters are split between an ASCII letter and a digit and between a digit and any other character.
  *
  * @author Patrice Lopez
  */
@@ -53,7 +53,71 @@ public class QuantityAnalyzer implements Analyzer {
     }
 
     public static final String DELIMITERS = " \n\r\t\f([^%‰°•⋅·,:;?.!/)-–−‐=~∼≈<>+±\"“”‘’'`#$]*\u2666\u2665\u2663\u2660\u00A0";
-    private static final String REGEX = "(?<=[a-zA-Z])(?=\\d)|(?<=\\d)(?=\\D)";
+
+    // bitset of the delimiter characters, indexed by char value
+    private static final long[] DELIMITER_BITS = delimiterBits(DELIMITERS);
+
+    private static long[] delimiterBits(String delimiters) {
+        int max = 0;
+        for (int i = 0; i < delimiters.length(); i++) {
+            max = Math.max(max, delimiters.charAt(i));
+        }
+        long[] bits = new long[(max >> 6) + 1];
+        for (int i = 0; i < delimiters.length(); i++) {
+            char c = delimiters.charAt(i);
+            bits[c >> 6] |= 1L << c;
+        }
+        return bits;
+    }
+
+    protected static boolean isDelimiter(char c) {
+        int word = c >> 6;
+        return word < DELIMITER_BITS.length && (DELIMITER_BITS[word] & (1L << c)) != 0;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Receives the boundaries of each token found by {@link #scan(String, TokenSink)}
+     */
+    @FunctionalInterface
+    protected interface TokenSink {
+        void token(int start, int end);
+    }
+
+    /**
+     * Single pass tokenisation: each delimiter is a token, the other sequences are split between a letter and
+     * a digit, and between a digit and a non digit
+     */
+    protected static void scan(String text, TokenSink sink) {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (isDelimiter(c)) {
+                if (start < i) {
+                    sink.token(start, i);
+                }
+                sink.token(i, i + 1);
+                start = i + 1;
+            } else if (i > start) {
+                char previous = text.charAt(i - 1);
+                if ((isAsciiDigit(previous) && !isAsciiDigit(c)) || (isAsciiLetter(previous) && isAsciiDigit(c))) {
+                    sink.token(start, i);
+                    start = i;
+                }
+            }
+        }
+        if (start < length) {
+            sink.token(start, length);
+        }
+    }
 
     public String getName() {
         return "QuantityAnalyzer";
@@ -61,15 +125,7 @@ public class QuantityAnalyzer implements Analyzer {
 
     public List<String> tokenize(String text) {
         List<String> result = new ArrayList<>();
-        StringTokenizer st = new StringTokenizer(text, DELIMITERS, true);
-        while (st.hasMoreTokens()) {
-            String token = st.nextToken();
-            // in addition we split "letter" characters and digits
-            String[] subtokens = token.split(REGEX);
-            for (int i = 0; i < subtokens.length; i++) {
-                result.add(subtokens[i]);
-            }
-        }
+        scan(text, (start, end) -> result.add(text.substring(start, end)));
 
         return result;
     }
@@ -80,20 +136,12 @@ public class QuantityAnalyzer implements Analyzer {
 
     public List<LayoutToken> tokenizeWithLayoutToken(String text) {
         List<LayoutToken> result = new ArrayList<>();
-        StringTokenizer st = new StringTokenizer(text, DELIMITERS, true);
-        int offset = 0;
-        while (st.hasMoreTokens()) {
-            String token = st.nextToken();
-            // in addition we split "letter" characters and digits
-            String[] subtokens = token.split(REGEX);
-            for (int i = 0; i < subtokens.length; i++) {
-                LayoutToken layoutToken = new LayoutToken();
-                layoutToken.setText(subtokens[i]);
-                layoutToken.setOffset(offset);
-                offset += subtokens[i].length();
-                result.add(layoutToken);
-            }
-        }
+        scan(text, (start, end) -> {
+            LayoutToken layoutToken = new LayoutToken();
+            layoutToken.setText(text.substring(start, end));
+            layoutToken.setOffset(start);
+            result.add(layoutToken);
+        });
 
         return result;
     }
@@ -132,19 +180,12 @@ public class QuantityAnalyzer implements Analyzer {
     public List<LayoutToken> tokenize(LayoutToken chunk, int startingIndex) {
         List<LayoutToken> result = new ArrayList<>();
         String text = chunk.getText();
-        StringTokenizer st = new StringTokenizer(text, DELIMITERS, true);
-        while (st.hasMoreTokens()) {
-            String token = st.nextToken();
-            // in addition we split "letter" characters and digits
-            String[] subtokens = token.split(REGEX);
-            for (int i = 0; i < subtokens.length; i++) {
-                LayoutToken theChunk = new LayoutToken(chunk); // deep copy
-                theChunk.setText(subtokens[i]);
-                result.add(theChunk);
-                theChunk.setOffset(startingIndex);
-                startingIndex += StringUtils.length(theChunk.getText());
-            }
-        }
+        scan(text, (start, end) -> {
+            LayoutToken theChunk = new LayoutToken(chunk); // deep copy
+            theChunk.setText(text.substring(start, end));
+            theChunk.setOffset(startingIndex + start);
+            result.add(theChunk);
+        });
         return result;
     }
 
@@ -159,13 +200,11 @@ public class QuantityAnalyzer implements Analyzer {
 
 
     public List<LayoutToken> tokenizeWithLayoutTokenByCharacter(String text) {
-        List<LayoutToken> layoutTokens = new ArrayList<>();
+        List<LayoutToken> layoutTokens = new ArrayList<>(text.length());
 
-        for (char character : text.toCharArray()) {
-            OffsetPosition position = new OffsetPosition();
-            position.start = text.indexOf(character);
-            position.end = text.indexOf(character) + 1;
-            LayoutToken lt = new LayoutToken(UnicodeUtil.normaliseText(String.valueOf(character)));
+        for (int i = 0; i < text.length(); i++) {
+            LayoutToken lt = new LayoutToken(TextNormalizer.normaliseText(String.valueOf(text.charAt(i))));
+            lt.setOffset(i);
             layoutTokens.add(lt);
         }
         return layoutTokens;
@@ -0,0 +1,89 @@
+package org.grobid.core.analyzers;
+
+import org.grobid.core.layout.LayoutToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Character level tokenisation of a unit for the units model, backed by the (already normalised) text itself:
+ * the token at index i is the i-th char of the text, at offset start + i.
+ * <p>
+ * The single character strings of the Latin-1 characters are shared, so that the feature generation does
+ * not allocate per character; the layout tokens needed for the result extraction are created once with
+ * {@link #toLayoutTokens()}.
+ */
+public class UnitCharacterSequence implements CharSequence {
+
+    private static final String[] LATIN1_STRINGS = new String[256];
+
+    static {
+        for (char c = 0; c < LATIN1_STRINGS.length; c++) {
+            LATIN1_STRINGS[c] = String.valueOf(c).intern();
+        }
+    }
+
+    private final String text;
+    private final int start;
+
+    public UnitCharacterSequence(String text) {
+        this(text, 0);
+    }
+
+    /**
+     * @param start offset of the first character
+     */
+    public UnitCharacterSequence(String text, int start) {
+        this.text = text;
+        this.start = start;
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return new UnitCharacterSequence(text.substring(from, to), start + from);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * @return the character at this index as a token
+     */
+    public String getToken(int index) {
+        char c = text.charAt(index);
+        return c < LATIN1_STRINGS.length ? LATIN1_STRINGS[c] : String.valueOf(c);
+    }
+
+    public int getOffset(int index) {
+        return start + index;
+    }
+
+    /**
+     * @return true for the whitespace characters, which are not labelled
+     */
+    public boolean isBlank(int index) {
+        return Character.isWhitespace(text.charAt(index));
+    }
+
+    public List<LayoutToken> toLayoutTokens() {
+        List<LayoutToken> tokens = new ArrayList<>(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            LayoutToken token = new LayoutToken(getToken(i));
+            token.setOffset(start + i);
+            tokens.add(token);
+        }
+        return tokens;
+    }
+}
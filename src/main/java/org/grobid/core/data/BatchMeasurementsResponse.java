@@ -0,0 +1,81 @@
+package org.grobid.core.data;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of the batch processing of texts, the measurements (or the error) of each text are keyed by
+ * the identifier given in the request, in the order of the request.
+ */
+public class BatchMeasurementsResponse {
+
+    private long runtime;
+    // texts in error have a null result and a message in the error map
+    private final Map<String, List<Measurement>> results = new LinkedHashMap<>();
+    private final Map<String, String> errors = new LinkedHashMap<>();
+
+    public void addResult(String id, List<Measurement> measurements) {
+        results.put(id, measurements != null ? measurements : new ArrayList<>());
+    }
+
+    public void addError(String id, String message) {
+        results.put(id, null);
+        errors.put(id, message);
+    }
+
+    public Map<String, List<Measurement>> getResults() {
+        return results;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public long getRuntime() {
+        return runtime;
+    }
+
+    public void setRuntime(long runtime) {
+        this.runtime = runtime;
+    }
+
+    public String toJson() {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        StringBuilder jsonBuilder = new StringBuilder();
+
+        jsonBuilder.append("{ ");
+        jsonBuilder.append("\"runtime\" : " + runtime);
+        jsonBuilder.append(", \"results\": {");
+        boolean first = true;
+        for (Map.Entry<String, List<Measurement>> result : results.entrySet()) {
+            if (!first)
+                jsonBuilder.append(", ");
+            else
+                first = false;
+            jsonBuilder.append("\"").append(encoder.quoteAsString(result.getKey())).append("\": ");
+            if (result.getValue() == null) {
+                jsonBuilder.append("{\"error\": \"").append(encoder.quoteAsString(String.valueOf(errors.get(result.getKey())))).append("\"}");
+                continue;
+            }
+            jsonBuilder.append("{\"measurements\": [");
+            boolean firstMeasurement = true;
+            for (Measurement measurement : result.getValue()) {
+                if (!firstMeasurement)
+                    jsonBuilder.append(", ");
+                else
+                    firstMeasurement = false;
+                jsonBuilder.append(measurement.toJson());
+            }
+            jsonBuilder.append("]}");
+        }
+        jsonBuilder.append("}");
+
+        jsonBuilder.append("}");
+
+        return jsonBuilder.toString();
+    }
+}
@@ -22,11 +22,11 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-
-import static java.lang.Integer.valueOf;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  *  Class for representing a complete sentence parse. The representation covers a single parse  
@@ -56,23 +56,43 @@ public class SentenceParse {
     
     // KISS principle: The representation for a parse is simply the ClearNLP Semantic 
     // role format (http://code.google.com/p/clearnlp/wiki/DataFormat#Semantic_role_format_(srl)) 
-    private String tabulatedRep = null;
-    
-    // more structured representation - map a token position to its syntactic 
-    // information as a line of the ClearNLP Semantic role format
-    private Map<Integer, String> tokenStructures = null;
-    
-    // map structure for a token by its index following the ClearNLP Semantic role format
-    private Map<String, String> tokenIndex = null;
-    
-    // map an index to all its child structure indices
-    private Map<String,List<String>> childIndex = null;
+    private volatile String tabulatedRep = null;
+    // tree of a parse created with fromTree, kept until the tabulated representation is displayed
+    private volatile DEPTree tree = null;
+
+    // more structured representation, as arrays indexed by the token index of the ClearNLP Semantic role format
+    // (1-based, 0 being the root). Only the tokens found in the text are indexed, the others have an offset of -1.
+    private int tokenCount = 0;
+    private String[] forms = null;
+    private String[] lemmas = null;
+    // interned strings, they can be compared by reference
+    private String[] posTags = null;
+    private int[] functions = null;
+    private int[] heads = null;
+    // map an index to the start and end offsets of its corresponding token
+    private int[] offsetStarts = null;
+    private int[] offsetEnds = null;
+    // whether the line of the token has all the columns of the Semantic role format
+    private boolean[] complete = null;
+
+    // map a parent index to its children indices: the children of i are childIndices[childStarts[i]..childStarts[i+1]]
+    private int[] childStarts = null;
+    private int[] childIndices = null;
+
+    // map a character position in the sentence to the index of the token starting there, 0 if none
+    private int[] positionToToken = null;
+
+    // position of the line of each token in the tabulated representation, set with it
+    private int[] lineStarts = null;
+    private int[] lineEnds = null;
 
-    // map an index to the start offset of its corresponding token
-    private Map<String, Integer> index2OffsetStart = null;
+    private static final int SRL_COLUMNS = 8;
+    private static final int NO_HEAD = -1;
 
-    // map an index to the end offset of its corresponding token
-    private Map<String, Integer> index2OffsetEnd = null;
+    // dependency functions are stored as ids in this shared dictionary
+    private static final List<String> FUNCTIONS = new CopyOnWriteArrayList<>();
+    private static final Map<String, Integer> FUNCTION_IDS = new ConcurrentHashMap<>();
+    private static final Map<String, String> POS_TAGS = new ConcurrentHashMap<>();
 
     public SentenceParse() {}
     
@@ -106,88 +126,230 @@ public class SentenceParse {
      *  String representation given here must be set according to the ClearNLP Semantic 
      *  role format (http://code.google.com/p/clearnlp/wiki/DataFormat#Semantic_role_format_(srl))
      */
-    public void setParseRepresentation(String rep) {
+    public synchronized void setParseRepresentation(String rep) {
         tabulatedRep = rep;
+        tree = null;
     }
     
     public void createMap(String text) {
-//System.out.println("createMap: " + tabulatedRep + "\n" + text);
-        // creating the basic token map
-        int position = 0;
-        String[] lines = tabulatedRep.split("\n");
-        for(int i=0; i<lines.length;i++) {
-            if (lines[i].trim().length() == 0) 
-                continue;
-            String[] pieces = lines[i].split("\t");
-            if (pieces.length < 2)
-                continue;
-            if (pieces[0].trim().length() == 0)
+        // reading the tokens from the tabulated representation
+        List<String[]> rows = new ArrayList<>();
+        List<int[]> rowLines = new ArrayList<>();
+        int lineStart = 0;
+        while (lineStart <= tabulatedRep.length()) {
+            int lineEnd = tabulatedRep.indexOf('\n', lineStart);
+            if (lineEnd == -1) {
+                lineEnd = tabulatedRep.length();
+            }
+            String line = tabulatedRep.substring(lineStart, lineEnd);
+            if (line.trim().length() != 0) {
+                String[] pieces = line.split("\t");
+                if (pieces.length >= 2 && pieces[0].trim().length() != 0 && pieces[1].trim().length() != 0) {
+                    rows.add(pieces);
+                    rowLines.add(new int[]{lineStart, lineEnd});
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        int maxIndex = 0;
+        int[] ids = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = parseIndex(rows.get(i)[0]);
+            maxIndex = Math.max(maxIndex, ids[i]);
+        }
+        allocate(maxIndex, text.length());
+
+        for (int i = 0; i < rows.size(); i++) {
+            String[] pieces = rows.get(i);
+            int id = ids[i];
+            if (id <= 0) {
+                logger.info("ClearNLP / Token index is not a parsable number: " + pieces[0]);
                 continue;
-            if (pieces[1].trim().length() == 0)
+            }
+            forms[id] = pieces[1].trim();
+            lemmas[id] = pieces.length > 2 ? pieces[2].trim() : null;
+            posTags[id] = pieces.length > 3 ? internPosTag(pieces[3].trim()) : null;
+            heads[id] = pieces.length > 5 ? parseIndex(pieces[5]) : NO_HEAD;
+            functions[id] = pieces.length > 6 ? functionId(pieces[6].trim()) : functionId("");
+            complete[id] = pieces.length == SRL_COLUMNS;
+            lineStarts[id] = rowLines.get(i)[0];
+            lineEnds[id] = rowLines.get(i)[1];
+        }
+
+        index(text, ids);
+    }
+
+    /**
+     * Create the parse directly from the ClearNLP tree, the tabulated representation is only written when displayed
+     */
+    public static SentenceParse fromTree(DEPTree tree, String text) {
+        SentenceParse parse = new SentenceParse();
+        parse.tree = tree;
+
+        int size = tree.size() - 1;
+        parse.allocate(size, text.length());
+
+        int[] ids = new int[size];
+        for (int i = 1; i <= size; i++) {
+            DEPNode node = tree.get(i);
+            int id = node.id;
+            ids[i - 1] = id;
+            parse.forms[id] = node.form;
+            parse.lemmas[id] = node.lemma;
+            parse.posTags[id] = internPosTag(node.pos);
+            parse.heads[id] = node.getHead() != null ? node.getHead().id : NO_HEAD;
+            parse.functions[id] = functionId(node.getLabel() != null ? node.getLabel() : "");
+            // the line of a node always has the columns of the Semantic role format ("_" for the missing values),
+            // unless one of its values contains the column separator
+            parse.complete[id] = !containsTab(node.form) && !containsTab(node.lemma) && !containsTab(node.pos)
+                && !containsTab(node.getLabel());
+        }
+
+        parse.index(text, ids);
+        return parse;
+    }
+
+    private static boolean containsTab(String value) {
+        return value != null && value.indexOf('\t') != -1;
+    }
+
+    /**
+     * @return the tabulated representation, written from the tree on first use for the parses created with fromTree
+     */
+    private synchronized String representation() {
+        if (tabulatedRep == null && tree != null) {
+            String rep = tree.toStringSRL();
+            // one line per node in the tabulated representation
+            int lineStart = 0;
+            for (int i = 1; i < tree.size(); i++) {
+                int id = tree.get(i).id;
+                int lineEnd = rep.indexOf('\n', lineStart);
+                if (lineEnd == -1) {
+                    lineEnd = rep.length();
+                }
+                lineStarts[id] = lineStart;
+                lineEnds[id] = lineEnd;
+                lineStart = lineEnd + 1;
+            }
+            tabulatedRep = rep;
+            tree = null;
+        }
+        return tabulatedRep;
+    }
+
+    private void allocate(int maxIndex, int textLength) {
+        tokenCount = maxIndex;
+        forms = new String[maxIndex + 1];
+        lemmas = new String[maxIndex + 1];
+        posTags = new String[maxIndex + 1];
+        functions = new int[maxIndex + 1];
+        heads = new int[maxIndex + 1];
+        offsetStarts = new int[maxIndex + 1];
+        offsetEnds = new int[maxIndex + 1];
+        complete = new boolean[maxIndex + 1];
+        lineStarts = new int[maxIndex + 1];
+        lineEnds = new int[maxIndex + 1];
+        Arrays.fill(heads, NO_HEAD);
+        Arrays.fill(offsetStarts, -1);
+        Arrays.fill(offsetEnds, -1);
+        positionToToken = new int[textLength + 1];
+    }
+
+    /**
+     * Find the tokens in the text (in the order of the parse) and build the position and children indexes
+     */
+    private void index(String text, int[] ids) {
+        int position = 0;
+        int[] childCounts = new int[tokenCount + 2];
+        for (int id : ids) {
+            if (id <= 0) {
                 continue;
-            String token = pieces[1].trim();
+            }
+            String token = forms[id];
             // find the start offset of this token in the text
             int endPosition = position;
             int startPosition = text.indexOf(token, endPosition);
             if (startPosition == -1) {
                 logger.debug("unmatche token: " + token + " for text: " + text + " from position: " + endPosition);
-            }
-            else {
-                //logger.debug("matched token: " + tokens.get(i) + " at position " + startPosition);
+            } else {
                 endPosition = startPosition + token.length();
-                if (tokenStructures == null)
-                    tokenStructures = new HashMap<Integer, String>();
-//System.out.println("put: " + startPosition + "\n" + lines[i]);                
-                tokenStructures.put(valueOf(startPosition), lines[i]);
-                if (tokenIndex == null)
-                    tokenIndex = new HashMap<String, String>();
-                tokenIndex.put(pieces[0].trim(), lines[i]);
+                setTokenAtPosition(startPosition, id);
 
                 // check subtokenization (grobid-quantities tokenizes more than ClearNLP)
-                int oldStartPosition = startPosition;
                 List<String> subtokens = null;
                 try {
                     subtokens = QuantityAnalyzer.getInstance().tokenize(token);
                 } catch(Exception e) {
                     logger.error("fail to (sub)tokenize:, " + token, e);
                 }
-                if (subtokens.size()>1) {
-                    boolean start = true;
-                    for(String subtoken : subtokens) {
-                        if (start) {
-                            start = false;
-                            continue;
-                        }
-                        startPosition = text.indexOf(subtoken, startPosition);
-                        if (tokenStructures == null)
-                            tokenStructures = new HashMap<Integer, String>();
-                        tokenStructures.put(valueOf(startPosition), lines[i]);
+                if (subtokens.size() > 1) {
+                    int subtokenPosition = startPosition;
+                    for (int i = 1; i < subtokens.size(); i++) {
+                        subtokenPosition = text.indexOf(subtokens.get(i), subtokenPosition);
+                        setTokenAtPosition(subtokenPosition, id);
                     }
                 }
 
-                startPosition = oldStartPosition;
-                // index offset positions in the offset maps
-                if (index2OffsetStart == null)
-                    index2OffsetStart = new HashMap<String, Integer>();
-                index2OffsetStart.put(pieces[0].trim(), valueOf(startPosition));
-                if (index2OffsetEnd == null)
-                    index2OffsetEnd = new HashMap<String, Integer>();
-                index2OffsetEnd.put(pieces[0].trim(), valueOf(endPosition));
-                //System.out.println(pieces[0].trim() + " " + startPosition + " " + endPosition + " / " + text.substring(startPosition, endPosition) );
+                // index offset positions
+                offsetStarts[id] = startPosition;
+                offsetEnds[id] = endPosition;
+
                 // parent -> children information
-                if (childIndex == null)
-                    childIndex = new HashMap<String,List<String>>();
-                if (pieces[5].trim().length() != 0) {
-                    List<String> children = childIndex.get(pieces[5].trim());
-                    if (children == null)
-                        children = new ArrayList<String>();
-                    if (!children.contains(pieces[0].trim()))
-                        children.add(pieces[0].trim());
-                    childIndex.put(pieces[5].trim(), children);
+                if (heads[id] >= 0 && heads[id] <= tokenCount) {
+                    childCounts[heads[id] + 1]++;
                 }
             }
             position = endPosition;
         }
+
+        // children stored contiguously per parent, in the order of the parse
+        childStarts = new int[tokenCount + 2];
+        for (int i = 1; i < childStarts.length; i++) {
+            childStarts[i] = childStarts[i - 1] + childCounts[i];
+        }
+        childIndices = new int[childStarts[tokenCount + 1]];
+        int[] filled = new int[tokenCount + 1];
+        for (int id : ids) {
+            if (id <= 0 || offsetStarts[id] == -1) {
+                continue;
+            }
+            int head = heads[id];
+            if (head >= 0 && head <= tokenCount) {
+                childIndices[childStarts[head] + filled[head]] = id;
+                filled[head]++;
+            }
+        }
+    }
+
+    private void setTokenAtPosition(int position, int id) {
+        if (position >= 0 && position < positionToToken.length) {
+            positionToToken[position] = id;
+        }
+    }
+
+    private static int parseIndex(String index) {
+        try {
+            return Integer.parseInt(index.trim());
+        } catch (NumberFormatException e) {
+            return NO_HEAD;
+        }
+    }
+
+    private static int functionId(String function) {
+        return FUNCTION_IDS.computeIfAbsent(function, f -> {
+            synchronized (FUNCTIONS) {
+                FUNCTIONS.add(f);
+                return FUNCTIONS.size() - 1;
+            }
+        });
+    }
+
+    private static String internPosTag(String pos) {
+        if (pos == null) {
+            return null;
+        }
+        return POS_TAGS.computeIfAbsent(pos, p -> p);
     }
 
     /**
@@ -195,7 +357,7 @@ public class SentenceParse {
      *  role format (http://code.google.com/p/clearnlp/wiki/DataFormat#Semantic_role_format_(srl))
      */
     public String getParseRepresentation() {
-        return tabulatedRep;
+        return representation();
     }
     
     /**
@@ -272,52 +434,144 @@ public class SentenceParse {
             sb.append(scoreLogInsideOutside);
         }
         sb.append("\n");
-        sb.append(tabulatedRep);
+        sb.append(representation());
         return sb.toString();
     }
  
+    /**
+     * Rough estimation of the memory used by this parse, in bytes
+     */
+    public long estimateMemoryFootprint() {
+        // object headers and references
+        long size = 64;
+        String rep = tabulatedRep;
+        if (rep != null) {
+            size += 40 + 2L * rep.length();
+        } else if (tree != null) {
+            // the nodes of the tree, their strings being shared with the arrays
+            size += (tokenCount + 1) * 120L;
+        }
+        if (positionToToken != null) {
+            size += 4L * positionToToken.length;
+        }
+        // per token: the int and boolean arrays and the references to the strings (shared with the dictionaries or small)
+        size += (tokenCount + 1) * (7 * 4L + 1 + 3 * 8L + 3 * 16L);
+        return size;
+    }
+
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * @return the index of the token starting at this position of the sentence, 0 if there is none
+     */
+    public int getTokenAtPosition(int position) {
+        if (positionToToken == null || position < 0 || position >= positionToToken.length)
+            return 0;
+        return positionToToken[position];
+    }
+
+    /**
+     * @return true if the token has been found in the sentence
+     */
+    public boolean isIndexed(int index) {
+        return offsetStarts != null && index > 0 && index <= tokenCount && offsetStarts[index] != -1;
+    }
+
+    /**
+     * @return true if the token is described with all the columns of the Semantic role format
+     */
+    public boolean isComplete(int index) {
+        return isIndexed(index) && complete[index];
+    }
+
+    public String getForm(int index) {
+        return forms[index];
+    }
+
+    public String getLemma(int index) {
+        return lemmas[index];
+    }
+
+    public String getPosTag(int index) {
+        return posTags[index];
+    }
+
+    public String getFunction(int index) {
+        return FUNCTIONS.get(functions[index]);
+    }
+
+    /**
+     * @return the index of the syntactic head of the token, 0 for the root, -1 if unknown
+     */
+    public int getHead(int index) {
+        return heads[index];
+    }
+
+    public int getChildCount(int index) {
+        if (childStarts == null || index < 0 || index > tokenCount)
+            return 0;
+        return childStarts[index + 1] - childStarts[index];
+    }
+
+    public int getChild(int index, int i) {
+        return childIndices[childStarts[index] + i];
+    }
+
+    public int getOffsetStart(int index) {
+        if (!isIndexed(index))
+            return -1;
+        return offsetStarts[index];
+    }
+
+    public int getOffsetEnd(int index) {
+        if (!isIndexed(index))
+            return -1;
+        return offsetEnds[index];
+    }
+
     public String getTokenStructureByPosition(int position) {
-        if (tokenStructures == null)
-            return null;
-        return tokenStructures.get(position);
+        return getTokenStructure(getTokenAtPosition(position));
     }
 
     public String getTokenStructureByIndex(String index) {
-        if (tokenIndex == null)
-            return null;
         if (StringUtils.isEmpty(index))
             return null;
-        return tokenIndex.get(index);
+        return getTokenStructure(parseIndex(index));
     }
 
-    public List<String> getTokenChildStructureByHeadIndex(String index) {
-        if (childIndex == null)
+    private String getTokenStructure(int index) {
+        if (!isIndexed(index))
             return null;
+        String rep = representation();
+        return rep.substring(lineStarts[index], lineEnds[index]);
+    }
+
+    public List<String> getTokenChildStructureByHeadIndex(String index) {
         if ( (index == null) || (index.length() == 0) )
             return null;
-        return childIndex.get(index);
+        int head = parseIndex(index);
+        int count = getChildCount(head);
+        if (count == 0)
+            return null;
+        List<String> children = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            children.add(String.valueOf(getChild(head, i)));
+        }
+        return children;
     }
 
     public int getOffsetStartIndex(String index) {
-        if (index2OffsetStart == null)
-            return -1;
         if ( (index == null) || (index.length() == 0) )
             return -1;
-        if (index2OffsetStart.get(index) != null)
-            return index2OffsetStart.get(index).intValue();
-        else
-            return -1;
+        return getOffsetStart(parseIndex(index));
     }
 
     public int getOffsetEndIndex(String index) {
-        if (index2OffsetEnd == null)
-            return -1;
         if ( (index == null) || (index.length() == 0) )
             return -1;
-        if (index2OffsetEnd.get(index) != null)
-            return index2OffsetEnd.get(index).intValue();
-        else
-            return -1;
+        return getOffsetEnd(parseIndex(index));
     }
 
-}
\ No newline at end of file
+}
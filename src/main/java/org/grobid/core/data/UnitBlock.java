@@ -37,6 +37,15 @@ public class UnitBlock {
 
     }
 
+    /**
+     * Copy constructor, the blocks are modified while being formatted (e.g. {@link #asString(List)}),
+     * so blocks shared between several units need to be copied first.
+     */
+    public UnitBlock(UnitBlock other) {
+        this(other.getPrefix(), other.getBase(), other.getPow());
+        setRawTaggedValue(other.getRawTaggedValue());
+    }
+
 
     public String getPrefix() {
         return prefix;
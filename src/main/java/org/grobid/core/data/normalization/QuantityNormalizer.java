@@ -2,16 +2,21 @@ package org.grobid.core.data.normalization;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.grobid.core.data.Quantity;
 import org.grobid.core.data.Unit;
 import org.grobid.core.data.UnitBlock;
 import org.grobid.core.data.UnitDefinition;
+import org.grobid.core.utilities.MeteredCache;
+import org.grobid.core.utilities.QuantitiesProperties;
 import org.grobid.core.utilities.UnitUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import systems.uom.common.USCustomary;
 import tech.units.indriya.format.SimpleUnitFormat;
 
+import javax.measure.UnitConverter;
 import javax.measure.format.MeasurementParseException;
 import javax.measure.format.UnitFormat;
 import javax.measure.spi.FormatService;
@@ -48,6 +53,11 @@ public class QuantityNormalizer {
 
     private UnitNormalizer unitNormalizer;
 
+    // the resolution of a unit by the UOM parsers, indexed by Triple(rawName, providers of the parsers used,
+    // product blocks parsed when the raw name is not recognised)
+    private final MeteredCache<Triple<String, List<String>, List<String>>, ResolvedUnit> resolvedUnitCache =
+        new MeteredCache<>("units.resolved", QuantitiesProperties.getUnitCacheSize());
+
     public QuantityNormalizer() {
         for (ServiceProvider provider : ServiceProvider.available()) {
             try {
@@ -75,24 +85,45 @@ public class QuantityNormalizer {
 
 
     public Quantity.Normalized normalizeQuantity(Quantity quantity) throws NormalizationException {
+        return normalizeQuantity(quantity, null);
+    }
+
+    /**
+     * Tag the units of several quantities at once, see {@link UnitNormalizer#tagUnits(List)}.
+     * The result is meant to be passed to {@link #normalizeQuantity(Quantity, Map)}.
+     */
+    public Map<Pair<String, Boolean>, List<UnitBlock>> tagUnits(List<Quantity> quantities) {
+        List<Unit> rawUnits = quantities.stream()
+            .filter(q -> !q.isEmpty() && q.getRawUnit() != null && StringUtils.isNotEmpty(q.getRawUnit().getRawName()))
+            .map(Quantity::getRawUnit)
+            .collect(Collectors.toList());
+
+        return unitNormalizer.tagUnits(rawUnits);
+    }
+
+    /**
+     * @param taggedUnits the unit blocks obtained from {@link #tagUnits(List)}, or null to tag the unit of this quantity alone
+     */
+    public Quantity.Normalized normalizeQuantity(Quantity quantity, Map<Pair<String, Boolean>, List<UnitBlock>> taggedUnits) throws NormalizationException {
         if (quantity.isEmpty() || quantity.getRawUnit() == null || isEmpty(quantity.getRawUnit().getRawName())) {
             return null;    //or throw new NormalizationException() :-)
         }
 
-        Unit parsedUnit = unitNormalizer.parseUnit(quantity.getRawUnit());
+        Unit parsedUnit = taggedUnits == null ? unitNormalizer.parseUnit(quantity.getRawUnit())
+            : unitNormalizer.parseUnit(quantity.getRawUnit(), taggedUnits);
         quantity.setParsedUnit(parsedUnit);
 
-        javax.measure.Unit unit = tryParsing(parsedUnit);
+        ResolvedUnit resolvedUnit = resolveUnit(parsedUnit);
 
         Quantity.Normalized normalizedQuantity = new Quantity().new Normalized();
 
         normalizedQuantity.setRawValue(quantity.getRawValue());
-        if (StringUtils.isNotBlank(unit.getSystemUnit().toString())) {
-            normalizedQuantity.setUnit(new Unit(unit.getSystemUnit().toString()));
+        if (StringUtils.isNotBlank(resolvedUnit.getSystemUnitName())) {
+            normalizedQuantity.setUnit(new Unit(resolvedUnit.getSystemUnitName()));
         }
         try {
             if (quantity.getParsedValue() != null) {
-                BigDecimal converted = new BigDecimal(unit.getConverterTo(unit.getSystemUnit()).convert(quantity.getParsedValue().getNumeric()).toString());
+                BigDecimal converted = new BigDecimal(resolvedUnit.getConverterToSystemUnit().convert(quantity.getParsedValue().getNumeric()).toString());
                 normalizedQuantity.setValue(converted);
             } else {
                 throw new NormalizationException("Normalisation impossible without parsed value. ");
@@ -140,36 +171,77 @@ public class QuantityNormalizer {
     }
 
     protected javax.measure.Unit tryParsing(Unit parsedUnit) throws NormalizationException {
-        List<UnitFormat> parsers = new ArrayList<>();
+        return resolveUnit(parsedUnit).getUnit();
+    }
+
+    /**
+     * Parse the unit with the UOM parsers and compute its converter to the system unit.
+     * The result, including the failure to parse, is cached by raw name, selected parsers and product blocks
+     * (the fallback when the raw name cannot be parsed), so that the same unit does not go through the parsers
+     * (and their exceptions) again.
+     */
+    protected ResolvedUnit resolveUnit(Unit parsedUnit) throws NormalizationException {
+        List<String> providers = selectProviders(parsedUnit.getUnitDefinition()).stream()
+            .filter(provider -> unitFormats.get(provider) != null)
+            .collect(Collectors.toList());
+
+        if (CollectionUtils.isEmpty(providers)) {
+            throw new NormalizationException("Cannot find a parser for " + parsedUnit.getRawName()
+                + ". Please check the dependencies of UOM or make sure the unit you're trying ot parse is supported. ");
+        }
 
-        if (parsedUnit.getUnitDefinition() == null) {
-            parsers.add(unitFormats.get(UCUM_PROVIDER));
-            parsers.add(unitFormats.get(UNICODE_PROVIDER));
+        List<String> blocks = parsedUnit.getProductBlocks().stream()
+            .map(block -> UnitBlock.asString(block) + "^" + block.getPow())
+            .collect(Collectors.toList());
+        Triple<String, List<String>, List<String>> key = Triple.of(parsedUnit.getRawName(), providers, blocks);
+        ResolvedUnit resolvedUnit = resolvedUnitCache.getIfPresent(key);
+        if (resolvedUnit == null) {
+            List<UnitFormat> parsers = providers.stream()
+                .map(unitFormats::get)
+                .collect(Collectors.toList());
+            try {
+                resolvedUnit = ResolvedUnit.of(parse(parsedUnit, parsers));
+            } catch (NormalizationException e) {
+                resolvedUnit = ResolvedUnit.unparseable(e.getMessage());
+            }
+            resolvedUnitCache.put(key, resolvedUnit);
+        }
+
+        if (resolvedUnit.isUnparseable()) {
+            throw new NormalizationException(resolvedUnit.getError());
+        }
+
+        return resolvedUnit;
+    }
+
+    private List<String> selectProviders(UnitDefinition definition) {
+        List<String> providers = new ArrayList<>();
+
+        if (definition == null) {
+            providers.add(UCUM_PROVIDER);
+            providers.add(UNICODE_PROVIDER);
         } else {
-            if (!parsedUnit.getUnitDefinition().isSkipNormalisation()) {
-                if (parsedUnit.getUnitDefinition().getSystem() == UnitUtilities.System_Type.SI_BASE) {
+            if (!definition.isSkipNormalisation()) {
+                if (definition.getSystem() == UnitUtilities.System_Type.SI_BASE) {
                     //I normalize SI units
-                    parsers.add(unitFormats.get(SI_PROVIDER));
-                    parsers.add(unitFormats.get(UOM_DEFAULT_PROVIDER));
-                } else if (parsedUnit.getUnitDefinition().getSystem() == UnitUtilities.System_Type.SI_DERIVED) {
+                    providers.add(SI_PROVIDER);
+                    providers.add(UOM_DEFAULT_PROVIDER);
+                } else if (definition.getSystem() == UnitUtilities.System_Type.SI_DERIVED) {
                     //I normalize SI derived units
-                    parsers.add(unitFormats.get(UCUM_PROVIDER));
-                    parsers.add(unitFormats.get(UOM_DEFAULT_PROVIDER));
-                    parsers.add(unitFormats.get(UNICODE_PROVIDER));
+                    providers.add(UCUM_PROVIDER);
+                    providers.add(UOM_DEFAULT_PROVIDER);
+                    providers.add(UNICODE_PROVIDER);
                 } else {
-                    parsers.add(unitFormats.get(UCUM_PROVIDER));
-                    parsers.add(unitFormats.get(COMMON_PROVIDER));
+                    providers.add(UCUM_PROVIDER);
+                    providers.add(COMMON_PROVIDER);
                 }
             }
         }
 
-        parsers = parsers.stream().filter(Objects::nonNull).collect(Collectors.toList());
-
-        if (CollectionUtils.isEmpty(parsers)) {
-            throw new NormalizationException("Cannot find a parser for " + parsedUnit.getRawName()
-                + ". Please check the dependencies of UOM or make sure the unit you're trying ot parse is supported. ");
-        }
+        return providers;
+    }
 
+    private javax.measure.Unit parse(Unit parsedUnit, List<UnitFormat> parsers) throws NormalizationException {
         javax.measure.Unit unit = null;
         for (UnitFormat formatService : parsers) {
             try {
@@ -312,6 +384,61 @@ public class QuantityNormalizer {
         this.unitNormalizer = unitNormalizer;
     }
 
+    /**
+     * A unit resolved by the UOM parsers, with its converter to the system unit, or the reason
+     * why it could not be parsed.
+     */
+    protected static class ResolvedUnit {
+        private final javax.measure.Unit unit;
+        private final UnitConverter converterToSystemUnit;
+        private final String systemUnitName;
+        private final String error;
+
+        private ResolvedUnit(javax.measure.Unit unit, UnitConverter converterToSystemUnit, String systemUnitName, String error) {
+            this.unit = unit;
+            this.converterToSystemUnit = converterToSystemUnit;
+            this.systemUnitName = systemUnitName;
+            this.error = error;
+        }
+
+        protected static ResolvedUnit of(javax.measure.Unit unit) {
+            UnitConverter converter = null;
+            try {
+                converter = unit.getConverterTo(unit.getSystemUnit());
+            } catch (Exception e) {
+                LOGGER.debug("Cannot convert " + unit + " to its system unit. ", e);
+            }
+            return new ResolvedUnit(unit, converter, unit.getSystemUnit().toString(), null);
+        }
+
+        protected static ResolvedUnit unparseable(String error) {
+            return new ResolvedUnit(null, null, null, error);
+        }
+
+        public javax.measure.Unit getUnit() {
+            return unit;
+        }
+
+        /**
+         * @return the converter, or null if the unit cannot be converted to its system unit
+         */
+        public UnitConverter getConverterToSystemUnit() {
+            return converterToSystemUnit;
+        }
+
+        public String getSystemUnitName() {
+            return systemUnitName;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isUnparseable() {
+            return unit == null;
+        }
+    }
+
     public Map<String, UnitFormat> getUnitFormats() {
         return unitFormats;
     }
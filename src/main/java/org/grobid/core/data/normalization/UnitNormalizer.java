@@ -1,14 +1,21 @@
 package org.grobid.core.data.normalization;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.grobid.core.data.Unit;
 import org.grobid.core.data.UnitBlock;
 import org.grobid.core.data.UnitDefinition;
 import org.grobid.core.engines.UnitParser;
 import org.grobid.core.lexicon.QuantityLexicon;
+import org.grobid.core.utilities.MeteredCache;
+import org.grobid.core.utilities.QuantitiesProperties;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -22,26 +29,64 @@ public class UnitNormalizer {
     private UnitParser unitParser;
     private QuantityLexicon quantityLexicon;
 
+    // the parsing of a unit only depends on its raw name and attachment, indexed as Pair(rawName, isUnitLeft)
+    private final MeteredCache<Pair<String, Boolean>, List<UnitBlock>> productCache;
+    private final MeteredCache<Pair<String, Boolean>, Unit> unitCache;
+
     public UnitNormalizer(UnitParser unitParser, QuantityLexicon quantityLexicon) {
+        this(unitParser, quantityLexicon, QuantitiesProperties.getUnitCacheSize());
+    }
+
+    public UnitNormalizer(UnitParser unitParser, QuantityLexicon quantityLexicon, int cacheSize) {
         this.unitParser = unitParser;
         this.quantityLexicon = quantityLexicon;
+        this.productCache = new MeteredCache<>("units.products", cacheSize);
+        this.unitCache = new MeteredCache<>("units.parsed", cacheSize);
     }
 
     public UnitNormalizer() {
-        unitParser = UnitParser.getInstance();
-        quantityLexicon = QuantityLexicon.getInstance();
+        this(UnitParser.getInstance(), QuantityLexicon.getInstance());
     }
 
 
     public List<UnitBlock> parseToProduct(String rawUnit, boolean isUnitLeft) {
+        return parseToProduct(rawUnit, isUnitLeft, Collections.emptyMap());
+    }
+
+    /**
+     * Same as {@link #parseToProduct(String, boolean)} but using the blocks already tagged by
+     * {@link #tagUnits(List)}. When the unit has not been tagged beforehand, it's tagged on the fly.
+     */
+    public List<UnitBlock> parseToProduct(String rawUnit, boolean isUnitLeft, Map<Pair<String, Boolean>, List<UnitBlock>> taggedUnits) {
+        Pair<String, Boolean> key = Pair.of(rawUnit, isUnitLeft);
+        List<UnitBlock> cachedBlocks = productCache.getIfPresent(key);
+        if (cachedBlocks != null) {
+            return copyBlocks(cachedBlocks);
+        }
+
         String unitName = quantityLexicon.getNameByInflection(rawUnit);
 
-        List<UnitBlock> unitBlockList = new ArrayList<>();
-        List<UnitBlock> unitBlocks = unitParser.tagUnit(rawUnit, isUnitLeft);
-        if(unitName != null) {
-            unitBlocks = unitParser.tagUnit(unitName, isUnitLeft);
+        List<UnitBlock> unitBlocks;
+        List<UnitBlock> taggedBlocks = taggedUnits.get(key);
+        if (taggedBlocks != null) {
+            // the tagged blocks are shared between all the occurrences of the same unit
+            unitBlocks = copyBlocks(taggedBlocks);
+        } else {
+            unitBlocks = unitParser.tagUnit(rawUnit, isUnitLeft);
+            if (unitName != null) {
+                unitBlocks = unitParser.tagUnit(unitName, isUnitLeft);
+            }
         }
 
+        List<UnitBlock> product = toProduct(unitName, unitBlocks);
+        productCache.put(key, copyBlocks(product));
+
+        return product;
+    }
+
+    private List<UnitBlock> toProduct(String unitName, List<UnitBlock> unitBlocks) {
+        List<UnitBlock> unitBlockList = new ArrayList<>();
+
         // If the product is just one, and the unitName is found, then I use directly the unitName
         // If the unitName is found, it might still be a complex unit, so we don't want to put that as base (as it was done before).
         //
@@ -55,6 +100,52 @@ public class UnitNormalizer {
         return unitBlockList;
     }
 
+    /**
+     * Tag the units of a whole batch of quantities with a single call to the unit parser.
+     * The raw units are deduplicated, and only the name that is actually used by {@link #parseToProduct(String, boolean)}
+     * (the notation found by inflection, or the raw unit itself) is tagged.
+     *
+     * @return the tagged blocks indexed by (raw unit name, isUnitLeft), to be used with {@link #parseUnit(Unit, Map)}
+     */
+    public Map<Pair<String, Boolean>, List<UnitBlock>> tagUnits(List<Unit> rawUnits) {
+        Map<Pair<String, Boolean>, Pair<String, Boolean>> namesToTag = new LinkedHashMap<>();
+        for (Unit rawUnit : rawUnits) {
+            String rawName = rawUnit.getRawName();
+            Pair<String, Boolean> key = Pair.of(rawName, rawUnit.hasUnitRightAttachment());
+            if (isEmpty(rawName) || namesToTag.containsKey(key)
+                || unitCache.contains(key) || productCache.contains(key)) {
+                continue;
+            }
+            String unitName = quantityLexicon.getNameByInflection(rawName);
+            namesToTag.put(key, Pair.of(unitName != null ? unitName : rawName, rawUnit.hasUnitRightAttachment()));
+        }
+
+        Map<Pair<String, Boolean>, List<UnitBlock>> taggedUnits = new HashMap<>();
+        if (namesToTag.isEmpty()) {
+            return taggedUnits;
+        }
+
+        List<Pair<String, Boolean>> distinctNames = namesToTag.values().stream()
+            .distinct()
+            .collect(Collectors.toList());
+        List<List<UnitBlock>> taggedNames = unitParser.tagUnits(distinctNames);
+
+        Map<Pair<String, Boolean>, List<UnitBlock>> blocksByName = new HashMap<>();
+        for (int i = 0; i < distinctNames.size(); i++) {
+            if (taggedNames.get(i) != null) {
+                blocksByName.put(distinctNames.get(i), taggedNames.get(i));
+            }
+        }
+
+        namesToTag.forEach((key, name) -> {
+            if (blocksByName.containsKey(name)) {
+                taggedUnits.put(key, blocksByName.get(name));
+            }
+        });
+
+        return taggedUnits;
+    }
+
     /**
      * Unit parsing:
      * - infer the name (name + decomposition) from the written
@@ -64,8 +155,49 @@ public class UnitNormalizer {
      * - else we keep whatever the unit parser understood
      */
     public Unit parseUnit(Unit rawUnit) {
-        List<UnitBlock> blocks = parseToProduct(rawUnit.getRawName(), rawUnit.hasUnitRightAttachment());
+        return parseUnit(rawUnit, Collections.emptyMap());
+    }
+
+    /**
+     * Same as {@link #parseUnit(Unit)} using the blocks already tagged by {@link #tagUnits(List)}
+     */
+    public Unit parseUnit(Unit rawUnit, Map<Pair<String, Boolean>, List<UnitBlock>> taggedUnits) {
+        Pair<String, Boolean> key = Pair.of(rawUnit.getRawName(), rawUnit.hasUnitRightAttachment());
+        Unit cachedUnit = unitCache.getIfPresent(key);
+        if (cachedUnit != null) {
+            return copyUnit(cachedUnit, rawUnit);
+        }
+
+        List<UnitBlock> blocks = parseToProduct(rawUnit.getRawName(), rawUnit.hasUnitRightAttachment(), taggedUnits);
+
+        Unit parsedUnit = buildUnit(rawUnit, blocks);
+        unitCache.put(key, copyUnit(parsedUnit, rawUnit));
+
+        return parsedUnit;
+    }
+
+    /**
+     * Copy a parsed unit, with the offsets of the raw unit it's going to be attached to
+     */
+    private static Unit copyUnit(Unit parsedUnit, Unit rawUnit) {
+        Unit copy = new Unit();
+        copy.setOffsetStart(rawUnit.getOffsetStart());
+        copy.setOffsetEnd(rawUnit.getOffsetEnd());
+        copy.setProductBlocks(copyBlocks(parsedUnit.getProductBlocks()));
+        copy.setRawName(parsedUnit.getRawName());
+        copy.setUnitRightAttachment(parsedUnit.hasUnitRightAttachment());
+        copy.setUnitDefinition(parsedUnit.getUnitDefinition());
+
+        return copy;
+    }
+
+    private static List<UnitBlock> copyBlocks(List<UnitBlock> blocks) {
+        return blocks.stream()
+            .map(UnitBlock::new)
+            .collect(Collectors.toList());
+    }
 
+    private Unit buildUnit(Unit rawUnit, List<UnitBlock> blocks) {
         Unit parsedUnit = new Unit();
         parsedUnit.setOffsetStart(rawUnit.getOffsetStart());
         parsedUnit.setOffsetEnd(rawUnit.getOffsetEnd());
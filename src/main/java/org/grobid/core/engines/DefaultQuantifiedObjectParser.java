@@ -11,7 +11,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
@@ -72,8 +74,8 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
                 // - measurementsInSentence do not have any offset normalisation, they are the original offsets. 
                 // - measurementOffsetsInSentence, they are normalised only by firstToken. They reference to the beginning of the sentence 
                 // - position measurements are the same of measurementOffsetsInSentence
-                // get the list of indexes corresponding to measurement parts
-                List<String> indexMeasurementTokens = getIndexMeasurementTokens(measurementsOffsetsInSentence, sentence);
+                // get the set of indexes corresponding to measurement parts
+                BitSet indexMeasurementTokens = getIndexMeasurementTokens(measurementsOffsetsInSentence, sentence);
 
                 // find the syntactic head... this will define the QuantifiedObject to the measurements
                 setHeads(sentence, measurementsInSentence, positionMeasurements, indexMeasurementTokens);
@@ -88,7 +90,7 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
     private void setHeads(Sentence processedSentence,
                           List<Measurement> measurements,
                           List<Integer> positionMeasurements,
-                          List<String> indexMeasurementTokens) {
+                          BitSet indexMeasurementTokens) {
         if (isEmpty(measurements))
             return;
 
@@ -107,13 +109,11 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
             position = position - startSentencePosition;
 
             QuantifiedObject substance = null;
-            String headStruct = parse.getTokenStructureByPosition(position);
-            if (headStruct == null)
+            int headIndex = parse.getTokenAtPosition(position);
+            if (headIndex == 0)
                 return;
 
-            String[] pieces = null;
-            String currentIndex = null;
-            String headIndex = null;
+            int currentIndex;
             String funct = null;
             String pos = null;
             String previousFunct = "";
@@ -121,20 +121,19 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
             // now loop in the dependency tree
             int level = 1;
             while (substance == null) {
-                pieces = headStruct.split("\t");
-                if (pieces.length != 8)
+                if (!parse.isComplete(headIndex))
                     break;
-                currentIndex = pieces[0].trim();
-                headIndex = pieces[5].trim();
-                funct = pieces[6].trim();
-                pos = pieces[3].trim();
+                currentIndex = headIndex;
+                funct = parse.getFunction(currentIndex);
+                pos = parse.getPosTag(currentIndex);
 
-                headStruct = parse.getTokenStructureByIndex(headIndex);
+                headIndex = parse.getHead(currentIndex);
+                boolean hasHead = parse.isIndexed(headIndex);
                 // ignore tokens already identified as measurement parts
-                if (indexMeasurementTokens.contains(currentIndex)) {
+                if (indexMeasurementTokens.get(currentIndex)) {
                     // we do not increment the level as we are still in the measurement phrase
                     previousFunct = funct;
-                    if (headStruct == null)
+                    if (!hasHead)
                         break;
                     continue;
                 }
@@ -168,30 +167,25 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
                                 position = lastPosition;
                         }
                     }
-                    String nextStruct = getNextStruct(position + 1, indexMeasurementTokens,
+                    int nextIndex = getNextToken(position + 1, indexMeasurementTokens,
                         processedSentence.getOffsetEnd() - processedSentence.getOffsetStart(), parse);
-                    if (nextStruct != null) {
-                        String[] subpieces = nextStruct.split("\t");
-                        if (subpieces.length == 8) {
-                            String nextIndex = subpieces[0].trim();
-                            String nextToken = subpieces[2].trim();
-                            String nextHeadIndex = subpieces[5].trim();
-                            String nextFunct = subpieces[6].trim();
-                            String nextPos = subpieces[3].trim();
-                            if ((nextFunct.equals("prep") && nextPos.startsWith("IN") && !nextToken.equals("to")) ||
-                                (nextFunct.equals("nn") && nextPos.startsWith("NN"))) {
-                                OffsetPosition phrasePosition = new OffsetPosition(parse.getOffsetStartIndex(nextIndex), parse.getOffsetEndIndex(nextIndex));
-                                phrasePosition = getFullPhrase(phrasePosition, parse, indexMeasurementTokens, false);
-                                phrasePosition.start = parse.getOffsetEndIndex(nextIndex) + 1;
-                                if (phrasePosition.end <= phrasePosition.start) {
-                                    break;
-                                }
-                                String chunk = processedSentence.getSentence().substring(phrasePosition.start, phrasePosition.end);
-                                substance = new QuantifiedObject(chunk, chunk);
-                                substance.setOffsetStart(phrasePosition.start);
-                                substance.setOffsetEnd(phrasePosition.end);
+                    if (parse.isComplete(nextIndex)) {
+                        String nextToken = parse.getLemma(nextIndex);
+                        String nextFunct = parse.getFunction(nextIndex);
+                        String nextPos = parse.getPosTag(nextIndex);
+                        if ((nextFunct.equals("prep") && nextPos.startsWith("IN") && !nextToken.equals("to")) ||
+                            (nextFunct.equals("nn") && nextPos.startsWith("NN"))) {
+                            OffsetPosition phrasePosition = new OffsetPosition(parse.getOffsetStart(nextIndex), parse.getOffsetEnd(nextIndex));
+                            phrasePosition = getFullPhrase(phrasePosition, parse, indexMeasurementTokens, false);
+                            phrasePosition.start = parse.getOffsetEnd(nextIndex) + 1;
+                            if (phrasePosition.end <= phrasePosition.start) {
                                 break;
                             }
+                            String chunk = processedSentence.getSentence().substring(phrasePosition.start, phrasePosition.end);
+                            substance = new QuantifiedObject(chunk, chunk);
+                            substance.setOffsetStart(phrasePosition.start);
+                            substance.setOffsetEnd(phrasePosition.end);
+                            break;
                         }
                     }
                 }
@@ -204,12 +198,13 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
                         (funct.equals("pobj") && pos.startsWith("NN")) ||
                         (previousFunct.equals("num") && pos.startsWith("NN"))
                 ) {
-                    if (featureFactory.test_digit(pieces[1]))
-                        substance = new QuantifiedObject(pieces[1], pieces[1]);
+                    String form = parse.getForm(currentIndex);
+                    if (featureFactory.test_digit(form))
+                        substance = new QuantifiedObject(form, form);
                     else
-                        substance = new QuantifiedObject(pieces[1], pieces[2]);
+                        substance = new QuantifiedObject(form, parse.getLemma(currentIndex));
                     OffsetPosition substancePosition =
-                        new OffsetPosition(parse.getOffsetStartIndex(currentIndex), parse.getOffsetEndIndex(currentIndex));
+                        new OffsetPosition(parse.getOffsetStart(currentIndex), parse.getOffsetEnd(currentIndex));
                     substancePosition = getFullPhrase(substancePosition, parse, indexMeasurementTokens, true);
                     substance.setOffsetStart(substancePosition.start + startSentencePosition);
                     substance.setOffsetEnd(substancePosition.end + startSentencePosition);
@@ -218,7 +213,7 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
 
                 }
                 //else
-                if (headStruct == null)
+                if (!hasHead)
                     break;
 
                 if (level == 3)
@@ -235,135 +230,82 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
 
     private OffsetPosition getFullPhrase(OffsetPosition offsetPosition,
                                          SentenceParse parse,
-                                         List<String> indexMeasurementTokens,
+                                         BitSet indexMeasurementTokens,
                                          boolean strictExpansion) {
         if (offsetPosition == null)
             return null;
-        // get structure for the position of the QuantifiedObject
-        String struct = parse.getTokenStructureByPosition(offsetPosition.start);
-        if (struct == null)
+        // get the token for the position of the QuantifiedObject
+        int headIndex = parse.getTokenAtPosition(offsetPosition.start);
+        if (headIndex == 0 || !parse.isComplete(headIndex))
             return offsetPosition;
-        String[] pieces = null;
-        String headIndex = null;
-        String currentIndex = null;
 
-        pieces = struct.split("\t");
-        if (pieces.length != 8)
-            return offsetPosition;
-        headIndex = pieces[0].trim();
-
-        int headIndexInt = -1;
-        try {
-            headIndexInt = Integer.parseInt(headIndex);
-        } catch (Exception e) {
-            logger.info("ClearNLP / Token index is not a parsable number: " + headIndex);
-        }
-
-        if (headIndexInt == -1)
-            return offsetPosition;
-
-        List<String> children = parse.getTokenChildStructureByHeadIndex(headIndex);
-        if ((children == null) || (children.size() == 0)) {
+        int childCount = parse.getChildCount(headIndex);
+        if (childCount == 0) {
             return offsetPosition;
         }
 
         // first loop for extension on the right
-        for (String child : children) {
-            struct = parse.getTokenStructureByIndex(child);
-            pieces = struct.split("\t");
-            if (pieces.length != 8)
+        for (int j = 0; j < childCount; j++) {
+            int currentIndex = parse.getChild(headIndex, j);
+            if (!parse.isComplete(currentIndex))
                 continue;
-            currentIndex = pieces[0].trim();
 
-            int currentIndexInt = -1;
-            try {
-                currentIndexInt = Integer.parseInt(currentIndex);
-            } catch (Exception e) {
-                logger.info("ClearNLP / Token index is not a parsable number: " + currentIndex);
-            }
-
-            if (currentIndexInt == -1)
-                break;
-
-            if (currentIndexInt <= headIndexInt) {
+            if (currentIndex <= headIndex) {
                 continue;
             }
 
             // ignore tokens already identified as measurement parts and stop right expansion
-            if (indexMeasurementTokens.contains(currentIndex)) {
+            if (indexMeasurementTokens.get(currentIndex)) {
                 break;
             }
 
-            if ((parse.getOffsetStartIndex(currentIndex) != -1) && (parse.getOffsetEndIndex(currentIndex) != -1)) {
-                OffsetPosition subOffsetPosition =
-                    new OffsetPosition(parse.getOffsetStartIndex(currentIndex),
-                        parse.getOffsetEndIndex(currentIndex));
-                //subOffsetPosition = getFullPhrase(subOffsetPosition, parse, indexMeasurementTokens);
+            OffsetPosition subOffsetPosition =
+                new OffsetPosition(parse.getOffsetStart(currentIndex), parse.getOffsetEnd(currentIndex));
 
-                if ((subOffsetPosition.start > offsetPosition.end) &&
-                    ((subOffsetPosition.start - offsetPosition.end < 3) || !strictExpansion))
-                    offsetPosition.end = subOffsetPosition.end;
-            }
+            if ((subOffsetPosition.start > offsetPosition.end) &&
+                ((subOffsetPosition.start - offsetPosition.end < 3) || !strictExpansion))
+                offsetPosition.end = subOffsetPosition.end;
         }
 
         // second loop for extension on the left
-        for (int j = children.size() - 1; j >= 0; j--) {
-            String child = children.get(j);
-
-            struct = parse.getTokenStructureByIndex(child);
-
-            pieces = struct.split("\t");
-            if (pieces.length != 8)
+        for (int j = childCount - 1; j >= 0; j--) {
+            int currentIndex = parse.getChild(headIndex, j);
+            if (!parse.isComplete(currentIndex))
                 continue;
-            currentIndex = pieces[0].trim();
-
-            int currentIndexInt = -1;
-            try {
-                currentIndexInt = Integer.parseInt(currentIndex);
-            } catch (Exception e) {
-                logger.info("ClearNLP / Token index is not a parsable number: " + currentIndex);
-            }
 
-            if (currentIndexInt == -1)
-                break;
-
-            if (currentIndexInt >= headIndexInt) {
+            if (currentIndex >= headIndex) {
                 continue;
             }
 
             // ignore tokens already identified as measurement parts and stop right expansion
-            if (indexMeasurementTokens.contains(currentIndex)) {
+            if (indexMeasurementTokens.get(currentIndex)) {
                 break;
             }
 
-            if ((parse.getOffsetStartIndex(currentIndex) != -1) && (parse.getOffsetEndIndex(currentIndex) != -1)) {
-                OffsetPosition subOffsetPosition =
-                    new OffsetPosition(parse.getOffsetStartIndex(currentIndex),
-                        parse.getOffsetEndIndex(currentIndex));
-                //subOffsetPosition = getFullPhrase(subOffsetPosition, parse, indexMeasurementTokens);
+            OffsetPosition subOffsetPosition =
+                new OffsetPosition(parse.getOffsetStart(currentIndex), parse.getOffsetEnd(currentIndex));
 
-                if ((subOffsetPosition.end < offsetPosition.start) &&
-                    ((offsetPosition.start - subOffsetPosition.end < 3) || !strictExpansion))
-                    offsetPosition.start = subOffsetPosition.start;
-            }
+            if ((subOffsetPosition.end < offsetPosition.start) &&
+                ((offsetPosition.start - subOffsetPosition.end < 3) || !strictExpansion))
+                offsetPosition.start = subOffsetPosition.start;
         }
 
         return offsetPosition;
     }
 
 
-    private List<String> getIndexMeasurementTokens(List<OffsetPosition> measurementsOffsets,
-                                                   Sentence processedSentence) {
+    private BitSet getIndexMeasurementTokens(List<OffsetPosition> measurementsOffsets,
+                                             Sentence processedSentence) {
+        BitSet result = new BitSet();
         if (CollectionUtils.isEmpty(measurementsOffsets)) {
-            return null;
+            return result;
         }
 
-        List<String> result = new ArrayList<>();
         int startSentencePosition = processedSentence.getOffsetStart();
         List<SentenceParse> parses = processedSentence.getParses();
         // we're just considering the first best parse
         if (CollectionUtils.isEmpty(parses)) {
-            return null;
+            return result;
         }
 
         SentenceParse parse = parses.get(0);
@@ -372,65 +314,50 @@ public class DefaultQuantifiedObjectParser extends QuantifiedObjectParser {
             int measurementPositionInSentence = measurementOffset.start - startSentencePosition;
             int measurementLength = measurementOffset.end - measurementOffset.start;
 
-            addTokenIndex(measurementPositionInSentence, measurementLength, parse, result);
+            addTokenIndex(measurementPositionInSentence, measurementLength, parse, result::set);
         }
         return result;
     }
 
     protected List<String> addTokenIndex(int position, int length, SentenceParse parse, List<String> result) {
-        String tokenStruct = parse.getTokenStructureByPosition(position);
-        if (tokenStruct != null) {
-            String[] pieces = tokenStruct.split("\t");
-            if (pieces.length == 8) {
-                String index = pieces[0].trim();
-                if (result == null)
-                    result = new ArrayList<>();
-                if (!result.contains(index))
-                    result.add(index);
-            }
+        List<String> indexes = result != null ? result : new ArrayList<>();
+        addTokenIndex(position, length, parse, index -> {
+            String value = String.valueOf(index);
+            if (!indexes.contains(value))
+                indexes.add(value);
+        });
+        return indexes;
+    }
+
+    private void addTokenIndex(int position, int length, SentenceParse parse, IntConsumer result) {
+        int tokenIndex = parse.getTokenAtPosition(position);
+        if (tokenIndex != 0) {
+            if (parse.isComplete(tokenIndex))
+                result.accept(tokenIndex);
         } else {
             logger.info("Invalid position: " + position + " - no parse result find at this position.");
         }
         // brute force adding all sub-tokens in the specified interval
         for (int i = 1; i < length; i++) {
-            tokenStruct = parse.getTokenStructureByPosition(position + i);
-            if (tokenStruct != null) {
-                String[] pieces = tokenStruct.split("\t");
-                if (pieces.length == 8) {
-                    String index = pieces[0].trim();
-                    if (result == null)
-                        result = new ArrayList<>();
-                    if (!result.contains(index))
-                        result.add(index);
-                }
-            }
+            tokenIndex = parse.getTokenAtPosition(position + i);
+            if (tokenIndex != 0 && parse.isComplete(tokenIndex))
+                result.accept(tokenIndex);
         }
-        
-        return result;
     }
 
-    private String getNextStruct(int position, List<String> indexMeasurementTokens, int sentenceLength, SentenceParse parse) {
-        String childStruct = null;
-        int j = 0;
-        String currentIndex = null;
-        while (childStruct == null) {
-            if (position + j >= sentenceLength)
-                break;
-            childStruct = parse.getTokenStructureByPosition(position + j);
-            if (childStruct != null) {
-                String[] pieces = childStruct.split("\t");
-                if (pieces.length != 8)
-                    break;
-                currentIndex = pieces[0].trim();
-                if (indexMeasurementTokens.contains(currentIndex)) {
-                    childStruct = null;
-                    j++;
-                    continue;
-                }
-            }
-            j++;
+    /**
+     * @return the first token starting from the position which is not part of a measurement, 0 if none
+     */
+    private int getNextToken(int position, BitSet indexMeasurementTokens, int sentenceLength, SentenceParse parse) {
+        for (int j = 0; position + j < sentenceLength; j++) {
+            int tokenIndex = parse.getTokenAtPosition(position + j);
+            if (tokenIndex == 0)
+                continue;
+            // incomplete tokens stop the search, they are then ignored by the caller
+            if (!parse.isComplete(tokenIndex) || !indexMeasurementTokens.get(tokenIndex))
+                return tokenIndex;
         }
-        return childStruct;
+        return 0;
     }
 
-}
\ No newline at end of file
+}
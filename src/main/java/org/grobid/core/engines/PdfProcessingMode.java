@@ -0,0 +1,35 @@
+package org.grobid.core.engines;
+
+/**
+ * How the text of a PDF document is selected before the quantity parsing
+ */
+public enum PdfProcessingMode {
+    /**
+     * Header, fulltext, figure and table models, only the title, abstract, keywords, paragraphs, captions
+     * and annexes are processed
+     */
+    FULL,
+    /**
+     * Only the segmentation model, the header, body and annex zones are processed as they are
+     */
+    SEGMENTATION,
+    /**
+     * No structure model, all the text extracted from the PDF is processed
+     */
+    LAYOUT;
+
+    /**
+     * @return the mode with this name (case insensitive), FULL when the name is blank, null when it is unknown
+     */
+    public static PdfProcessingMode fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return FULL;
+        }
+        for (PdfProcessingMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name.trim())) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
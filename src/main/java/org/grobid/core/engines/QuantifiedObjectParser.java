@@ -6,7 +6,10 @@ import org.grobid.core.analyzers.QuantityAnalyzer;
 import org.grobid.core.data.Measurement;
 import org.grobid.core.data.QuantifiedObject;
 import org.grobid.core.engines.label.TaggingLabel;
+import org.grobid.core.engines.tagging.QuantitiesLabelling;
 import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.features.FeatureRowCache;
+import org.grobid.core.features.FeatureWriter;
 import org.grobid.core.features.FeaturesVectorQuantifiedObjects;
 import org.grobid.core.layout.BoundingBox;
 import org.grobid.core.layout.LayoutToken;
@@ -20,7 +23,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.stream.Collectors;
 
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.grobid.core.engines.label.QuantitiesTaggingLabels.*;
@@ -34,6 +36,8 @@ public class QuantifiedObjectParser extends AbstractParser {
 
     private static volatile QuantifiedObjectParser instance;
 
+    private final GrobidModel model;
+
     public static QuantifiedObjectParser getInstance() {
         if (instance == null) {
             getNewInstance();
@@ -47,11 +51,13 @@ public class QuantifiedObjectParser extends AbstractParser {
 
     protected QuantifiedObjectParser() {
         super(QuantitiesModels.QUANTIFIED_OBJECT);
+        model = QuantitiesModels.QUANTIFIED_OBJECT;
     }
 
     /** Workaround to maintain the compatibility for the time being **/
     protected QuantifiedObjectParser(GrobidModel model) {
         super(model);
+        this.model = model;
     }
 
     public List<Measurement> process(List<LayoutToken> layoutTokens, List<Measurement> measurements) {
@@ -62,15 +68,13 @@ public class QuantifiedObjectParser extends AbstractParser {
         // List<LayoutToken> for the selected segment
         List<LayoutToken> retokenizeLayoutTokens = QuantityAnalyzer.getInstance().retokenizeLayoutTokens(layoutTokens);
 
-        //Normalisation
-        List<LayoutToken> layoutTokenNormalised = retokenizeLayoutTokens
-                .stream()
-                .map(layoutToken -> {
-                            layoutToken.setText(UnicodeUtil.normaliseText(layoutToken.getText()));
-
-                            return layoutToken;
-                        }
-                ).collect(Collectors.toList());
+        //Normalisation, unless the tokens come from a normalised segment
+        List<LayoutToken> layoutTokenNormalised = retokenizeLayoutTokens;
+        if (!TextNormalizer.isNormalised(layoutTokens)) {
+            for (LayoutToken layoutToken : layoutTokenNormalised) {
+                layoutToken.setText(TextNormalizer.normaliseText(layoutToken.getText()));
+            }
+        }
 
         if (isEmpty(layoutTokenNormalised))
             return measurements;
@@ -200,6 +204,7 @@ public class QuantifiedObjectParser extends AbstractParser {
     }
 
     private String addFeatures(List<LayoutToken> tokens, List<Boolean> isMeasurement) {
+        FeatureRowCache rows = FeatureRowCache.getInstance(model.getModelName());
         StringBuilder result = new StringBuilder();
         try {
 
@@ -218,9 +223,15 @@ public class QuantifiedObjectParser extends AbstractParser {
                     continue;
                 }
 
-                FeaturesVectorQuantifiedObjects featuresVector =
-                        FeaturesVectorQuantifiedObjects.addFeatures(text, null, isMeasurement.get(index));
-                result.append(featuresVector.printVector());
+                if (StringUtils.isBlank(text)) {
+                    // the row is written as the null vector, as it always has been
+                    result.append("null\n");
+                    continue;
+                }
+
+                // only the measure flag depends on the context
+                rows.write(result, text, (res, t) -> FeaturesVectorQuantifiedObjects.addFeatures(t, null, false).writeTokenColumns(res));
+                FeatureWriter.appendFlag(result, isMeasurement.get(index));
                 result.append("\n");
             }
         } catch (Exception e) {
@@ -229,4 +240,8 @@ public class QuantifiedObjectParser extends AbstractParser {
         return result.toString();
     }
 
-}
\ No newline at end of file
+    @Override
+    public String label(String data) {
+        return QuantitiesLabelling.label(model, data, super::label);
+    }
+}
@@ -2,8 +2,10 @@ package org.grobid.core.engines;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.core.Response;
@@ -19,7 +21,10 @@ import org.grobid.core.document.DocumentPiece;
 import org.grobid.core.document.DocumentSource;
 import org.grobid.core.engines.config.GrobidAnalysisConfig;
 import org.grobid.core.engines.label.SegmentationLabels;
+import org.grobid.core.engines.label.TaggingLabel;
 import org.grobid.core.engines.label.TaggingLabels;
+import org.grobid.core.engines.utilities.TextChunker;
+import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.layout.LayoutTokenization;
 import org.grobid.core.tokenization.LabeledTokensContainer;
@@ -27,7 +32,8 @@ import org.grobid.core.tokenization.TaggingTokenCluster;
 import org.grobid.core.tokenization.TaggingTokenClusteror;
 import org.grobid.core.utilities.GrobidProperties;
 import org.grobid.core.utilities.IOUtilities;
-import org.grobid.core.utilities.UnicodeUtil;
+import org.grobid.core.utilities.QuantitiesProperties;
+import org.grobid.core.utilities.TextNormalizer;
 import org.grobid.core.utilities.UnitUtilities;
 import org.grobid.service.exceptions.GrobidServiceException;
 import org.slf4j.Logger;
@@ -38,9 +44,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -57,21 +71,61 @@ public class QuantitiesEngine {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(QuantitiesEngine.class);
 
-    private QuantityParser quantityParser;
+    // maximum number of tokens of the chunks processed in the segmentation and layout modes
+    private static final int PDF_CHUNK_SIZE = 512;
+
+    private QuantityParserPool parserPool;
     private UnitParser unitParser;
     private EngineParsers parsers;
+    // shared by the requests, null when the segments of the PDF documents are processed sequentially, each segment
+    // task leases its own parser so that the pool bounds the number of segments labelled concurrently
+    private ExecutorService sectionExecutor;
+    // same for the chunks of the long texts, null when the texts are not split
+    private ExecutorService chunkExecutor;
 
     private static QuantitiesEngine instance;
 
     @Inject
-    public QuantitiesEngine() {
+    public QuantitiesEngine(QuantityParserPool parserPool) {
         GrobidProperties.getInstance();
-        this.quantityParser = QuantityParser.getInstance();
+        this.parserPool = parserPool;
         this.unitParser = UnitParser.getInstance();
         this.parsers = new EngineParsers();
+        this.sectionExecutor = createSectionExecutor(QuantitiesProperties.getPdfSectionParallelism(), parserPool.getMaxSize());
+        this.chunkExecutor = createChunkExecutor(QuantitiesProperties.getTextChunkSize(),
+            QuantitiesProperties.getTextChunkParallelism(), parserPool.getMaxSize());
         instance = this;
     }
 
+    /**
+     * @param poolSize the maximum number of parsers of the pool, more threads would only wait for a parser
+     */
+    private static ExecutorService createSectionExecutor(int parallelism, int poolSize) {
+        if (parallelism == 1) {
+            return null;
+        }
+        int threads = Math.min(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), poolSize);
+        LOGGER.info("The segments of the PDF documents are processed by " + threads + " threads, at most "
+            + poolSize + " segments of all the requests being labelled at once (enginePoolSize).");
+        return Executors.newFixedThreadPool(threads,
+            new ThreadFactoryBuilder().setNameFormat("pdf-segments-%d").setDaemon(true).build());
+    }
+
+    private static ExecutorService createChunkExecutor(int chunkSize, int parallelism, int poolSize) {
+        if (chunkSize <= 0 || parallelism == 1) {
+            return null;
+        }
+        int threads = Math.min(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), poolSize);
+        LOGGER.info("The chunks of the long texts are processed by " + threads + " threads, at most "
+            + poolSize + " chunks of all the requests being labelled at once (enginePoolSize).");
+        return Executors.newFixedThreadPool(threads,
+            new ThreadFactoryBuilder().setNameFormat("text-chunks-%d").setDaemon(true).build());
+    }
+
+    public QuantitiesEngine() {
+        this(new QuantityParserPool());
+    }
+
     public static QuantitiesEngine getInstance() {
         if (instance == null) {
             instance = getNewInstance();
@@ -88,11 +142,21 @@ public class QuantitiesEngine {
     }
 
     public MeasurementsResponse processPdf(InputStream inputStream) {
+        return processPdf(inputStream, PdfProcessingMode.FULL);
+    }
+
+    /**
+     * Extract the measurements of a PDF document, the text being selected according to the mode: with the
+     * structure models (FULL), only with the segmentation zones (SEGMENTATION) or directly from the layout
+     * tokens (LAYOUT). The last two modes process the text in paragraph-sized chunks.
+     */
+    public MeasurementsResponse processPdf(InputStream inputStream, PdfProcessingMode mode) {
         long start = System.currentTimeMillis();
 
         List<Measurement> measurements = new ArrayList<>();
         Document doc;
         File originFile = null;
+        DocumentSource documentSource = null;
         try {
             originFile = IOUtilities.writeInputFile(inputStream);
             if (originFile == null) {
@@ -104,131 +168,251 @@ public class QuantitiesEngine {
                     .consolidateHeader(0)
                     .consolidateCitations(0)
                     .build();
-            DocumentSource documentSource =
-                DocumentSource.fromPdf(originFile);
+            documentSource = DocumentSource.fromPdf(originFile);
+
+            List<Function<QuantityParser, List<Measurement>>> segments;
+            if (mode == PdfProcessingMode.LAYOUT) {
+                doc = new Document(documentSource);
+                doc.addTokenizedDocument(config);
+                segments = getChunkSegments(doc.getTokenizations());
+            } else {
+                doc = parsers.getSegmentationParser().processing(documentSource, config);
+                segments = mode == PdfProcessingMode.SEGMENTATION
+                    ? getZoneSegments(doc)
+                    : getSegments(doc);
+            }
 
-            doc = parsers.getSegmentationParser().processing(documentSource, config);
+            measurements.addAll(processSegments(segments, sectionExecutor, parserPool));
+        } catch (NoSuchElementException nseExp) {
+            throw new GrobidServiceException("Could not get an instance of parser. ", Response.Status.SERVICE_UNAVAILABLE);
+        } finally {
+            // the segmentation parser removes the pdfalto output itself, the layout mode reads it directly
+            if (mode == PdfProcessingMode.LAYOUT && documentSource != null) {
+                DocumentSource.close(documentSource, true, true, true);
+            }
+            IOUtilities.removeTempFile(originFile);
+        }
 
-            // In the following, we process the relevant textual content of the document
+        // for next line, comparable measurement needs to be implemented
+        //Collections.sort(measurements);
 
-            // for refining the process based on structures, we need to filter
-            // segment of interest (e.g. header, body, annex) and possibly apply
-            // the corresponding model to further filter by structure types
+        MeasurementsResponse measurementsResponse = new MeasurementsResponse(measurements, doc.getPages());
+        long end = System.currentTimeMillis();
+        measurementsResponse.setRuntime(end - start);
 
-            // from the header, we are interested in title, abstract and keywords
-            SortedSet<DocumentPiece> documentParts = doc.getDocumentPart(SegmentationLabels.HEADER);
-            if (documentParts != null) {
-                Pair<String, List<LayoutToken>> headerStruct = parsers.getHeaderParser().getSectionHeaderFeatured(doc, documentParts);
-                List<LayoutToken> tokenizationHeader = headerStruct.getRight();//doc.getTokenizationParts(documentParts, doc.getTokenizations());
-                String header = headerStruct.getLeft();
-                String labeledResult = null;
-
-                if (StringUtils.isNotBlank(StringUtils.trimToEmpty(header))) {
-                    labeledResult = parsers.getHeaderParser().label(header);
-
-                    BiblioItem resHeader = new BiblioItem();
-                    //parsers.getHeaderParser().processingHeaderSection(false, doc, resHeader);
-                    resHeader.generalResultMappingHeader(labeledResult, tokenizationHeader);
-
-                    // title
-                    List<LayoutToken> titleTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_TITLE);
-                    if (titleTokens != null) {
-                        measurements.addAll(quantityParser.process(normaliseAndCleanup(titleTokens)));
-                    }
+        return measurementsResponse;
+    }
 
-                    // abstract
-                    List<LayoutToken> abstractTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_ABSTRACT);
-                    if (abstractTokens != null) {
-                        measurements.addAll(quantityParser.process(normaliseAndCleanup(abstractTokens)));
-                    }
+    /**
+     * Collect the textual segments of interest of the document (header title, abstract and keywords, body
+     * paragraphs, figure and table captions, annexes) in document order, each as a task extracting its measurements
+     * with a leased parser. The document level labelling (header, fulltext) is done here, the figure and table models
+     * are applied in the tasks.
+     */
+    private List<Function<QuantityParser, List<Measurement>>> getSegments(Document doc) {
+        List<Function<QuantityParser, List<Measurement>>> segments = new ArrayList<>();
+
+        // In the following, we process the relevant textual content of the document
+
+        // for refining the process based on structures, we need to filter
+        // segment of interest (e.g. header, body, annex) and possibly apply
+        // the corresponding model to further filter by structure types
+
+        // from the header, we are interested in title, abstract and keywords
+        SortedSet<DocumentPiece> documentParts = doc.getDocumentPart(SegmentationLabels.HEADER);
+        if (documentParts != null) {
+            Pair<String, List<LayoutToken>> headerStruct = parsers.getHeaderParser().getSectionHeaderFeatured(doc, documentParts);
+            List<LayoutToken> tokenizationHeader = headerStruct.getRight();//doc.getTokenizationParts(documentParts, doc.getTokenizations());
+            String header = headerStruct.getLeft();
+            String labeledResult = null;
+
+            if (StringUtils.isNotBlank(StringUtils.trimToEmpty(header))) {
+                labeledResult = parsers.getHeaderParser().label(header);
+
+                BiblioItem resHeader = new BiblioItem();
+                //parsers.getHeaderParser().processingHeaderSection(false, doc, resHeader);
+                resHeader.generalResultMappingHeader(labeledResult, tokenizationHeader);
+
+                // title
+                List<LayoutToken> titleTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_TITLE);
+                if (titleTokens != null) {
+                    segments.add(quantityParser -> quantityParser.process(normaliseAndCleanup(titleTokens)));
+                }
 
-                    // keywords
-                    List<LayoutToken> keywordTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_KEYWORD);
-                    if (keywordTokens != null) {
-                        measurements.addAll(quantityParser.process(normaliseAndCleanup(keywordTokens)));
-                    }
+                // abstract
+                List<LayoutToken> abstractTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_ABSTRACT);
+                if (abstractTokens != null) {
+                    segments.add(quantityParser -> quantityParser.process(normaliseAndCleanup(abstractTokens)));
+                }
+
+                // keywords
+                List<LayoutToken> keywordTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_KEYWORD);
+                if (keywordTokens != null) {
+                    segments.add(quantityParser -> quantityParser.process(normaliseAndCleanup(keywordTokens)));
                 }
             }
+        }
 
-            // we can process all the body, in the future figure and table could be the
-            // object of more refined processing
-            documentParts = doc.getDocumentPart(SegmentationLabels.BODY);
-            if (documentParts != null) {
-                Pair<String, LayoutTokenization> featSeg = parsers.getFullTextParser().getBodyTextFeatured(doc, documentParts);
+        // we can process all the body, in the future figure and table could be the
+        // object of more refined processing
+        documentParts = doc.getDocumentPart(SegmentationLabels.BODY);
+        if (documentParts != null) {
+            Pair<String, LayoutTokenization> featSeg = parsers.getFullTextParser().getBodyTextFeatured(doc, documentParts);
 
-                String fulltextTaggedRawResult = null;
-                if (featSeg != null) {
-                    String featureText = featSeg.getLeft();
-                    LayoutTokenization layoutTokenization = featSeg.getRight();
+            String fulltextTaggedRawResult = null;
+            if (featSeg != null) {
+                String featureText = featSeg.getLeft();
+                LayoutTokenization layoutTokenization = featSeg.getRight();
 
-                    if (StringUtils.isNotEmpty(featureText)) {
-                        fulltextTaggedRawResult = parsers.getFullTextParser().label(featureText);
-                    }
+                if (StringUtils.isNotEmpty(featureText)) {
+                    fulltextTaggedRawResult = parsers.getFullTextParser().label(featureText);
+                }
 
-                    TaggingTokenClusteror clusteror = new TaggingTokenClusteror(GrobidModels.FULLTEXT, fulltextTaggedRawResult,
-                        layoutTokenization.getTokenization(), true);
+                TaggingTokenClusteror clusteror = new TaggingTokenClusteror(GrobidModels.FULLTEXT, fulltextTaggedRawResult,
+                    layoutTokenization.getTokenization(), true);
 
-                    //Iterate and exclude figures and tables
-                    for (TaggingTokenCluster cluster : Iterables.filter(clusteror.cluster(),
-                        new TaggingTokenClusteror
-                            .LabelTypeExcludePredicate(TaggingLabels.TABLE_MARKER, TaggingLabels.EQUATION, TaggingLabels.CITATION_MARKER,
-                            TaggingLabels.FIGURE_MARKER, TaggingLabels.EQUATION_MARKER, TaggingLabels.EQUATION_LABEL))) {
+                //Iterate and exclude figures and tables
+                for (TaggingTokenCluster cluster : Iterables.filter(clusteror.cluster(),
+                    new TaggingTokenClusteror
+                        .LabelTypeExcludePredicate(TaggingLabels.TABLE_MARKER, TaggingLabels.EQUATION, TaggingLabels.CITATION_MARKER,
+                        TaggingLabels.FIGURE_MARKER, TaggingLabels.EQUATION_MARKER, TaggingLabels.EQUATION_LABEL))) {
 
-                        if (cluster.getTaggingLabel().equals(TaggingLabels.FIGURE)) {
-                            //apply the figure model to only get the caption
+                    if (cluster.getTaggingLabel().equals(TaggingLabels.FIGURE)) {
+                        //apply the figure model to only get the caption
+                        segments.add(quantityParser -> {
                             final Figure processedFigure = parsers.getFigureParser()
                                 .processing(cluster.concatTokens(), cluster.getFeatureBlock());
-                            measurements.addAll(quantityParser.process(normaliseAndCleanup(processedFigure.getCaptionLayoutTokens())));
-                        } else if (cluster.getTaggingLabel().equals(TaggingLabels.TABLE)) {
-                            //apply the table model to only get the caption/description
+                            return quantityParser.process(normaliseAndCleanup(processedFigure.getCaptionLayoutTokens()));
+                        });
+                    } else if (cluster.getTaggingLabel().equals(TaggingLabels.TABLE)) {
+                        //apply the table model to only get the caption/description
+                        segments.add(quantityParser -> {
+                            List<Measurement> tableMeasurements = new ArrayList<>();
                             final List<Table> processedTable = parsers.getTableParser().processing(cluster.concatTokens(), cluster.getFeatureBlock());
-                            processedTable.stream().forEach(t -> measurements.addAll(quantityParser.process(normaliseAndCleanup(t.getFullDescriptionTokens()))));
-
-                        } else {
-                            final List<LabeledTokensContainer> labeledTokensContainers = cluster.getLabeledTokensContainers();
-
-                            // extract all the layout tokens from the cluster as a list
-                            List<LayoutToken> tokens = labeledTokensContainers.stream()
-                                .map(LabeledTokensContainer::getLayoutTokens)
-                                .flatMap(List::stream)
-                                .collect(Collectors.toList());
-
-                            measurements.addAll(quantityParser.process(normaliseAndCleanup(tokens)));
-                        }
-
+                            for (Table table : processedTable) {
+                                tableMeasurements.addAll(quantityParser.process(normaliseAndCleanup(table.getFullDescriptionTokens())));
+                            }
+                            return tableMeasurements;
+                        });
+                    } else {
+                        final List<LabeledTokensContainer> labeledTokensContainers = cluster.getLabeledTokensContainers();
+
+                        // extract all the layout tokens from the cluster as a list
+                        List<LayoutToken> tokens = labeledTokensContainers.stream()
+                            .map(LabeledTokensContainer::getLayoutTokens)
+                            .flatMap(List::stream)
+                            .collect(Collectors.toList());
+
+                        segments.add(quantityParser -> quantityParser.process(normaliseAndCleanup(tokens)));
                     }
+
                 }
             }
+        }
 
-            // we don't process references (although reference titles could be relevant)
-            // acknowledgement?
+        // we don't process references (although reference titles could be relevant)
+        // acknowledgement?
+
+        // we can process annexes
+        documentParts = doc.getDocumentPart(SegmentationLabels.ANNEX);
+        if (documentParts != null) {
+            SortedSet<DocumentPiece> annexParts = documentParts;
+            segments.add(quantityParser -> processDocumentPart(annexParts, doc, quantityParser));
+        }
 
-            // we can process annexes
-            documentParts = doc.getDocumentPart(SegmentationLabels.ANNEX);
+        return segments;
+    }
+
+    /**
+     * Collect the header, body and annex zones of the segmentation model, without applying the structure models
+     */
+    private List<Function<QuantityParser, List<Measurement>>> getZoneSegments(Document doc) {
+        List<Function<QuantityParser, List<Measurement>>> segments = new ArrayList<>();
+        for (TaggingLabel label : Arrays.asList(SegmentationLabels.HEADER, SegmentationLabels.BODY, SegmentationLabels.ANNEX)) {
+            SortedSet<DocumentPiece> documentParts = doc.getDocumentPart(label);
             if (documentParts != null) {
-                measurements.addAll(processDocumentPart(documentParts, doc));
+                segments.addAll(getChunkSegments(doc.getTokenizationParts(documentParts, doc.getTokenizations())));
             }
-        } catch (NoSuchElementException nseExp) {
-            throw new GrobidServiceException("Could not get an instance of parser. ", Response.Status.SERVICE_UNAVAILABLE);
-        } finally {
-            IOUtilities.removeTempFile(originFile);
         }
+        return segments;
+    }
 
-        // for next line, comparable measurement needs to be implemented
-        //Collections.sort(measurements);
+    /**
+     * Split the tokens in paragraph-sized chunks, each processed as a segment
+     */
+    protected static List<Function<QuantityParser, List<Measurement>>> getChunkSegments(List<LayoutToken> tokens) {
+        List<Function<QuantityParser, List<Measurement>>> segments = new ArrayList<>();
+        if (isEmpty(tokens)) {
+            return segments;
+        }
+        int chunkSize = QuantitiesProperties.getTextChunkSize() > 0
+            ? QuantitiesProperties.getTextChunkSize() : PDF_CHUNK_SIZE;
+        for (List<LayoutToken> chunk : TextChunker.chunk(tokens, chunkSize)) {
+            segments.add(quantityParser -> quantityParser.process(normaliseAndCleanup(chunk)));
+        }
+        return segments;
+    }
 
-        MeasurementsResponse measurementsResponse = new MeasurementsResponse(measurements, doc.getPages());
-        long end = System.currentTimeMillis();
-        measurementsResponse.setRuntime(end - start);
+    /**
+     * Run the segment tasks on the executor, or sequentially when it is null, and gather their measurements
+     * in the order of the segments.
+     * <p>
+     * Sequentially, a single parser is leased for all the segments. On the executor, each task leases its own
+     * parser, while the calling thread holds none: the number of segments labelled at once, for all the requests,
+     * is bounded by the size of the pool.
+     *
+     * @throws NoSuchElementException if no parser is available within the configured time
+     */
+    protected static List<Measurement> processSegments(List<Function<QuantityParser, List<Measurement>>> segments,
+                                                       ExecutorService executor, QuantityParserPool parserPool) {
+        List<Measurement> measurements = new ArrayList<>();
+        if (segments.isEmpty()) {
+            return measurements;
+        }
+        if (executor == null || segments.size() < 2) {
+            QuantityParser quantityParser = parserPool.borrow();
+            try {
+                for (Function<QuantityParser, List<Measurement>> segment : segments) {
+                    measurements.addAll(segment.apply(quantityParser));
+                }
+            } finally {
+                parserPool.release(quantityParser);
+            }
+            return measurements;
+        }
 
-        return measurementsResponse;
+        List<CompletableFuture<List<Measurement>>> futures = new ArrayList<>(segments.size());
+        for (Function<QuantityParser, List<Measurement>> segment : segments) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                QuantityParser quantityParser = parserPool.borrow();
+                try {
+                    return segment.apply(quantityParser);
+                } finally {
+                    parserPool.release(quantityParser);
+                }
+            }, executor));
+        }
+        try {
+            // wait for all the segments, so that the response does not depend on the segments still running
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GrobidException("An exception occurred while processing the document segments.", e.getCause());
+        }
+        for (CompletableFuture<List<Measurement>> future : futures) {
+            measurements.addAll(future.join());
+        }
+        return measurements;
     }
 
     /**
      * Process with the quantity model a segment coming from the segmentation model
      */
     private List<Measurement> processDocumentPart(SortedSet<DocumentPiece> documentParts,
-                                                  Document doc) {
+                                                  Document doc,
+                                                  QuantityParser quantityParser) {
         // List<LayoutToken> for the selected segment
         List<LayoutToken> layoutTokens
             = doc.getTokenizationParts(documentParts, doc.getTokenizations());
@@ -236,6 +420,15 @@ public class QuantitiesEngine {
     }
 
     public List<Measurement> parseMeasurement(String json) {
+        QuantityParser quantityParser = parserPool.borrow();
+        try {
+            return parseMeasurement(json, quantityParser.getValueParser());
+        } finally {
+            parserPool.release(quantityParser);
+        }
+    }
+
+    private List<Measurement> parseMeasurement(String json, ValueParser valueParser) {
 
         ObjectMapper mapper = new ObjectMapper();
         mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
@@ -292,17 +485,17 @@ public class QuantitiesEngine {
             // note: there is no way to enforce the measurement type here
             // it will be inferred from the raw unit
             measurement.setAtomicQuantity(quantity);
-            quantity.setParsedValue(this.quantityParser.getValueParser().parseValue(atomicValue));
+            quantity.setParsedValue(valueParser.parseValue(atomicValue));
         } else {
             Quantity quantityLeast = new Quantity();
             Quantity quantityMost = new Quantity();
             quantityLeast.setRawValue(fromValue);
             quantityLeast.setRawUnit(new Unit(unitValue));
-            quantityLeast.setParsedValue(this.quantityParser.getValueParser().parseValue(fromValue));
+            quantityLeast.setParsedValue(valueParser.parseValue(fromValue));
 
             quantityMost.setRawValue(toValue);
             quantityMost.setRawUnit(new Unit(unitValue));
-            quantityMost.setParsedValue(this.quantityParser.getValueParser().parseValue(toValue));
+            quantityMost.setParsedValue(valueParser.parseValue(toValue));
 
             measurement.setQuantityLeast(quantityLeast);
             measurement.setQuantityMost(quantityMost);
@@ -315,9 +508,11 @@ public class QuantitiesEngine {
 
 
     public MeasurementsResponse processJson(String json) {
+        QuantityParser quantityParser = null;
         try {
             long start = System.currentTimeMillis();
-            List<Measurement> measurements = parseMeasurement(json);
+            quantityParser = parserPool.borrow();
+            List<Measurement> measurements = parseMeasurement(json, quantityParser.getValueParser());
             measurements = quantityParser.normalizeMeasurements(measurements);
             long end = System.currentTimeMillis();
             MeasurementsResponse response = new MeasurementsResponse(measurements);
@@ -329,13 +524,28 @@ public class QuantitiesEngine {
             throw new GrobidServiceException("Could not get an engine from the pool within configured time. Sending service unavailable.", e, Response.Status.SERVICE_UNAVAILABLE);
         } catch (Exception e) {
             throw new GrobidServiceException("An unexpected exception occurs. ", e, Response.Status.INTERNAL_SERVER_ERROR);
+        } finally {
+            parserPool.release(quantityParser);
         }
     }
 
+    /**
+     * Extract the measurements of a text, the chunks of a long text (see {@link QuantityParser#chunkText(String)})
+     * being processed in parallel, each with its own parser of the pool
+     */
     public MeasurementsResponse processText(String text) {
         try {
             long start = System.currentTimeMillis();
-            MeasurementsResponse response = new MeasurementsResponse(quantityParser.process(text));
+            List<List<LayoutToken>> chunks = QuantityParser.chunkText(text);
+            List<Measurement> measurements = null;
+            if (chunks != null) {
+                List<Function<QuantityParser, List<Measurement>>> segments = new ArrayList<>();
+                for (List<LayoutToken> chunk : chunks) {
+                    segments.add(quantityParser -> quantityParser.process(chunk));
+                }
+                measurements = processSegments(segments, chunkExecutor, parserPool);
+            }
+            MeasurementsResponse response = new MeasurementsResponse(measurements);
             long end = System.currentTimeMillis();
             response.setRuntime(end - start);
 
@@ -347,6 +557,93 @@ public class QuantitiesEngine {
         }
     }
 
+    /**
+     * Process a batch of texts given as a JSON array or as newline delimited JSON of {"id": ..., "text": ...}
+     * objects. The texts are labelled together and the results are keyed by their identifier.
+     */
+    public BatchMeasurementsResponse processTextBatch(String input) {
+        List<Pair<String, String>> items = parseTextBatch(input);
+
+        QuantityParser quantityParser = null;
+        try {
+            long start = System.currentTimeMillis();
+            quantityParser = parserPool.borrow();
+
+            List<String> texts = items.stream().map(Pair::getRight).collect(Collectors.toList());
+            List<List<Measurement>> results = null;
+            try {
+                results = quantityParser.processTexts(texts);
+            } catch (Exception e) {
+                LOGGER.warn("The batch processing failed, the texts are processed one by one. ", e);
+            }
+
+            BatchMeasurementsResponse response = new BatchMeasurementsResponse();
+            for (int i = 0; i < items.size(); i++) {
+                String id = items.get(i).getLeft();
+                if (results != null) {
+                    response.addResult(id, results.get(i));
+                    continue;
+                }
+                try {
+                    response.addResult(id, quantityParser.process(texts.get(i)));
+                } catch (Exception e) {
+                    LOGGER.error("Failed to process the text " + id, e);
+                    response.addError(id, "An unexpected exception occurs. " + e.getMessage());
+                }
+            }
+            long end = System.currentTimeMillis();
+            response.setRuntime(end - start);
+
+            return response;
+        } catch (NoSuchElementException e) {
+            throw new GrobidServiceException("Could not get an engine from the pool within configured time. Sending service unavailable.", e, Response.Status.SERVICE_UNAVAILABLE);
+        } catch (Exception e) {
+            throw new GrobidServiceException("An unexpected exception occurs. ", e, Response.Status.INTERNAL_SERVER_ERROR);
+        } finally {
+            parserPool.release(quantityParser);
+        }
+    }
+
+    /**
+     * Read the (id, text) pairs of a batch, either a JSON array or one JSON object per line
+     */
+    protected static List<Pair<String, String>> parseTextBatch(String input) {
+        if (StringUtils.isBlank(input)) {
+            throw new GrobidServiceException("The input is empty or null.", Response.Status.BAD_REQUEST);
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> nodes = new ArrayList<>();
+        try {
+            if (input.trim().startsWith("[")) {
+                mapper.readTree(input).forEach(nodes::add);
+            } else {
+                try (MappingIterator<JsonNode> iterator = mapper.readerFor(JsonNode.class).readValues(input)) {
+                    while (iterator.hasNext()) {
+                        nodes.add(iterator.next());
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new GrobidServiceException("Cannot parse input JSON. ", Response.Status.BAD_REQUEST);
+        }
+
+        List<Pair<String, String>> items = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (JsonNode node : nodes) {
+            JsonNode id = node.get("id");
+            JsonNode text = node.get("text");
+            if (id == null || id.isNull() || id.isContainerNode() || text == null || !text.isTextual()) {
+                throw new GrobidServiceException("Each item must have an \"id\" and a \"text\".", Response.Status.BAD_REQUEST);
+            }
+            if (!ids.add(id.asText())) {
+                throw new GrobidServiceException("Duplicated id: " + id.asText(), Response.Status.BAD_REQUEST);
+            }
+            items.add(Pair.of(id.asText(), text.textValue()));
+        }
+        return items;
+    }
+
     public void batchProcess(String inputDirectory, String outputDirectory, boolean isRecursive) {
         throw new NotImplementedException("Not yet implemented");
     }
@@ -420,20 +717,19 @@ public class QuantitiesEngine {
     }
 
     /**
-     * Transform break lines in spaces and remove duplicated spaces
+     * Transform break lines in spaces, normalise the tokens and remove duplicated spaces.
+     * The tokens are returned marked as normalised, so that the parsers do not normalise them again.
      */
     protected static List<LayoutToken> normaliseAndCleanup(List<LayoutToken> layoutTokens) {
         if (isEmpty(layoutTokens)) {
             return new ArrayList<>();
         }
 
-        //De-hypenisation and converting break lines with spaces.
+        //De-hypenisation, converting break lines with spaces and normalisation of the tokens.
         List<LayoutToken> bodyLayouts = layoutTokens
             .stream()
             .map(m -> {
-                m.setText(StringUtils.replace(m.getText(), "\r\n", " "));
-                m.setText(StringUtils.replace(m.getText(), "\n", " "));
-                m.setText(UnicodeUtil.normaliseText(m.getText()).replaceAll("\\p{C}", " "));
+                m.setText(TextNormalizer.normaliseAndCleanup(m.getText()));
                 return m;
             })
             .collect(Collectors.toList());
@@ -466,6 +762,6 @@ public class QuantitiesEngine {
                 }
             });
 
-        return cleanedTokens;
+        return TextNormalizer.markNormalised(cleanedTokens);
     }
 }
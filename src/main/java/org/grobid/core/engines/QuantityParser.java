@@ -10,13 +10,18 @@ import org.grobid.core.analyzers.QuantityAnalyzer;
 import org.grobid.core.data.Measurement;
 import org.grobid.core.data.Quantity;
 import org.grobid.core.data.Unit;
+import org.grobid.core.data.UnitBlock;
 import org.grobid.core.data.Value;
 import org.grobid.core.data.normalization.NormalizationException;
 import org.grobid.core.data.normalization.QuantityNormalizer;
 import org.grobid.core.data.normalization.UnitNormalizer;
 import org.grobid.core.engines.label.QuantitiesTaggingLabels;
 import org.grobid.core.engines.label.TaggingLabel;
+import org.grobid.core.engines.tagging.QuantitiesLabelling;
+import org.grobid.core.engines.utilities.BatchLabelling;
+import org.grobid.core.engines.utilities.TextChunker;
 import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.features.FeatureRowCache;
 import org.grobid.core.features.FeaturesVectorQuantities;
 import org.grobid.core.layout.BoundingBox;
 import org.grobid.core.layout.LayoutToken;
@@ -30,7 +35,9 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -57,6 +64,8 @@ public class QuantityParser extends AbstractParser {
     private boolean disableSubstanceParser = false;
     public static Pattern MINUS_SIGN_REGEX = Pattern.compile("\u2212");
 
+    private final GrobidModel model;
+
     public static QuantityParser getInstance(boolean disableSubstance) {
         if (instance == null) {
             instance = getNewInstance(disableSubstance);
@@ -89,6 +98,7 @@ public class QuantityParser extends AbstractParser {
 
     protected QuantityParser(GrobidModel model, QuantityLexicon quantityLexicon, MeasurementOperations measurementOperations, ValueParser valueParser) {
         super(model);
+        this.model = model;
         this.quantityLexicon = quantityLexicon;
         this.measurementOperations = measurementOperations;
         this.valueParser = valueParser;
@@ -98,6 +108,7 @@ public class QuantityParser extends AbstractParser {
     @Inject
     public QuantityParser() {
         super(QuantitiesModels.QUANTITIES);
+        model = QuantitiesModels.QUANTITIES;
         quantityLexicon = QuantityLexicon.getInstance();
         UnitNormalizer unitNormaliser = new UnitNormalizer();
         measurementOperations = new MeasurementOperations(unitNormaliser);
@@ -108,35 +119,40 @@ public class QuantityParser extends AbstractParser {
 //        this.tokeniser = new EnglishTokenizer();
     }
 
+    /**
+     * Parser stack leased by the {@link QuantityParserPool}: the labelling parsers are owned by this instance,
+     * while the normalisers (and their caches) are shared by all the stacks of the pool.
+     * The singleton is not replaced.
+     */
+    protected QuantityParser(ValueParser valueParser,
+                             MeasurementOperations measurementOperations,
+                             QuantityNormalizer quantityNormalizer,
+                             QuantifiedObjectParser quantifiedObjectParser) {
+        super(QuantitiesModels.QUANTITIES);
+        this.model = QuantitiesModels.QUANTITIES;
+        this.quantityLexicon = QuantityLexicon.getInstance();
+        this.valueParser = valueParser;
+        this.measurementOperations = measurementOperations;
+        this.quantityNormalizer = quantityNormalizer;
+        this.quantifiedObjectParser = quantifiedObjectParser;
+        this.disableSubstanceParser = quantifiedObjectParser == null;
+    }
+
     public List<Measurement> process(List<LayoutToken> layoutTokens) {
 
         List<Measurement> measurements = new ArrayList<>();
 
-        // List<LayoutToken> for the selected segment
-        List<LayoutToken> tokens = QuantityAnalyzer.getInstance().retokenizeLayoutTokens(layoutTokens);
-
-        //Normalisation
-        List<LayoutToken> layoutTokenNormalised = tokens.stream()
-            .map(layoutToken -> {
-                    layoutToken.setText(UnicodeUtil.normaliseText(layoutToken.getText()));
-                    layoutToken.setText(MINUS_SIGN_REGEX.matcher(layoutToken.getText()).replaceAll("-"));
-
-                    return layoutToken;
-                }
-            ).collect(Collectors.toList());
+        List<LayoutToken> layoutTokenNormalised = normaliseTokens(layoutTokens);
 
         // list of textual tokens of the selected segment
         //List<String> texts = getTexts(tokenizationParts);
 
-        if (isEmpty(layoutTokenNormalised))
+        if (isEmpty(layoutTokenNormalised) || skipWithoutCandidate(layoutTokenNormalised))
             return measurements;
 
         try {
-            // positions for lexical match
-            List<OffsetPosition> unitTokenPositions = quantityLexicon.inUnitNames(layoutTokenNormalised);
-
             // string representation of the feature matrix for CRF lib
-            String ress = addFeatures(layoutTokenNormalised, unitTokenPositions);
+            String ress = getFeatures(layoutTokenNormalised);
 
             if (StringUtils.isEmpty(ress))
                 return measurements;
@@ -149,33 +165,99 @@ public class QuantityParser extends AbstractParser {
                 throw new GrobidException("CRF labeling for quantity parsing failed.", e);
             }
 
-            String fixedResultLabelling = correctLabelling(resultLabelling);
+            measurements.addAll(processLabelled(layoutTokenNormalised, resultLabelling));
+        } catch (Exception e) {
+            throw new GrobidException("An exception occurred while running Grobid.", e);
+        }
+
+        return measurements;
+    }
 
-            List<OffsetPosition> sentences = getSentencesOffsets(layoutTokenNormalised);
+    private List<LayoutToken> normaliseTokens(List<LayoutToken> layoutTokens) {
+        // List<LayoutToken> for the selected segment
+        List<LayoutToken> tokens = QuantityAnalyzer.getInstance().retokenizeLayoutTokens(layoutTokens);
 
-            List<Measurement> localMeasurements = extractMeasurement(layoutTokenNormalised, fixedResultLabelling, sentences);
-            if (isEmpty(localMeasurements))
-                return measurements;
+        // the tokens of an already normalised segment are split without changing their characters
+        if (TextNormalizer.isNormalised(layoutTokens)) {
+            return TextNormalizer.markNormalised(tokens);
+        }
 
-            localMeasurements = measurementOperations.resolveMeasurement(localMeasurements);
-            try {
-                localMeasurements = normalizeMeasurements(localMeasurements);
-            } catch (Exception e) {
-                LOGGER.error("Normalisation failed. Skipping it. ", e);
-            }
+        //Normalisation
+        return TextNormalizer.normaliseTokens(tokens);
+    }
 
-            if (!disableSubstanceParser) {
-                localMeasurements = quantifiedObjectParser.process(layoutTokenNormalised, localMeasurements);
-            } else {
-                LOGGER.warn("Substance parser disabled, skipping it. ");
+    /**
+     * When the prefilter is enabled, skip the segments where no token can start a measurement, counting them
+     * under {@code grobid-quantities.prefilter.*}
+     */
+    private boolean skipWithoutCandidate(List<LayoutToken> layoutTokenNormalised) {
+        if (!QuantitiesProperties.isMeasurementPrefilter()) {
+            return false;
+        }
+        if (hasMeasurementCandidate(layoutTokenNormalised)) {
+            QuantitiesMetrics.getRegistry().counter(QuantitiesMetrics.name("prefilter", "segments", "processed")).inc();
+            return false;
+        }
+        QuantitiesMetrics.getRegistry().counter(QuantitiesMetrics.name("prefilter", "segments", "skipped")).inc();
+        QuantitiesMetrics.getRegistry().counter(QuantitiesMetrics.name("prefilter", "tokens", "skipped")).inc(layoutTokenNormalised.size());
+        return true;
+    }
+
+    /**
+     * A measurement needs a numerical value, the segment is a candidate if a token contains a digit (including
+     * fractions and superscripts) or is a number word of the lexicon (e.g. twelve, dozen)
+     */
+    protected boolean hasMeasurementCandidate(List<LayoutToken> tokens) {
+        for (LayoutToken token : tokens) {
+            String text = token.getText();
+            if (text == null) {
+                continue;
+            }
+            boolean letters = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (Character.isDigit(c) || Character.getType(c) == Character.OTHER_NUMBER) {
+                    return true;
+                }
+                letters |= Character.isLetter(c);
             }
+            if (letters && quantityLexicon != null && quantityLexicon.isNumberToken(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getFeatures(List<LayoutToken> layoutTokenNormalised) {
+        return addFeatures(layoutTokenNormalised);
+    }
 
-            measurements.addAll(localMeasurements);
+    /**
+     * Extract, resolve, normalise and attach the measurements from the labelled tokens
+     */
+    private List<Measurement> processLabelled(List<LayoutToken> layoutTokenNormalised, String resultLabelling) {
+        String fixedResultLabelling = correctLabelling(resultLabelling);
+
+        List<OffsetPosition> sentences = getSentencesOffsets(layoutTokenNormalised);
+
+        List<Measurement> localMeasurements = extractMeasurement(layoutTokenNormalised, fixedResultLabelling, sentences);
+        if (isEmpty(localMeasurements))
+            return new ArrayList<>();
+
+        localMeasurements = measurementOperations.resolveMeasurement(localMeasurements);
+        try {
+            localMeasurements = normalizeMeasurements(localMeasurements);
         } catch (Exception e) {
-            throw new GrobidException("An exception occurred while running Grobid.", e);
+            LOGGER.error("Normalisation failed. Skipping it. ", e);
         }
 
-        return measurements;
+        if (!disableSubstanceParser) {
+            localMeasurements = quantifiedObjectParser.process(layoutTokenNormalised, localMeasurements);
+        } else {
+            LOGGER.warn("Substance parser disabled, skipping it. ");
+        }
+
+        return localMeasurements;
     }
 
     protected List<OffsetPosition> getSentencesOffsets(List<LayoutToken> tokens) {
@@ -193,8 +275,120 @@ public class QuantityParser extends AbstractParser {
 
     /**
      * Extract all occurrences of measurement/quantities from a simple piece of text.
+     * <p>
+     * When the text is longer than the configured chunk size, it is split at paragraph or sentence boundaries
+     * and the chunks are processed one after the other, the offsets of the measurements refer to the whole text.
+     * The service processes the chunks in parallel, each with its own parser of the pool (see {@link #chunkText(String)}).
      */
     public List<Measurement> process(String text) {
+        List<List<LayoutToken>> chunks = chunkText(text);
+
+        if (chunks == null) {
+            return null;
+        }
+
+        List<Measurement> measurements = new ArrayList<>();
+        for (List<LayoutToken> chunk : chunks) {
+            measurements.addAll(process(chunk));
+        }
+        return measurements;
+    }
+
+    /**
+     * Tokenise the text and split it in chunks of at most the configured chunk size, at paragraph or sentence
+     * boundaries, each chunk being labelled as a separate sequence
+     *
+     * @return the chunks, a single one when the chunking is disabled or the text is short enough, null when the
+     * text has no token
+     */
+    public static List<List<LayoutToken>> chunkText(String text) {
+        List<LayoutToken> tokens = tokenizeText(text);
+
+        if (CollectionUtils.isEmpty(tokens)) {
+            return null;
+        }
+
+        int chunkSize = QuantitiesProperties.getTextChunkSize();
+        if (chunkSize > 0 && tokens.size() > chunkSize) {
+            return TextChunker.chunk(tokens, chunkSize);
+        }
+        return Collections.singletonList(tokens);
+    }
+
+    /**
+     * Extract the measurements of several independent pieces of text, labelled with a single call
+     * to the quantities model.
+     *
+     * The long texts are split in chunks as in {@link #process(String)}, each chunk being a sequence of the call.
+     *
+     * @return the measurements of each text in the order of the input, null for the texts without tokens
+     * as in {@link #process(String)}
+     */
+    public List<List<Measurement>> processTexts(List<String> texts) {
+        // for each text, its normalised chunks, an empty chunk when it is not labelled
+        List<List<List<LayoutToken>>> normalisedTexts = new ArrayList<>();
+        List<String> featureSequences = new ArrayList<>();
+
+        for (String text : texts) {
+            List<List<LayoutToken>> chunks = chunkText(text);
+            if (chunks == null) {
+                normalisedTexts.add(null);
+                continue;
+            }
+            List<List<LayoutToken>> normalisedChunks = new ArrayList<>();
+            for (List<LayoutToken> chunk : chunks) {
+                List<LayoutToken> layoutTokenNormalised = normaliseTokens(chunk);
+                String features = isEmpty(layoutTokenNormalised) || skipWithoutCandidate(layoutTokenNormalised)
+                    ? null : getFeatures(layoutTokenNormalised);
+                if (StringUtils.isEmpty(features)) {
+                    normalisedChunks.add(new ArrayList<>());
+                    continue;
+                }
+                normalisedChunks.add(layoutTokenNormalised);
+                featureSequences.add(features);
+            }
+            normalisedTexts.add(normalisedChunks);
+        }
+
+        List<String> results;
+        try {
+            results = BatchLabelling.label(featureSequences, this::label);
+            if (results == null) {
+                results = new ArrayList<>();
+                for (String features : featureSequences) {
+                    results.add(label(features));
+                }
+            }
+        } catch (Exception e) {
+            throw new GrobidException("CRF labeling for quantity parsing failed.", e);
+        }
+
+        List<List<Measurement>> measurements = new ArrayList<>();
+        int sequenceIndex = 0;
+        for (List<List<LayoutToken>> normalisedChunks : normalisedTexts) {
+            if (normalisedChunks == null) {
+                measurements.add(null);
+                continue;
+            }
+            List<Measurement> textMeasurements = new ArrayList<>();
+            for (List<LayoutToken> layoutTokenNormalised : normalisedChunks) {
+                if (layoutTokenNormalised.isEmpty()) {
+                    continue;
+                }
+                try {
+                    textMeasurements.addAll(processLabelled(layoutTokenNormalised, results.get(sequenceIndex)));
+                } catch (Exception e) {
+                    throw new GrobidException("An exception occurred while running Grobid.", e);
+                }
+                sequenceIndex++;
+            }
+            measurements.add(textMeasurements);
+        }
+
+        return measurements;
+    }
+
+    private static List<LayoutToken> tokenizeText(String text) {
         if (isBlank(text)) {
             return null;
         }
@@ -209,26 +403,25 @@ public class QuantityParser extends AbstractParser {
         } catch (Exception e) {
             LOGGER.error("fail to tokenize:, " + text, e);
         }
-
-        if (CollectionUtils.isEmpty(tokens)) {
-            return null;
-        }
-        return process(tokens);
+        return tokens;
     }
 
     public List<Measurement> normalizeMeasurements(List<Measurement> measurements) {
 
+        // the units of all the measurements are tagged together, each distinct unit only once
+        Map<Pair<String, Boolean>, List<UnitBlock>> taggedUnits = tagUnits(measurements);
+
         for (Measurement measurement : measurements) {
             if (measurement.getType() == null)
                 continue;
             else if (measurement.getType() == UnitUtilities.Measurement_Type.VALUE) {
-                normalizeQuantity(measurement.getQuantityAtomic());
+                normalizeQuantity(measurement.getQuantityAtomic(), taggedUnits);
             } else if (measurement.getType() == UnitUtilities.Measurement_Type.INTERVAL_MIN_MAX) {
-                normalizeQuantity(measurement.getQuantityLeast());
-                normalizeQuantity(measurement.getQuantityMost());
+                normalizeQuantity(measurement.getQuantityLeast(), taggedUnits);
+                normalizeQuantity(measurement.getQuantityMost(), taggedUnits);
             } else if (measurement.getType() == UnitUtilities.Measurement_Type.INTERVAL_BASE_RANGE) {
-                normalizeQuantity(measurement.getQuantityBase());
-                normalizeQuantity(measurement.getQuantityRange());
+                normalizeQuantity(measurement.getQuantityBase(), taggedUnits);
+                normalizeQuantity(measurement.getQuantityRange(), taggedUnits);
                 // the two quantities below are normally not yet set-up
                 Quantity quantityLeast = calculateQuantityLeast(measurement.getQuantityBase(), measurement.getQuantityRange());
                 if (quantityLeast != null) {
@@ -253,7 +446,7 @@ public class QuantityParser extends AbstractParser {
                         //                    }
                         //                }
 
-                        normalizeQuantity(quantity);
+                        normalizeQuantity(quantity, taggedUnits);
                     }
                 }
             }
@@ -261,13 +454,38 @@ public class QuantityParser extends AbstractParser {
         return measurements;
     }
 
-    private void normalizeQuantity(Quantity quantity) {
+    /**
+     * Tag in one batch the units of the quantities that are going to be normalized.
+     *
+     * @return the tagged units, or null if the batch failed and the units should be tagged one by one
+     */
+    private Map<Pair<String, Boolean>, List<UnitBlock>> tagUnits(List<Measurement> measurements) {
+        List<Quantity> quantities = measurements.stream()
+            .filter(m -> m.getType() != null)
+            .filter(m -> m.getType() != UnitUtilities.Measurement_Type.CONJUNCTION || m.getQuantityList() != null)
+            .flatMap(m -> QuantityOperations.toQuantityList(m).stream())
+            .filter(q -> q != null && !q.isNormalized())
+            .collect(Collectors.toList());
+
+        if (isEmpty(quantities)) {
+            return null;
+        }
+
+        try {
+            return quantityNormalizer.tagUnits(quantities);
+        } catch (Exception e) {
+            LOGGER.warn("Batch tagging of the units failed, tagging them one by one. ", e);
+            return null;
+        }
+    }
+
+    private void normalizeQuantity(Quantity quantity, Map<Pair<String, Boolean>, List<UnitBlock>> taggedUnits) {
         if (quantity == null)
             return;
         if (quantity.isNormalized())
             return;
         try {
-            Quantity.Normalized quantity1 = quantityNormalizer.normalizeQuantity(quantity);
+            Quantity.Normalized quantity1 = quantityNormalizer.normalizeQuantity(quantity, taggedUnits);
             if (quantity1 != null) {
                 quantity.setNormalizedQuantity(quantity1);
             }
@@ -325,14 +543,10 @@ public class QuantityParser extends AbstractParser {
         return quantityMost;
     }
 
-    @SuppressWarnings({"UnusedParameters"})
-    private String addFeatures(List<LayoutToken> tokens,
-                               List<OffsetPosition> unitTokenPositions) {
-        int totalLine = tokens.size();
-        int posit = 0;
-        int currentQuantityIndex = 0;
-        List<OffsetPosition> localPositions = unitTokenPositions;
-        boolean isUnitPattern = false;
+    private String addFeatures(List<LayoutToken> tokens) {
+        // the unit pattern flag is not a column of the model (see FeaturesVectorQuantities), so the unit names
+        // are not matched and the whole row only depends on the token and is cached for the frequent ones
+        FeatureRowCache rows = FeatureRowCache.getInstance(model.getModelName());
         StringBuilder result = new StringBuilder();
         try {
             for (LayoutToken token : tokens) {
@@ -346,32 +560,8 @@ public class QuantityParser extends AbstractParser {
                     continue;
                 }
 
-                isUnitPattern = true;
-
-                // do we have a unit at position posit?
-                if ((localPositions != null) && (localPositions.size() > 0)) {
-                    for (int mm = currentQuantityIndex; mm < localPositions.size(); mm++) {
-                        if ((posit >= localPositions.get(mm).start) && (posit <= localPositions.get(mm).end)) {
-                            isUnitPattern = true;
-                            currentQuantityIndex = mm;
-                            break;
-                        } else if (posit < localPositions.get(mm).start) {
-                            isUnitPattern = false;
-                            break;
-                        } else if (posit > localPositions.get(mm).end) {
-                            continue;
-                        }
-                    }
-                }
-
-                FeaturesVectorQuantities featuresVector =
-                    FeaturesVectorQuantities.addFeaturesQuantities(text, null,
-                        quantityLexicon.inUnitDictionary(text), isUnitPattern,
-                        quantityLexicon.isNumberToken(text));
-                result.append(featuresVector.printVector());
+                rows.write(result, text, this::writeFeatures);
                 result.append("\n");
-                posit++;
-                isUnitPattern = false;
             }
         } catch (Exception e) {
             throw new GrobidException("An exception occured while running Grobid.", e);
@@ -379,6 +569,17 @@ public class QuantityParser extends AbstractParser {
         return result.toString();
     }
 
+    private void writeFeatures(StringBuilder result, String text) {
+        FeaturesVectorQuantities featuresVector =
+            FeaturesVectorQuantities.addFeaturesQuantities(text, null,
+                quantityLexicon.inUnitDictionary(text), false,
+                quantityLexicon.isNumberToken(text));
+        if (!featuresVector.writeVector(result)) {
+            // blank token, the row is written as the null vector, as it always has been
+            result.append("null");
+        }
+    }
+
     public List<Measurement> extractMeasurement(List<LayoutToken> tokens, String result) {
         return extractMeasurement(tokens, result, Arrays.asList(new OffsetPosition(0, LayoutTokensUtil.toText(tokens).length())));
     }
@@ -404,6 +605,9 @@ public class QuantityParser extends AbstractParser {
 
         int pos = 0; // position in terms of characters for creating the offsets
 
+        // the values are parsed all together once the whole sequence has been read
+        List<Quantity> quantitiesToParse = new ArrayList<>();
+
         for (TaggingTokenCluster cluster : clusters) {
             if (cluster == null) {
                 continue;
@@ -451,10 +655,7 @@ public class QuantityParser extends AbstractParser {
                     currentUnit = new Unit();
                 }
                 currentQuantity = new Quantity(clusterContent, null, startPos, endPos);
-                final Value parsedValue = valueParser.parseValue(currentQuantity.getRawValue());
-                if (parsedValue != null) {
-                    currentQuantity.setParsedValue(parsedValue);
-                }
+                quantitiesToParse.add(currentQuantity);
                 currentQuantity.setLayoutTokens(theTokens);
                 currentMeasurement.setType(UnitUtilities.Measurement_Type.VALUE);
                 if (currentUnit.getRawName() != null) {
@@ -508,10 +709,7 @@ public class QuantityParser extends AbstractParser {
                 }
 
                 currentQuantity = new Quantity(clusterContent, null, startPos, endPos);
-                final Value parsedValue = valueParser.parseValue(currentQuantity.getRawValue());
-                if (parsedValue != null) {
-                    currentQuantity.setParsedValue(parsedValue);
-                }
+                quantitiesToParse.add(currentQuantity);
                 currentQuantity.setLayoutTokens(theTokens);
                 if (currentUnit.getRawName() != null
                     && currentSentence.equals(findSentenceOffset(sentences, new OffsetPosition(currentUnit.getOffsetStart(), currentUnit.getOffsetEnd()), offset))) {
@@ -553,10 +751,7 @@ public class QuantityParser extends AbstractParser {
                 }
 
                 currentQuantity = new Quantity(clusterContent, null, startPos, endPos);
-                final Value parsedValue = valueParser.parseValue(currentQuantity.getRawValue());
-                if (parsedValue != null) {
-                    currentQuantity.setParsedValue(parsedValue);
-                }
+                quantitiesToParse.add(currentQuantity);
                 currentQuantity.setLayoutTokens(theTokens);
                 if (currentUnit.getRawName() != null
                     && currentSentence.equals(findSentenceOffset(sentences, new OffsetPosition(currentUnit.getOffsetStart(), currentUnit.getOffsetEnd()), offset))) {
@@ -580,10 +775,7 @@ public class QuantityParser extends AbstractParser {
                     }
                 }
                 currentQuantity = new Quantity(clusterContent, null, startPos, endPos);
-                final Value parsedValue = valueParser.parseValue(currentQuantity.getRawValue());
-                if (parsedValue != null) {
-                    currentQuantity.setParsedValue(parsedValue);
-                }
+                quantitiesToParse.add(currentQuantity);
                 currentQuantity.setLayoutTokens(theTokens);
                 if (currentUnit.getRawName() != null
                     && currentSentence.equals(findSentenceOffset(sentences, new OffsetPosition(currentUnit.getOffsetStart(), currentUnit.getOffsetEnd()), offset))) {
@@ -607,10 +799,7 @@ public class QuantityParser extends AbstractParser {
                     }
                 }
                 currentQuantity = new Quantity(clusterContent, null, startPos, endPos);
-                final Value parsedValue = valueParser.parseValue(currentQuantity.getRawValue());
-                if (parsedValue != null) {
-                    currentQuantity.setParsedValue(parsedValue);
-                }
+                quantitiesToParse.add(currentQuantity);
                 currentQuantity.setLayoutTokens(theTokens);
                 if (currentUnit.getRawName() != null
                     && currentSentence.equals(findSentenceOffset(sentences, new OffsetPosition(currentUnit.getOffsetStart(), currentUnit.getOffsetEnd()), offset))) {
@@ -649,10 +838,7 @@ public class QuantityParser extends AbstractParser {
                     }
                 }
                 currentQuantity = new Quantity(clusterContent, null, startPos, endPos);
-                final Value parsedValue = valueParser.parseValue(currentQuantity.getRawValue());
-                if (parsedValue != null) {
-                    currentQuantity.setParsedValue(parsedValue);
-                }
+                quantitiesToParse.add(currentQuantity);
                 currentQuantity.setLayoutTokens(theTokens);
 
                 if (currentUnit.getRawName() != null
@@ -783,12 +969,36 @@ public class QuantityParser extends AbstractParser {
             measurements.add(currentMeasurement);
         }
 
+        parseValues(quantitiesToParse);
+
         measurements.stream().forEach(m -> populateRawOffsetsAndText(m, tokens));
 
         measurements = MeasurementOperations.postCorrection(measurements);
         return measurements;
     }
 
+    /**
+     * Parse the raw values of the quantities with a single batched call to the value parser
+     */
+    private void parseValues(List<Quantity> quantities) {
+        if (isEmpty(quantities)) {
+            return;
+        }
+
+        List<String> rawValues = quantities.stream()
+            .map(Quantity::getRawValue)
+            .collect(Collectors.toList());
+
+        List<Value> parsedValues = valueParser.parseValues(rawValues);
+
+        for (int i = 0; i < quantities.size(); i++) {
+            final Value parsedValue = parsedValues.get(i);
+            if (parsedValue != null) {
+                quantities.get(i).setParsedValue(parsedValue);
+            }
+        }
+    }
+
     protected static void populateRawOffsetsAndText(Measurement m, List<LayoutToken> tokens) {
         final Pair<OffsetPosition, String> measurementRawOffsetsAndText = QuantityOperations.getMeasurementRawOffsetsAndText(m, tokens);
         m.setRawOffsets(measurementRawOffsetsAndText.getLeft());
@@ -839,4 +1049,9 @@ public class QuantityParser extends AbstractParser {
     public ValueParser getValueParser() {
         return valueParser;
     }
+
+    @Override
+    public String label(String data) {
+        return QuantitiesLabelling.label(model, data, super::label);
+    }
 }
@@ -0,0 +1,150 @@
+package org.grobid.core.engines;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.pool.BasePoolableObjectFactory;
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.grobid.core.data.normalization.QuantityNormalizer;
+import org.grobid.core.data.normalization.UnitNormalizer;
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.utilities.MeasurementOperations;
+import org.grobid.core.utilities.QuantitiesMetrics;
+import org.grobid.core.utilities.QuantitiesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Pool of {@link QuantityParser} stacks (quantity, value and substance parsers), each request leases its own
+ * stack for the duration of the processing. The stacks share the normalisers and their caches.
+ * <p>
+ * The pool grows lazily up to its maximum size, the stacks idle for longer than the eviction time are released.
+ * When no stack becomes available within the maximum waiting time, a {@link NoSuchElementException} is thrown,
+ * which the service translates in SERVICE_UNAVAILABLE.
+ * <p>
+ * The number of leased and idle stacks and the number of timeouts are exposed under
+ * {@code grobid-quantities.pool.engines.*}.
+ */
+public class QuantityParserPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuantityParserPool.class);
+
+    private static final long EVICTION_RUN_PERIOD_MILLIS = 60_000L;
+
+    private final GenericObjectPool<QuantityParser> pool;
+    private final Counter timeouts;
+
+    public QuantityParserPool() {
+        this(QuantitiesProperties.getEnginePoolSize(),
+            QuantitiesProperties.getEnginePoolMaxWaitMillis(),
+            QuantitiesProperties.getEnginePoolIdleTimeoutMillis());
+    }
+
+    /**
+     * @param size               maximum number of stacks, 0 or less to use the number of available processors
+     * @param maxWaitMillis      maximum time waiting for a stack, 0 or less to wait indefinitely
+     * @param idleTimeoutMillis  minimum idle time before a stack is evicted, 0 or less to never evict
+     */
+    public QuantityParserPool(int size, long maxWaitMillis, long idleTimeoutMillis) {
+        this(size, maxWaitMillis, idleTimeoutMillis, QuantitiesMetrics.getRegistry());
+    }
+
+    public QuantityParserPool(int size, long maxWaitMillis, long idleTimeoutMillis, MetricRegistry registry) {
+        this(new ParserStackFactory(), size, maxWaitMillis, idleTimeoutMillis, registry);
+    }
+
+    protected QuantityParserPool(BasePoolableObjectFactory<QuantityParser> factory,
+                                 int size, long maxWaitMillis, long idleTimeoutMillis, MetricRegistry registry) {
+        int maxSize = size > 0 ? size : Runtime.getRuntime().availableProcessors();
+
+        pool = new GenericObjectPool<>(factory);
+        pool.setMaxActive(maxSize);
+        pool.setMaxIdle(maxSize);
+        pool.setMinIdle(0);
+        pool.setWhenExhaustedAction(GenericObjectPool.WHEN_EXHAUSTED_BLOCK);
+        pool.setMaxWait(maxWaitMillis > 0 ? maxWaitMillis : -1);
+        if (idleTimeoutMillis > 0) {
+            pool.setMinEvictableIdleTimeMillis(idleTimeoutMillis);
+            pool.setTimeBetweenEvictionRunsMillis(Math.min(idleTimeoutMillis, EVICTION_RUN_PERIOD_MILLIS));
+        }
+
+        timeouts = registry.counter(QuantitiesMetrics.name("pool", "engines", "timeouts"));
+        Gauge<Integer> active = pool::getNumActive;
+        Gauge<Integer> idle = pool::getNumIdle;
+        registry.gauge(QuantitiesMetrics.name("pool", "engines", "active"), () -> active);
+        registry.gauge(QuantitiesMetrics.name("pool", "engines", "idle"), () -> idle);
+
+        LOGGER.info("Quantity parser pool of maximum " + maxSize + " instances, waiting at most "
+            + (maxWaitMillis > 0 ? maxWaitMillis + " ms" : "indefinitely") + " for an instance.");
+    }
+
+    /**
+     * Lease a parser stack, to be returned with {@link #release(QuantityParser)}
+     *
+     * @throws NoSuchElementException if no stack is available within the configured time
+     */
+    public QuantityParser borrow() {
+        try {
+            return pool.borrowObject();
+        } catch (NoSuchElementException e) {
+            timeouts.inc();
+            throw e;
+        } catch (Exception e) {
+            throw new GrobidException("Cannot create a quantity parser instance.", e);
+        }
+    }
+
+    public void release(QuantityParser parser) {
+        if (parser == null) {
+            return;
+        }
+        try {
+            pool.returnObject(parser);
+        } catch (Exception e) {
+            LOGGER.warn("Cannot return the quantity parser to the pool.", e);
+        }
+    }
+
+    public int getNumActive() {
+        return pool.getNumActive();
+    }
+
+    public int getNumIdle() {
+        return pool.getNumIdle();
+    }
+
+    public int getMaxSize() {
+        return pool.getMaxActive();
+    }
+
+    public void close() {
+        try {
+            pool.close();
+        } catch (Exception e) {
+            LOGGER.warn("Cannot close the quantity parser pool.", e);
+        }
+    }
+
+    /**
+     * Create the parser stacks, sharing a single set of normalisers
+     */
+    protected static class ParserStackFactory extends BasePoolableObjectFactory<QuantityParser> {
+        private volatile MeasurementOperations measurementOperations;
+        private volatile QuantityNormalizer quantityNormalizer;
+
+        @Override
+        public QuantityParser makeObject() {
+            initNormalizers();
+            return new QuantityParser(new ValueParser(QuantitiesModels.VALUES), measurementOperations,
+                quantityNormalizer, new DefaultQuantifiedObjectParser());
+        }
+
+        private synchronized void initNormalizers() {
+            if (quantityNormalizer == null) {
+                measurementOperations = new MeasurementOperations(new UnitNormalizer());
+                quantityNormalizer = new QuantityNormalizer();
+            }
+        }
+    }
+}
@@ -2,11 +2,14 @@ package org.grobid.core.engines;
 
 import com.google.common.collect.Iterables;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.grobid.core.GrobidModel;
-import org.grobid.core.analyzers.QuantityAnalyzer;
+import org.grobid.core.analyzers.UnitCharacterSequence;
 import org.grobid.core.data.UnitBlock;
 import org.grobid.core.engines.label.QuantitiesTaggingLabels;
 import org.grobid.core.engines.label.TaggingLabel;
+import org.grobid.core.engines.tagging.QuantitiesLabelling;
+import org.grobid.core.engines.utilities.BatchLabelling;
 import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.features.FeaturesVectorUnits;
 import org.grobid.core.layout.LayoutToken;
@@ -16,12 +19,13 @@ import org.grobid.core.tokenization.TaggingTokenCluster;
 import org.grobid.core.tokenization.TaggingTokenClusteror;
 import org.grobid.core.utilities.LayoutTokensUtil;
 import org.grobid.core.utilities.OffsetPosition;
-import org.grobid.core.utilities.UnicodeUtil;
+import org.grobid.core.utilities.TextNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.grobid.core.engines.label.QuantitiesTaggingLabels.UNIT_VALUE_OTHER;
@@ -48,13 +52,17 @@ public class UnitParser extends AbstractParser {
 
     private QuantityLexicon quantityLexicon = null;
 
+    private final GrobidModel model;
+
     private UnitParser() {
         super(QuantitiesModels.UNITS);
+        model = QuantitiesModels.UNITS;
         quantityLexicon = QuantityLexicon.getInstance();
     }
 
     protected UnitParser(GrobidModel model, QuantityLexicon quantityLexicon) {
         super(model);
+        this.model = model;
         this.quantityLexicon = quantityLexicon;
     }
 
@@ -73,21 +81,16 @@ public class UnitParser extends AbstractParser {
         List<UnitBlock> units = new ArrayList<>();
 
         try {
-            String textPreprocessed = text.replace("\r\n", " ");
-            textPreprocessed = UnicodeUtil.normaliseText(textPreprocessed);
-
-            String ress = null;
-            QuantityAnalyzer analyzer = QuantityAnalyzer.getInstance();
-            List<LayoutToken> tokens = analyzer.tokenizeWithLayoutTokenByCharacter(textPreprocessed);
+            UnitCharacterSequence characters = tokenizeUnit(text);
 
-            ress = addFeatures(tokens, isUnitLeft);
+            String ress = addFeatures(characters, isUnitLeft);
             String res;
             try {
                 res = label(ress);
             } catch (Exception e) {
                 throw new GrobidException("CRF labeling for quantity parsing failed.", e);
             }
-            units = resultExtraction(res, tokens);
+            units = resultExtraction(res, characters.toLayoutTokens());
         } catch (Exception e) {
             throw new GrobidException("An exception occurred while running Grobid.", e);
         }
@@ -95,6 +98,73 @@ public class UnitParser extends AbstractParser {
         return units;
     }
 
+    /**
+     * Tag several units with a single call to the sequence labelling. Each unit is given as a pair
+     * (text, isUnitLeft) and the result list is aligned with the input, blank units give null.
+     */
+    public List<List<UnitBlock>> tagUnits(List<Pair<String, Boolean>> units) {
+        List<UnitCharacterSequence> tokenizedUnits = new ArrayList<>();
+        List<String> featureSequences = new ArrayList<>();
+
+        try {
+            for (Pair<String, Boolean> unit : units) {
+                if (isBlank(unit.getLeft())) {
+                    tokenizedUnits.add(null);
+                    continue;
+                }
+                UnitCharacterSequence characters = tokenizeUnit(unit.getLeft());
+                String features = addFeatures(characters, unit.getRight());
+                if (isBlank(features)) {
+                    tokenizedUnits.add(null);
+                    continue;
+                }
+                tokenizedUnits.add(characters);
+                featureSequences.add(features);
+            }
+        } catch (Exception e) {
+            throw new GrobidException("An exception occurred while running Grobid.", e);
+        }
+
+        List<String> results;
+        try {
+            results = BatchLabelling.label(featureSequences, this::label);
+        } catch (Exception e) {
+            throw new GrobidException("CRF labeling for quantity parsing failed.", e);
+        }
+
+        if (results == null) {
+            return units.stream()
+                .map(u -> tagUnit(u.getLeft(), u.getRight()))
+                .collect(Collectors.toList());
+        }
+
+        List<List<UnitBlock>> taggedUnits = new ArrayList<>();
+        int sequenceIndex = 0;
+        for (int i = 0; i < units.size(); i++) {
+            UnitCharacterSequence characters = tokenizedUnits.get(i);
+            if (characters == null) {
+                // units without features are tagged individually, as in the single unit case
+                Pair<String, Boolean> unit = units.get(i);
+                taggedUnits.add(tagUnit(unit.getLeft(), unit.getRight()));
+                continue;
+            }
+            taggedUnits.add(resultExtraction(results.get(sequenceIndex), characters.toLayoutTokens()));
+            sequenceIndex++;
+        }
+
+        return taggedUnits;
+    }
+
+    /**
+     * The unit model works at character level, the text is normalised once and each of its characters is a token
+     */
+    private UnitCharacterSequence tokenizeUnit(String text) {
+        String textPreprocessed = text.replace("\r\n", " ");
+        textPreprocessed = TextNormalizer.normaliseText(textPreprocessed);
+
+        return new UnitCharacterSequence(textPreprocessed);
+    }
+
     /**
      * Extract identified quantities from a labelled text.
      */
@@ -221,28 +291,34 @@ public class UnitParser extends AbstractParser {
 
 
     @SuppressWarnings({"UnusedParameters"})
-    private String addFeatures(List<LayoutToken> layoutTokens, boolean isUnitLeft) {
+    private String addFeatures(UnitCharacterSequence characters, boolean isUnitLeft) {
 
         StringBuilder result = new StringBuilder();
 
         try {
-            for (LayoutToken layoutToken : layoutTokens) {
-                if (isBlank(layoutToken.getText())) {
+            for (int i = 0; i < characters.length(); i++) {
+                if (characters.isBlank(i)) {
                     continue;
                 }
+                String character = characters.getToken(i);
 
                 FeaturesVectorUnits featuresVector =
-                    FeaturesVectorUnits.addFeaturesUnit(layoutToken.getText(),
+                    FeaturesVectorUnits.addFeaturesUnit(character,
                         null,
-                        quantityLexicon.inUnitDictionary(layoutToken.getText()),
-                        quantityLexicon.inPrefixDictionary(layoutToken.getText()), isUnitLeft);
+                        quantityLexicon.inUnitDictionary(character),
+                        quantityLexicon.inPrefixDictionary(character), isUnitLeft);
 
-                result.append(featuresVector.printVector())
-                    .append("\n");
+                featuresVector.writeVector(result);
+                result.append("\n");
             }
         } catch (Exception e) {
             throw new GrobidException("An exception occured while running Grobid.", e);
         }
         return result.toString();
     }
+
+    @Override
+    public String label(String data) {
+        return QuantitiesLabelling.label(model, data, super::label);
+    }
 }
@@ -1,5 +1,6 @@
 package org.grobid.core.engines;
 
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.RegExUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.grobid.core.GrobidModel;
@@ -9,14 +10,17 @@ import org.grobid.core.data.ValueBlock;
 import org.grobid.core.data.normalization.NormalizationException;
 import org.grobid.core.engines.label.QuantitiesTaggingLabels;
 import org.grobid.core.engines.label.TaggingLabel;
+import org.grobid.core.engines.tagging.QuantitiesLabelling;
+import org.grobid.core.engines.utilities.BatchLabelling;
 import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.features.FeatureRowCache;
 import org.grobid.core.features.FeaturesVectorValues;
 import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.tokenization.TaggingTokenCluster;
 import org.grobid.core.tokenization.TaggingTokenClusteror;
 import org.grobid.core.utilities.LayoutTokensUtil;
 import org.grobid.core.utilities.OffsetPosition;
-import org.grobid.core.utilities.UnicodeUtil;
+import org.grobid.core.utilities.TextNormalizer;
 import org.grobid.core.utilities.WordsToNumber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,9 +29,11 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.*;
 import static org.grobid.core.engines.label.QuantitiesTaggingLabels.*;
@@ -44,6 +50,8 @@ public class ValueParser extends AbstractParser {
     private static volatile ValueParser instance;
     private static final Pattern TILDE_PATTERNS = Pattern.compile("[∼~]");
 
+    private final GrobidModel model;
+
     public static ValueParser getInstance() {
         if (instance == null) {
             getNewInstance();
@@ -57,10 +65,12 @@ public class ValueParser extends AbstractParser {
 
     protected ValueParser() {
         super(QuantitiesModels.VALUES);
+        model = QuantitiesModels.VALUES;
     }
 
     public ValueParser(GrobidModel model) {
         super(model);
+        this.model = model;
     }
 
     public Value parseValue(String rawValue) {
@@ -70,6 +80,41 @@ public class ValueParser extends AbstractParser {
     public Value parseValue(String rawValue, Locale locale) {
         ValueBlock block = tagValue(rawValue);
 
+        return createValue(rawValue, block, locale);
+    }
+
+    /**
+     * Parse several raw values with a single call to the sequence labelling, for example all the values
+     * of a paragraph. If the batched labelling fails, the values are parsed one by one.
+     */
+    public List<Value> parseValues(List<String> rawValues) {
+        if (CollectionUtils.isEmpty(rawValues)) {
+            return new ArrayList<>();
+        }
+
+        List<ValueBlock> blocks = null;
+        if (rawValues.size() > 1) {
+            try {
+                blocks = tagValues(rawValues);
+            } catch (Exception e) {
+                LOGGER.warn("Batch labelling of " + rawValues.size() + " values failed, parsing them one by one. ", e);
+            }
+        }
+
+        if (blocks == null) {
+            return rawValues.stream()
+                .map(this::parseValue)
+                .collect(Collectors.toList());
+        }
+
+        List<Value> values = new ArrayList<>();
+        for (int i = 0; i < rawValues.size(); i++) {
+            values.add(createValue(rawValues.get(i), blocks.get(i), Locale.ENGLISH));
+        }
+        return values;
+    }
+
+    private Value createValue(String rawValue, ValueBlock block, Locale locale) {
         BigDecimal numeric = parseValueBlock(block, locale);
         final Value resultValue = new Value();
         resultValue.setRawValue(rawValue);
@@ -179,10 +224,18 @@ public class ValueParser extends AbstractParser {
     }
 
     public static String removeSpacesTabsAndBl(String block) {
-        return UnicodeUtil.normaliseText(block)
-            .replaceAll("\n", " ")
-            .replaceAll("\t", " ")
-            .replaceAll(" ", "");
+        String text = TextNormalizer.normaliseText(block);
+        if (StringUtils.containsNone(text, ' ', '\t', '\n')) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
     }
 
 
@@ -194,10 +247,7 @@ public class ValueParser extends AbstractParser {
         ValueBlock parsedValue = null;
 
         try {
-            text = text.replace("\n\r", " ");
-
-            QuantityAnalyzer analyzer = QuantityAnalyzer.getInstance();
-            List<LayoutToken> layoutTokens = analyzer.tokenizeWithLayoutToken(text);
+            List<LayoutToken> layoutTokens = tokenizeValue(text);
 
             String ress = addFeatures(layoutTokens);
             String res;
@@ -216,6 +266,65 @@ public class ValueParser extends AbstractParser {
         return parsedValue;
     }
 
+    /**
+     * Tag several values in one labelling call. The result list is aligned with the input, blank values
+     * give a null block.
+     *
+     * @return the list of value blocks, or null if the labelled output could not be aligned with the input
+     */
+    public List<ValueBlock> tagValues(List<String> texts) {
+        List<List<LayoutToken>> tokenizedValues = new ArrayList<>();
+        List<String> featureSequences = new ArrayList<>();
+
+        for (String text : texts) {
+            if (isBlank(text)) {
+                tokenizedValues.add(null);
+                continue;
+            }
+            List<LayoutToken> layoutTokens = tokenizeValue(text);
+            String features = addFeatures(layoutTokens);
+            if (isBlank(features)) {
+                tokenizedValues.add(null);
+                continue;
+            }
+            tokenizedValues.add(layoutTokens);
+            featureSequences.add(features);
+        }
+
+        List<String> results;
+        try {
+            results = BatchLabelling.label(featureSequences, this::label);
+        } catch (Exception e) {
+            throw new GrobidException("CRF labeling for quantity parsing failed.", e);
+        }
+
+        if (results == null) {
+            return null;
+        }
+
+        List<ValueBlock> parsedValues = new ArrayList<>();
+        int sequenceIndex = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            List<LayoutToken> layoutTokens = tokenizedValues.get(i);
+            if (layoutTokens == null) {
+                // values without features are tagged individually, as in the single value case
+                parsedValues.add(isBlank(texts.get(i)) ? null : tagValue(texts.get(i)));
+                continue;
+            }
+            String fixedRes = correctLabelling(results.get(sequenceIndex));
+            parsedValues.add(resultExtraction(fixedRes, layoutTokens));
+            sequenceIndex++;
+        }
+
+        return parsedValues;
+    }
+
+    private List<LayoutToken> tokenizeValue(String text) {
+        String textPreprocessed = text.replace("\n\r", " ");
+
+        return QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(textPreprocessed);
+    }
+
     /**
      * Extract identified quantities from a labelled text.
      *  - if whatever contained into is numeric, it goes into <number>
@@ -366,6 +475,8 @@ public class ValueParser extends AbstractParser {
     @SuppressWarnings({"UnusedParameters"})
     private String addFeatures(List<LayoutToken> layoutTokens) {
 
+        // without label, the row only depends on the token
+        FeatureRowCache rows = FeatureRowCache.getInstance(model.getModelName());
         StringBuilder result = new StringBuilder();
         try {
             for (LayoutToken token : layoutTokens) {
@@ -373,11 +484,8 @@ public class ValueParser extends AbstractParser {
                     continue;
                 }
 
-                FeaturesVectorValues featuresVector =
-                    FeaturesVectorValues.addFeatures(trim(token.getText()), null);
-
-                result.append(featuresVector.printVector())
-                    .append("\n");
+                rows.write(result, trim(token.getText()), (res, text) -> FeaturesVectorValues.addFeatures(text, null).writeVector(res));
+                result.append("\n");
             }
         } catch (Exception e) {
             throw new GrobidException("An exception occured while running Grobid.", e);
@@ -385,4 +493,8 @@ public class ValueParser extends AbstractParser {
         return result.toString();
     }
 
-}
\ No newline at end of file
+    @Override
+    public String label(String data) {
+        return QuantitiesLabelling.label(model, data, super::label);
+    }
+}
@@ -0,0 +1,212 @@
+package org.grobid.core.engines.tagging;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.grobid.core.GrobidModel;
+import org.grobid.core.engines.utilities.BatchLabelling;
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.QuantitiesMetrics;
+import org.grobid.core.utilities.QuantitiesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesce the concurrent labelling requests of a model in a single call to the labelling engine.
+ * <p>
+ * The first request waiting in the queue opens a batch, the requests arriving within the batching window
+ * (or until the maximum batch size is reached) are labelled with it as a multi-sequence input, and each caller
+ * receives its own part of the output. The data of a request is split in its sequences before the length
+ * bucketing of {@link BatchLabelling}, so that the sequences of a multi-sequence request (values, units, texts
+ * of a batch) go to the bucket of their own length. This is meant for the DeLFT models, where each call goes through the
+ * single Python interpreter and the fixed cost of a call dominates for the short sequences of this service.
+ * <p>
+ * When the batched output cannot be aligned with the input, or when the batched call fails, the requests of the
+ * batch are labelled one by one, so that a faulty input only fails its own caller.
+ * <p>
+ * The batch sizes, the time spent in the queue and the time of the labelling calls are exposed under
+ * {@code grobid-quantities.labelling.<model>.*}.
+ */
+public class LabellingScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LabellingScheduler.class);
+
+    private static final Map<String, Optional<LabellingScheduler>> SCHEDULERS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<LabellingRequest> queue = new LinkedBlockingQueue<>();
+
+    private final Histogram batchSizes;
+    private final Timer queueDelay;
+    private final Timer labellingTime;
+
+    /**
+     * Label the data through the scheduler of the model when the batching is enabled and the model runs on
+     * DeLFT, otherwise directly with the labeller.
+     */
+    public static String label(GrobidModel model, String data, Function<String, String> labeller) {
+        if (QuantitiesProperties.getLabellingBatchWindowMillis() <= 0 || model == null) {
+            return labeller.apply(data);
+        }
+        Optional<LabellingScheduler> scheduler = SCHEDULERS.computeIfAbsent(model.getModelName(),
+            name -> createScheduler(model));
+        return scheduler.isPresent() ? scheduler.get().label(data, labeller) : labeller.apply(data);
+    }
+
+    private static Optional<LabellingScheduler> createScheduler(GrobidModel model) {
+        try {
+            if (GrobidProperties.getGrobidCRFEngine(model) != GrobidCRFEngine.DELFT) {
+                return Optional.empty();
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Cannot determine the engine of the model " + model.getModelName() + ", the requests are not batched.", e);
+            return Optional.empty();
+        }
+        return Optional.of(new LabellingScheduler(model.getModelName(),
+            QuantitiesProperties.getLabellingBatchWindowMillis(),
+            QuantitiesProperties.getLabellingBatchMaxSize(),
+            QuantitiesMetrics.getRegistry()));
+    }
+
+    /**
+     * @param name          name of the model, used for the metrics and the dispatching thread
+     * @param windowMillis  time during which the requests following the first one are added to the batch
+     * @param maxBatchSize  maximum number of requests labelled together, 0 or less for no limit
+     */
+    public LabellingScheduler(String name, long windowMillis, int maxBatchSize, MetricRegistry registry) {
+        this.name = name;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : Integer.MAX_VALUE;
+
+        batchSizes = registry.histogram(QuantitiesMetrics.name("labelling", name, "batch", "size"));
+        queueDelay = registry.timer(QuantitiesMetrics.name("labelling", name, "queue", "delay"));
+        labellingTime = registry.timer(QuantitiesMetrics.name("labelling", name, "calls"));
+
+        Thread dispatcher = new Thread(this::dispatch, "labelling-" + name);
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+
+        LOGGER.info("Labelling requests of the model " + name + " batched within " + windowMillis
+            + " ms, at most " + (maxBatchSize > 0 ? maxBatchSize : "unlimited") + " per batch.");
+    }
+
+    /**
+     * Submit the data to the next batch and wait for its labelled output
+     */
+    public String label(String data, Function<String, String> labeller) {
+        LabellingRequest request = new LabellingRequest(data, labeller);
+        queue.add(request);
+        try {
+            return request.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrobidException("Interrupted while waiting for the labelling of the model " + name, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GrobidException("Sequence labelling failed for the model " + name, e.getCause());
+        }
+    }
+
+    private void dispatch() {
+        List<LabellingRequest> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    LabellingRequest next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            } catch (InterruptedException e) {
+                LOGGER.warn("The labelling dispatcher of the model " + name + " was interrupted.");
+                for (LabellingRequest request : batch) {
+                    request.result.completeExceptionally(e);
+                }
+                return;
+            } catch (Throwable e) {
+                LOGGER.error("Unexpected error while labelling a batch of the model " + name, e);
+                for (LabellingRequest request : batch) {
+                    request.result.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    protected void process(List<LabellingRequest> batch) {
+        long now = System.nanoTime();
+        for (LabellingRequest request : batch) {
+            queueDelay.update(now - request.submitted, TimeUnit.NANOSECONDS);
+        }
+        batchSizes.update(batch.size());
+
+        List<String> inputs = new ArrayList<>();
+        int[] sequenceCounts = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            List<String> sequences = BatchLabelling.sequences(batch.get(i).data);
+            sequenceCounts[i] = sequences.size();
+            inputs.addAll(sequences);
+        }
+
+        // a single request is only split when its sequences can be labelled by length buckets
+        if (inputs.size() > 1 && (batch.size() > 1 || QuantitiesProperties.getLabellingBuckets().length > 0)) {
+            List<String> outputs = null;
+            try (Timer.Context ignored = labellingTime.time()) {
+                outputs = BatchLabelling.label(inputs, batch.get(0).labeller);
+            } catch (Exception e) {
+                LOGGER.warn("Batched labelling failed for the model " + name + ", labelling the requests one by one.", e);
+            }
+            if (outputs != null) {
+                int position = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    // the sequences of the request separated by an empty line, as in the labeller output
+                    batch.get(i).result.complete(String.join("\n", outputs.subList(position, position + sequenceCounts[i])));
+                    position += sequenceCounts[i];
+                }
+                return;
+            }
+        }
+
+        for (LabellingRequest request : batch) {
+            try (Timer.Context ignored = labellingTime.time()) {
+                request.result.complete(request.labeller.apply(request.data));
+            } catch (Exception e) {
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    protected static class LabellingRequest {
+        final String data;
+        final Function<String, String> labeller;
+        final long submitted = System.nanoTime();
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        LabellingRequest(String data, Function<String, String> labeller) {
+            this.data = data;
+            this.labeller = labeller;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.grobid.core.engines.tagging;
+
+import org.grobid.core.GrobidModel;
+
+import java.util.function.Function;
+
+/**
+ * Labelling of the quantities models, used by the parsers in place of the engine of the model alone: the Wapiti
+ * models are decoded in the JVM when enabled and once checked against the native tagger ({@link WapitiJvmTaggers}),
+ * the others go to the engine, the concurrent requests of the DeLFT models being batched ({@link LabellingScheduler}).
+ */
+public class QuantitiesLabelling {
+
+    /**
+     * @param engineLabeller the labelling with the engine of the model, typically {@code super::label} of the parser
+     */
+    public static String label(GrobidModel model, String data, Function<String, String> engineLabeller) {
+        return WapitiJvmTaggers.label(model, data, d -> LabellingScheduler.label(model, d, engineLabeller));
+    }
+}
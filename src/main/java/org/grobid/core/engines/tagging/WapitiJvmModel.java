@@ -0,0 +1,491 @@
+package org.grobid.core.engines.tagging;
+
+import org.grobid.core.exceptions.GrobidException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-JVM inference for the linear-chain CRF models trained with Wapiti, reading the textual
+ * {@code model.wapiti} files and producing the same output as the native labelling:
+ * each input line followed by a tab and its label, sequences separated by an empty line.
+ * <p>
+ * The feature templates are compiled once, the observations of the model are indexed in an open addressing
+ * table looked up without allocation, and the Viterbi decoding runs on primitive arrays.
+ * The scores are accumulated in the same order as Wapiti and ties are resolved the same way (first best label),
+ * so that the labels are identical.
+ * <p>
+ * Only CRF models using the {@code %x} template command are supported, the loading fails otherwise.
+ * Instances are immutable and can be shared between threads.
+ */
+public class WapitiJvmModel {
+
+    private static final int TYPE_CRF = 2;
+
+    private static final int KIND_UNIGRAM = 1;
+    private static final int KIND_BIGRAM = 2;
+
+    private static final String[] BEFORE_VALUES = {"_x-1", "_x-2", "_x-3", "_x-4", "_x-#"};
+    private static final String[] AFTER_VALUES = {"_x+1", "_x+2", "_x+3", "_x+4", "_x+#"};
+
+    private final String[] labels;
+    private final Pattern[] patterns;
+    private final ObservationIndex observations;
+    // feature offsets of each observation in the weights, -1 if the observation is not of this kind
+    private final int[] unigramOffsets;
+    private final int[] bigramOffsets;
+    private final double[] weights;
+
+    private WapitiJvmModel(String[] labels, Pattern[] patterns, String[] observations, double[] weights,
+                           int[] unigramOffsets, int[] bigramOffsets) {
+        this.labels = labels;
+        this.patterns = patterns;
+        this.observations = new ObservationIndex(observations);
+        this.weights = weights;
+        this.unigramOffsets = unigramOffsets;
+        this.bigramOffsets = bigramOffsets;
+    }
+
+    public static WapitiJvmModel load(File modelFile) throws IOException {
+        return load(Files.readAllBytes(modelFile.toPath()));
+    }
+
+    public static WapitiJvmModel load(byte[] content) {
+        ModelReader reader = new ModelReader(content);
+
+        String[] header = reader.readLine().split("#");
+        if (header.length < 3 || !"mdl".equals(header[1])) {
+            throw new GrobidException("Invalid Wapiti model: missing model header.");
+        }
+        if (Integer.parseInt(header[2]) != TYPE_CRF) {
+            throw new GrobidException("Only the Wapiti CRF models are supported, the model type is " + header[2]);
+        }
+        long activeFeatures = header.length > 3 ? Long.parseLong(header[3]) : -1;
+
+        String[] readerHeader = reader.readLine().split("#");
+        if (readerHeader.length < 3 || !"rdr".equals(readerHeader[1])) {
+            throw new GrobidException("Invalid Wapiti model: missing reader header.");
+        }
+        String[] readerSettings = readerHeader[2].split("/");
+        int patternCount = Integer.parseInt(readerSettings[0]);
+        if (readerSettings.length > 2 && Integer.parseInt(readerSettings[2]) != 0) {
+            throw new GrobidException("The Wapiti models with automatic unigrams are not supported.");
+        }
+
+        Pattern[] patterns = new Pattern[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            patterns[i] = Pattern.compile(reader.readItem());
+        }
+
+        String[] labels = readQuarks(reader);
+        String[] observations = readQuarks(reader);
+
+        // feature layout: for each observation in order, Y unigram weights and/or Y*Y bigram weights
+        int labelCount = labels.length;
+        int[] unigramOffsets = new int[observations.length];
+        int[] bigramOffsets = new int[observations.length];
+        long featureCount = 0;
+        for (int o = 0; o < observations.length; o++) {
+            int kind = kindOf(observations[o].isEmpty() ? ' ' : observations[o].charAt(0));
+            unigramOffsets[o] = -1;
+            bigramOffsets[o] = -1;
+            if ((kind & KIND_UNIGRAM) != 0) {
+                unigramOffsets[o] = (int) featureCount;
+                featureCount += labelCount;
+            }
+            if ((kind & KIND_BIGRAM) != 0) {
+                bigramOffsets[o] = (int) featureCount;
+                featureCount += (long) labelCount * labelCount;
+            }
+        }
+        if (featureCount > Integer.MAX_VALUE) {
+            throw new GrobidException("The Wapiti model has too many features: " + featureCount);
+        }
+
+        double[] weights = new double[(int) featureCount];
+        long read = 0;
+        String line;
+        while ((activeFeatures < 0 || read < activeFeatures) && (line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            int separator = line.indexOf('=');
+            if (separator == -1) {
+                throw new GrobidException("Invalid Wapiti model: unexpected weight line " + line);
+            }
+            // the weights are written in hexadecimal floating point notation (%la), parsed exactly
+            weights[Integer.parseInt(line.substring(0, separator))] = Double.parseDouble(line.substring(separator + 1));
+            read++;
+        }
+
+        return new WapitiJvmModel(labels, patterns, observations, weights, unigramOffsets, bigramOffsets);
+    }
+
+    private static String[] readQuarks(ModelReader reader) {
+        String line = reader.readLine();
+        if (line == null || !line.startsWith("#qrk#")) {
+            throw new GrobidException("Invalid Wapiti model: missing quark database.");
+        }
+        int count = Integer.parseInt(line.substring(5));
+        String[] quarks = new String[count];
+        for (int i = 0; i < count; i++) {
+            quarks[i] = reader.readItem();
+        }
+        return quarks;
+    }
+
+    private static int kindOf(char type) {
+        switch (type) {
+            case 'u':
+                return KIND_UNIGRAM;
+            case 'b':
+                return KIND_BIGRAM;
+            case '*':
+                return KIND_UNIGRAM | KIND_BIGRAM;
+            default:
+                return 0;
+        }
+    }
+
+    public String[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * Label the data with the same input and output format as Wapiti: one token per line with its
+     * features separated by spaces or tabs, sequences separated by an empty line.
+     */
+    public String label(String data) {
+        if (data == null || data.trim().isEmpty()) {
+            return "";
+        }
+
+        StringBuilder output = new StringBuilder(data.length() + data.length() / 4);
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        while (start <= data.length()) {
+            int end = data.indexOf('\n', start);
+            if (end == -1) {
+                end = data.length();
+            }
+            String line = data.substring(start, end);
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            if (line.trim().isEmpty()) {
+                labelSequence(lines, output);
+                lines.clear();
+            } else {
+                lines.add(line);
+            }
+            start = end + 1;
+        }
+        labelSequence(lines, output);
+
+        return output.toString();
+    }
+
+    private void labelSequence(List<String> lines, StringBuilder output) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        String[][] tokens = new String[lines.size()][];
+        for (int t = 0; t < tokens.length; t++) {
+            tokens[t] = lines.get(t).trim().split("[ \t]+");
+        }
+
+        int[] path = decode(tokens);
+        for (int t = 0; t < tokens.length; t++) {
+            output.append(lines.get(t)).append('\t').append(labels[path[t]]).append('\n');
+        }
+        output.append('\n');
+    }
+
+    /**
+     * Viterbi decoding of a single sequence
+     *
+     * @param tokens the feature columns of each position
+     * @return the index of the best label at each position
+     */
+    public int[] decode(String[][] tokens) {
+        int T = tokens.length;
+        int Y = labels.length;
+        int[] path = new int[T];
+        if (T == 0) {
+            return path;
+        }
+
+        // observations active at each position
+        int[][] unigrams = new int[T][];
+        int[][] bigrams = new int[T][];
+        extractObservations(tokens, unigrams, bigrams);
+
+        double[] current = new double[Y];
+        double[] previous = new double[Y];
+        int[] backPointers = new int[T * Y];
+        double[] unigramScores = new double[Y];
+
+        computeUnigramScores(unigrams[0], unigramScores);
+        System.arraycopy(unigramScores, 0, current, 0, Y);
+
+        for (int t = 1; t < T; t++) {
+            double[] swap = previous;
+            previous = current;
+            current = swap;
+
+            computeUnigramScores(unigrams[t], unigramScores);
+            int[] bigramObservations = bigrams[t];
+            for (int y = 0; y < Y; y++) {
+                double best = Double.NEGATIVE_INFINITY;
+                int bestIndex = 0;
+                for (int yp = 0; yp < Y; yp++) {
+                    double bigramScore = 0.0;
+                    int d = yp * Y + y;
+                    for (int o : bigramObservations) {
+                        bigramScore += weights[bigramOffsets[o] + d];
+                    }
+                    double value = previous[yp] + (unigramScores[y] + bigramScore);
+                    if (value > best) {
+                        best = value;
+                        bestIndex = yp;
+                    }
+                }
+                backPointers[t * Y + y] = bestIndex;
+                current[y] = best;
+            }
+        }
+
+        int best = 0;
+        for (int y = 1; y < Y; y++) {
+            if (current[y] > current[best]) {
+                best = y;
+            }
+        }
+        for (int t = T - 1; t >= 0; t--) {
+            path[t] = best;
+            best = backPointers[t * Y + best];
+        }
+        return path;
+    }
+
+    private void computeUnigramScores(int[] observations, double[] scores) {
+        for (int y = 0; y < scores.length; y++) {
+            double sum = 0.0;
+            for (int o : observations) {
+                sum += weights[unigramOffsets[o] + y];
+            }
+            scores[y] = sum;
+        }
+    }
+
+    private void extractObservations(String[][] tokens, int[][] unigrams, int[][] bigrams) {
+        StringBuilder observation = new StringBuilder(64);
+        int[] unigramBuffer = new int[patterns.length];
+        int[] bigramBuffer = new int[patterns.length];
+        for (int t = 0; t < tokens.length; t++) {
+            int unigramCount = 0;
+            int bigramCount = 0;
+            for (Pattern pattern : patterns) {
+                observation.setLength(0);
+                pattern.apply(tokens, t, observation);
+                int id = observations.get(observation);
+                if (id == -1) {
+                    continue;
+                }
+                if ((pattern.kind & KIND_UNIGRAM) != 0 && unigramOffsets[id] != -1) {
+                    unigramBuffer[unigramCount++] = id;
+                }
+                // the transitions are only scored from the second position
+                if ((pattern.kind & KIND_BIGRAM) != 0 && t > 0 && bigramOffsets[id] != -1) {
+                    bigramBuffer[bigramCount++] = id;
+                }
+            }
+            unigrams[t] = Arrays.copyOf(unigramBuffer, unigramCount);
+            bigrams[t] = Arrays.copyOf(bigramBuffer, bigramCount);
+        }
+    }
+
+    /**
+     * Compiled feature template, e.g. {@code u09:%x[-1,0]/%x[0,0]}: literal parts and (offset, column) references
+     */
+    protected static class Pattern {
+        final int kind;
+        // literal text before each reference, the last one after the last reference
+        final String[] literals;
+        final int[] offsets;
+        final int[] columns;
+
+        private Pattern(int kind, String[] literals, int[] offsets, int[] columns) {
+            this.kind = kind;
+            this.literals = literals;
+            this.offsets = offsets;
+            this.columns = columns;
+        }
+
+        static Pattern compile(String source) {
+            if (source.isEmpty()) {
+                throw new GrobidException("Invalid Wapiti model: empty pattern.");
+            }
+            int kind = kindOf(Character.toLowerCase(source.charAt(0)));
+            if (kind == 0) {
+                throw new GrobidException("Unknown Wapiti pattern type: " + source);
+            }
+
+            List<String> literals = new ArrayList<>();
+            List<int[]> references = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = 0;
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                if (c != '%') {
+                    literal.append(c);
+                    i++;
+                    continue;
+                }
+                if (i + 1 >= source.length() || source.charAt(i + 1) != 'x') {
+                    throw new GrobidException("Only the %x Wapiti pattern command is supported: " + source);
+                }
+                int close = source.indexOf(']', i);
+                if (close == -1 || source.charAt(i + 2) != '[') {
+                    throw new GrobidException("Invalid Wapiti pattern: " + source);
+                }
+                String[] arguments = source.substring(i + 3, close).split(",");
+                if (arguments.length != 2 || arguments[0].trim().startsWith("@")) {
+                    throw new GrobidException("Unsupported Wapiti pattern: " + source);
+                }
+                references.add(new int[]{Integer.parseInt(arguments[0].trim()), Integer.parseInt(arguments[1].trim())});
+                literals.add(literal.toString());
+                literal.setLength(0);
+                i = close + 1;
+            }
+            literals.add(literal.toString());
+
+            int[] offsets = new int[references.size()];
+            int[] columns = new int[references.size()];
+            for (int r = 0; r < references.size(); r++) {
+                offsets[r] = references.get(r)[0];
+                columns[r] = references.get(r)[1];
+            }
+            return new Pattern(kind, literals.toArray(new String[0]), offsets, columns);
+        }
+
+        void apply(String[][] tokens, int t, StringBuilder output) {
+            int T = tokens.length;
+            for (int r = 0; r < offsets.length; r++) {
+                output.append(literals[r]);
+                int position = t + offsets[r];
+                if (position < 0) {
+                    output.append(BEFORE_VALUES[Math.min(-position - 1, 4)]);
+                } else if (position >= T) {
+                    output.append(AFTER_VALUES[Math.min(position - T, 4)]);
+                } else {
+                    String[] columnValues = tokens[position];
+                    if (columns[r] >= columnValues.length) {
+                        throw new GrobidException("Missing tokens, cannot apply the Wapiti pattern at position " + position);
+                    }
+                    output.append(columnValues[columns[r]]);
+                }
+            }
+            output.append(literals[offsets.length]);
+        }
+    }
+
+    /**
+     * Open addressing hash table from the observation strings to their identifier, queried with a
+     * {@link CharSequence} to avoid creating a string for every expanded template
+     */
+    protected static class ObservationIndex {
+        private final String[] keys;
+        private final int[] ids;
+        private final int mask;
+
+        ObservationIndex(String[] observations) {
+            int capacity = Integer.highestOneBit(Math.max(observations.length, 1) * 2 - 1) << 1;
+            keys = new String[capacity];
+            ids = new int[capacity];
+            mask = capacity - 1;
+            for (int id = 0; id < observations.length; id++) {
+                int slot = hash(observations[id]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = observations[id];
+                ids[slot] = id;
+            }
+        }
+
+        int get(CharSequence observation) {
+            int slot = hash(observation) & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].contentEquals(observation)) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int hash(CharSequence value) {
+            int h = 0;
+            for (int i = 0; i < value.length(); i++) {
+                h = 31 * h + value.charAt(i);
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Reader of the Wapiti model format, where the strings are written as {@code <byte length>:<string>,}
+     */
+    private static class ModelReader {
+        private final byte[] content;
+        private int position = 0;
+
+        ModelReader(byte[] content) {
+            this.content = content;
+        }
+
+        String readLine() {
+            if (position >= content.length) {
+                return null;
+            }
+            int start = position;
+            while (position < content.length && content[position] != '\n') {
+                position++;
+            }
+            int end = position;
+            if (end > start && content[end - 1] == '\r') {
+                end--;
+            }
+            position++;
+            return new String(content, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        String readItem() {
+            int colon = position;
+            while (colon < content.length && content[colon] != ':') {
+                colon++;
+            }
+            if (colon >= content.length) {
+                throw new GrobidException("Invalid Wapiti model: truncated string at byte " + position);
+            }
+            int length = Integer.parseInt(new String(content, position, colon - position, StandardCharsets.US_ASCII).trim());
+            int start = colon + 1;
+            if (start + length >= content.length || content[start + length] != ',') {
+                throw new GrobidException("Invalid Wapiti model: malformed string at byte " + position);
+            }
+            String value = new String(content, start, length, StandardCharsets.UTF_8);
+            position = start + length + 1;
+            // end of line after the separator
+            while (position < content.length && (content[position] == '\n' || content[position] == '\r')) {
+                position++;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.grobid.core.engines.tagging;
+
+import com.codahale.metrics.Counter;
+import org.grobid.core.GrobidModel;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.QuantitiesMetrics;
+import org.grobid.core.utilities.QuantitiesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Registry of the {@link WapitiJvmModel}s, loaded on first use from the Wapiti model file of each GROBID model.
+ * When the JVM decoder is disabled, or when a model is not configured with Wapiti or cannot be read,
+ * the parsers keep using the native tagger.
+ * <p>
+ * The JVM decoder of a model is only used once its labels have been recorded identical to the native tagger:
+ * the first {@link #PARITY_CHECKS} sequences are labelled by both and the native labels are returned, a single
+ * difference disabling the JVM decoder of the model for the lifetime of the process.
+ */
+public class WapitiJvmTaggers {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WapitiJvmTaggers.class);
+
+    // number of sequences labelled by both decoders before switching a model to the JVM decoder
+    static final int PARITY_CHECKS = 1000;
+
+    private static final Map<String, Optional<ParityCheckedTagger>> TAGGERS = new ConcurrentHashMap<>();
+
+    /**
+     * @param nativeTagger the labelling of the model engine, used when the JVM decoder is not used for this model
+     *                     or its parity is not yet recorded
+     * @return the labelled data
+     */
+    public static String label(GrobidModel model, String data, UnaryOperator<String> nativeTagger) {
+        if (!QuantitiesProperties.isWapitiJvmDecoder() || model == null) {
+            return nativeTagger.apply(data);
+        }
+        Optional<ParityCheckedTagger> tagger = TAGGERS.computeIfAbsent(model.getModelName(), name -> load(model));
+        return tagger.isPresent() ? tagger.get().label(data, nativeTagger) : nativeTagger.apply(data);
+    }
+
+    private static Optional<ParityCheckedTagger> load(GrobidModel model) {
+        try {
+            if (GrobidProperties.getGrobidCRFEngine(model) != GrobidCRFEngine.WAPITI) {
+                return Optional.empty();
+            }
+            File modelFile = new File(model.getModelPath());
+            if (!modelFile.exists()) {
+                LOGGER.warn("The Wapiti model " + modelFile + " does not exist, the native tagger is used.");
+                return Optional.empty();
+            }
+            long start = System.currentTimeMillis();
+            WapitiJvmModel jvmModel = WapitiJvmModel.load(modelFile);
+            LOGGER.info("Loaded " + modelFile + " in the JVM decoder in " + (System.currentTimeMillis() - start) + " ms");
+            return Optional.of(new ParityCheckedTagger(model.getModelName(), jvmModel::label, PARITY_CHECKS));
+        } catch (Exception e) {
+            LOGGER.warn("Cannot load the model " + model.getModelName() + " in the JVM decoder, the native tagger is used.", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * JVM decoder of a model, checked against the native tagger on the first sequences
+     */
+    static class ParityCheckedTagger {
+        private final String modelName;
+        private final UnaryOperator<String> jvmTagger;
+        private final int checks;
+
+        private final AtomicInteger matches = new AtomicInteger();
+        private volatile boolean disabled = false;
+
+        private final Counter matchCounter;
+        private final Counter mismatchCounter;
+
+        ParityCheckedTagger(String modelName, UnaryOperator<String> jvmTagger, int checks) {
+            this.modelName = modelName;
+            this.jvmTagger = jvmTagger;
+            this.checks = checks;
+            this.matchCounter = QuantitiesMetrics.getRegistry().counter(QuantitiesMetrics.name("wapiti-jvm", modelName, "parity", "matches"));
+            this.mismatchCounter = QuantitiesMetrics.getRegistry().counter(QuantitiesMetrics.name("wapiti-jvm", modelName, "parity", "mismatches"));
+        }
+
+        String label(String data, UnaryOperator<String> nativeTagger) {
+            if (disabled) {
+                return nativeTagger.apply(data);
+            }
+            if (matches.get() >= checks) {
+                return jvmTagger.apply(data);
+            }
+
+            String nativeLabels = nativeTagger.apply(data);
+            String jvmLabels;
+            try {
+                jvmLabels = jvmTagger.apply(data);
+            } catch (RuntimeException e) {
+                disable("The JVM decoder failed on a sequence of the model " + modelName, e);
+                return nativeLabels;
+            }
+            if (nativeLabels == null || jvmLabels == null || !nativeLabels.trim().equals(jvmLabels.trim())) {
+                mismatchCounter.inc();
+                disable("The JVM decoder labels differ from the native tagger for the model " + modelName
+                    + " on the sequence:\n" + data, null);
+                return nativeLabels;
+            }
+            matchCounter.inc();
+            if (matches.incrementAndGet() == checks) {
+                LOGGER.info("The JVM decoder matched the native tagger on " + checks + " sequences of the model "
+                    + modelName + ", it is used from now on.");
+            }
+            return nativeLabels;
+        }
+
+        boolean isDisabled() {
+            return disabled;
+        }
+
+        private void disable(String message, Exception e) {
+            if (!disabled) {
+                disabled = true;
+                LOGGER.error(message + "\nThe native tagger is used for this model.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.grobid.core.engines.utilities;
+
+import org.apache.commons.lang3.StringUtils;
+import org.grobid.core.utilities.QuantitiesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+
+/**
+ * Label several independent sequences with a single call to the sequence labelling engine.
+ * <p>
+ * The feature blocks are concatenated as multi-sequence input (sequences separated by an empty line),
+ * which is understood both by Wapiti and DeLFT, and the labelled output is split back per sequence.
+ * Because DeLFT does not preserve the empty lines between sequences, the split is done by counting the
+ * feature lines of each input sequence rather than relying on the separators in the output.
+ * <p>
+ * When length buckets are configured, the sequences are sorted by number of tokens and labelled with one call
+ * per bucket, so that the neural models pad the short sequences (units, values) to similar lengths rather than
+ * to the longest paragraph of the batch. The results are returned in the original order.
+ */
+public class BatchLabelling {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchLabelling.class);
+
+    /**
+     * Label a list of feature sequences in one call.
+     *
+     * @param featureSequences the feature blocks, one line per token, one block per sequence
+     * @param labeller         the labelling function, typically {@code AbstractParser::label}
+     * @return the labelled sequences in the same order as the input, or null if the labelled output
+     * could not be aligned with the input, in which case the caller should label the sequences one by one
+     */
+    public static List<String> label(List<String> featureSequences, Function<String, String> labeller) {
+        return label(featureSequences, labeller, QuantitiesProperties.getLabellingBuckets());
+    }
+
+    /**
+     * Label a list of feature sequences with one call per length bucket.
+     *
+     * @param bucketBoundaries the increasing upper bounds (number of tokens, inclusive) of the buckets, the longer
+     *                         sequences going to a last bucket; null or empty to label all the sequences in one call
+     */
+    public static List<String> label(List<String> featureSequences, Function<String, String> labeller,
+                                     int[] bucketBoundaries) {
+        if (isEmpty(featureSequences)) {
+            return new ArrayList<>();
+        }
+
+        if (featureSequences.size() == 1) {
+            return Collections.singletonList(labeller.apply(featureSequences.get(0)));
+        }
+
+        if (bucketBoundaries == null || bucketBoundaries.length == 0) {
+            return split(labeller.apply(join(featureSequences)), featureSequences);
+        }
+
+        int size = featureSequences.size();
+        int[] lengths = new int[size];
+        List<Integer> order = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lengths[i] = countLines(featureSequences.get(i));
+            order.add(i);
+        }
+        order.sort(Comparator.comparingInt(i -> lengths[i]));
+
+        String[] results = new String[size];
+        int start = 0;
+        while (start < size) {
+            int bucket = bucketOf(lengths[order.get(start)], bucketBoundaries);
+            int end = start + 1;
+            while (end < size && bucketOf(lengths[order.get(end)], bucketBoundaries) == bucket) {
+                end++;
+            }
+
+            List<String> bucketSequences = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                bucketSequences.add(featureSequences.get(order.get(i)));
+            }
+            List<String> labelled = bucketSequences.size() == 1
+                ? Collections.singletonList(labeller.apply(bucketSequences.get(0)))
+                : split(labeller.apply(join(bucketSequences)), bucketSequences);
+            if (labelled == null) {
+                return null;
+            }
+            for (int i = start; i < end; i++) {
+                results[order.get(i)] = labelled.get(i - start);
+            }
+            start = end;
+        }
+
+        return Arrays.asList(results);
+    }
+
+    protected static int bucketOf(int length, int[] bucketBoundaries) {
+        int bucket = 0;
+        while (bucket < bucketBoundaries.length && length > bucketBoundaries[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Concatenate the feature sequences as a multi-sequence input
+     */
+    public static String join(List<String> featureSequences) {
+        StringBuilder result = new StringBuilder();
+        for (String featureSequence : featureSequences) {
+            if (StringUtils.isBlank(featureSequence)) {
+                continue;
+            }
+            result.append(featureSequence);
+            if (!featureSequence.endsWith("\n")) {
+                result.append("\n");
+            }
+            result.append("\n");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Split a multi-sequence input into its sequences, separated by empty lines
+     */
+    public static List<String> sequences(String data) {
+        List<String> sequences = new ArrayList<>();
+        if (data == null) {
+            return sequences;
+        }
+        StringBuilder sequence = new StringBuilder();
+        for (String line : data.split("\n")) {
+            if (StringUtils.isBlank(line)) {
+                if (sequence.length() > 0) {
+                    sequences.add(sequence.toString());
+                    sequence.setLength(0);
+                }
+                continue;
+            }
+            sequence.append(line).append("\n");
+        }
+        if (sequence.length() > 0) {
+            sequences.add(sequence.toString());
+        }
+        return sequences;
+    }
+
+    /**
+     * Split a labelled multi-sequence output according to the number of feature lines of each input sequence.
+     *
+     * @return the labelled sequences, or null if the number of labelled lines does not match the input
+     */
+    public static List<String> split(String labelled, List<String> featureSequences) {
+        if (labelled == null) {
+            return null;
+        }
+
+        List<String> labelledLines = nonEmptyLines(labelled);
+        int expectedLines = 0;
+        for (String featureSequence : featureSequences) {
+            expectedLines += countLines(featureSequence);
+        }
+
+        if (labelledLines.size() != expectedLines) {
+            LOGGER.warn("The labelled output (" + labelledLines.size() + " lines) does not match the input ("
+                + expectedLines + " lines), the batch cannot be split.");
+            return null;
+        }
+
+        List<String> results = new ArrayList<>();
+        int position = 0;
+        for (String featureSequence : featureSequences) {
+            int lines = countLines(featureSequence);
+            StringBuilder sequence = new StringBuilder();
+            for (int i = position; i < position + lines; i++) {
+                sequence.append(labelledLines.get(i)).append("\n");
+            }
+            results.add(sequence.toString());
+            position += lines;
+        }
+
+        return results;
+    }
+
+    protected static int countLines(String featureSequence) {
+        if (featureSequence == null) {
+            return 0;
+        }
+        return nonEmptyLines(featureSequence).size();
+    }
+
+    private static List<String> nonEmptyLines(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            if (StringUtils.isNotBlank(line)) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
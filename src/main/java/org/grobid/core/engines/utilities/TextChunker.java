@@ -0,0 +1,76 @@
+package org.grobid.core.engines.utilities;
+
+import org.grobid.core.layout.LayoutToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Split a long token sequence in chunks of bounded size, to be labelled and processed independently.
+ * <p>
+ * The chunks are cut preferably at a paragraph boundary (a token containing a new line) in the second half of the
+ * chunk, otherwise at the last end of sentence (., ! or ? followed by a space), otherwise at the last paragraph
+ * boundary, and only when none is found in the middle of a sentence.
+ * The tokens keep their offsets, so that the measurements of each chunk have offsets in the whole text.
+ */
+public class TextChunker {
+
+    public static List<List<LayoutToken>> chunk(List<LayoutToken> tokens, int maxTokens) {
+        List<List<LayoutToken>> chunks = new ArrayList<>();
+        if (tokens == null || tokens.isEmpty()) {
+            return chunks;
+        }
+        if (maxTokens <= 0 || tokens.size() <= maxTokens) {
+            chunks.add(tokens);
+            return chunks;
+        }
+
+        int start = 0;
+        while (start < tokens.size()) {
+            int limit = start + maxTokens;
+            if (limit >= tokens.size()) {
+                chunks.add(new ArrayList<>(tokens.subList(start, tokens.size())));
+                break;
+            }
+
+            // boundaries are the index of the first token of the next chunk
+            int lastParagraph = -1;
+            int lastSentence = -1;
+            for (int i = start + 1; i <= limit; i++) {
+                String previous = tokens.get(i - 1).getText();
+                if (previous == null) {
+                    continue;
+                }
+                if (previous.indexOf('\n') != -1) {
+                    lastParagraph = i;
+                } else if (isEndOfSentence(previous) && isSpace(tokens.get(i).getText())) {
+                    lastSentence = i;
+                }
+            }
+
+            int end;
+            if (lastParagraph > start + maxTokens / 2) {
+                end = lastParagraph;
+            } else if (lastSentence > start) {
+                end = lastSentence;
+            } else if (lastParagraph > start) {
+                end = lastParagraph;
+            } else {
+                end = limit;
+            }
+
+            chunks.add(new ArrayList<>(tokens.subList(start, end)));
+            start = end;
+        }
+
+        return chunks;
+    }
+
+    private static boolean isEndOfSentence(String text) {
+        return text.length() == 1 && (text.charAt(0) == '.' || text.charAt(0) == '!' || text.charAt(0) == '?');
+    }
+
+    private static boolean isSpace(String text) {
+        return text != null && !text.isEmpty() && text.trim().isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package org.grobid.core.features;
+
+import com.codahale.metrics.MetricRegistry;
+import org.grobid.core.utilities.MeteredCache;
+import org.grobid.core.utilities.QuantitiesMetrics;
+import org.grobid.core.utilities.QuantitiesProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache of the feature columns of a model depending only on the token text (lexical form, affixes, shapes,
+ * lexicon lookups, ...), so that they are computed once for the frequent tokens and the parsers only write
+ * the contextual columns.
+ * <p>
+ * The caches are shared by all the parser instances, their size is set by
+ * {@link QuantitiesProperties#getFeatureCacheSize()} and the hits, misses and evictions are exposed under
+ * {@code grobid-quantities.cache.features.<model>.*}.
+ */
+public class FeatureRowCache {
+
+    private static final Map<String, FeatureRowCache> CACHES = new ConcurrentHashMap<>();
+
+    private final MeteredCache<String, String> cache;
+
+    public static FeatureRowCache getInstance(String model) {
+        return CACHES.computeIfAbsent(model,
+            name -> new FeatureRowCache(name, QuantitiesProperties.getFeatureCacheSize(), QuantitiesMetrics.getRegistry()));
+    }
+
+    public FeatureRowCache(String name, long maximumSize, MetricRegistry registry) {
+        this.cache = new MeteredCache<>("features." + name, maximumSize, registry);
+    }
+
+    /**
+     * Append the context-free columns of the token to the buffer. On a miss they are written by the writer,
+     * then kept for the next occurrences of the token.
+     */
+    public void write(StringBuilder res, String token, BiConsumer<StringBuilder, String> writer) {
+        if (!cache.isEnabled()) {
+            writer.accept(res, token);
+            return;
+        }
+
+        String columns = cache.getIfPresent(token);
+        if (columns != null) {
+            res.append(columns);
+            return;
+        }
+
+        int start = res.length();
+        writer.accept(res, token);
+        cache.put(token, res.substring(start));
+    }
+
+    public long size() {
+        return cache.size();
+    }
+}
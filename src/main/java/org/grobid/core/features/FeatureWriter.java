@@ -0,0 +1,33 @@
+package org.grobid.core.features;
+
+/**
+ * Helpers writing the feature columns directly in the buffer of the feature matrix, without the intermediate
+ * strings of {@link org.grobid.core.utilities.TextUtilities#prefix(String, int)} and
+ * {@link org.grobid.core.utilities.TextUtilities#suffix(String, int)}.
+ */
+public class FeatureWriter {
+
+    public static final int AFFIX_COUNT = 4;
+
+    /**
+     * Append the prefixes of length 1 to 4, the whole string when it is shorter
+     */
+    public static void appendPrefixes(StringBuilder res, String string) {
+        for (int count = 1; count <= AFFIX_COUNT; count++) {
+            res.append(' ').append(string, 0, Math.min(count, string.length()));
+        }
+    }
+
+    /**
+     * Append the suffixes of length 1 to 4, the whole string when it is shorter
+     */
+    public static void appendSuffixes(StringBuilder res, String string) {
+        for (int count = 1; count <= AFFIX_COUNT; count++) {
+            res.append(' ').append(string, Math.max(0, string.length() - count), string.length());
+        }
+    }
+
+    public static void appendFlag(StringBuilder res, boolean flag) {
+        res.append(flag ? " 1" : " 0");
+    }
+}
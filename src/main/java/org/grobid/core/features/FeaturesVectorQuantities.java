@@ -44,46 +44,47 @@ public class FeaturesVectorQuantities {
     }
 
     public String printVector() {
+        StringBuilder res = new StringBuilder();
+        return writeVector(res) ? res.toString() : null;
+    }
+
+    /**
+     * Write the features of the token at the end of the buffer, as {@link #printVector()} without any
+     * intermediate string.
+     *
+     * @return false when the token is blank, nothing is written
+     */
+    public boolean writeVector(StringBuilder res) {
         if (isBlank(string)) {
-            return null;
+            return false;
         }
-        StringBuffer res = new StringBuffer();
 
         // token string (1)
         res.append(string);
 
         // lowercase string
-        res.append(" " + string.toLowerCase());
+        res.append(' ').append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" ").append(TextUtilities.prefix(string, 1));
-        res.append(" ").append(TextUtilities.prefix(string, 2));
-        res.append(" ").append(TextUtilities.prefix(string, 3));
-        res.append(" ").append(TextUtilities.prefix(string, 4));
+        FeatureWriter.appendPrefixes(res, string);
 
         // suffix (4)
-        res.append(" ").append(TextUtilities.suffix(string, 1));
-        res.append(" ").append(TextUtilities.suffix(string, 2));
-        res.append(" ").append(TextUtilities.suffix(string, 3));
-        res.append(" ").append(TextUtilities.suffix(string, 4));
+        FeatureWriter.appendSuffixes(res, string);
 
         // capitalisation (1)
         if (digit.equals("ALLDIGIT"))
             res.append(" NOCAPS");
         else
-            res.append(" " + capitalisation);
+            res.append(' ').append(capitalisation);
 
         // digit information (1)
-        res.append(" " + digit);
+        res.append(' ').append(digit);
 
         // character information (1)
-        if (singleChar)
-            res.append(" 1");
-        else
-            res.append(" 0");
+        FeatureWriter.appendFlag(res, singleChar);
 
         // punctuation information (1)
-        res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+        res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
         // token length
         //res.append(" " + string.length());
@@ -92,15 +93,12 @@ public class FeaturesVectorQuantities {
         //res.append(" " + shadowNumber);
 
         // word shape
-        res.append(" " + wordShape);
+        res.append(' ').append(wordShape);
 
         // word shape trimmed
-        res.append(" " + wordShapeTrimmed);
+        res.append(' ').append(wordShapeTrimmed);
 
-        if (isKnownUnitToken)
-            res.append(" 1");
-        else
-            res.append(" 0");
+        FeatureWriter.appendFlag(res, isKnownUnitToken);
 
         /*if (isPartOfUnitPattern)
             res.append(" 1");
@@ -108,18 +106,15 @@ public class FeaturesVectorQuantities {
             res.append(" 0");
         */
 
-        if (isNumberToken)
-            res.append(" 1");
-        else
-            res.append(" 0");
+        FeatureWriter.appendFlag(res, isNumberToken);
 
         // label - for training data (1)
         if (label != null)
-            res.append(" " + label + "");
+            res.append(' ').append(label);
         /*else
             res.append(" 0");*/
 
-        return res.toString();
+        return true;
     }
 
     /**
@@ -22,50 +22,40 @@ public class FeaturesVectorUnits {
     public String punctType = null;
 
     public String printVector() {
+        StringBuilder res = new StringBuilder();
+        return writeVector(res) ? res.toString() : null;
+    }
+
+    /**
+     * Write the features of the character at the end of the buffer, as {@link #printVector()} without any
+     * intermediate string.
+     *
+     * @return false when the character is empty, nothing is written
+     */
+    public boolean writeVector(StringBuilder res) {
         if (isEmpty(value)) {
-            return null;
+            return false;
         }
-        StringBuffer res = new StringBuffer();
 
         res.append(value);
 
-        if (isUpperCase) {
-            res.append(" ").append(1);
-        } else {
-            res.append(" ").append(0);
-        }
+        FeatureWriter.appendFlag(res, isUpperCase);
 
-        if (isDigit) {
-            res.append(" ").append(1);
-        } else {
-            res.append(" ").append(0);
-        }
+        FeatureWriter.appendFlag(res, isDigit);
 
-        if (isKnownUnitToken) {
-            res.append(" ").append(1);
-        } else {
-            res.append(" ").append(0);
-        }
+        FeatureWriter.appendFlag(res, isKnownUnitToken);
 
-        if (isKnownPrefixToken) {
-            res.append(" ").append(1);
-        } else {
-            res.append(" ").append(0);
-        }
+        FeatureWriter.appendFlag(res, isKnownPrefixToken);
 
-        res.append(" ").append(punctType);
+        res.append(' ').append(punctType);
 
-        if (hasRightAttachment) {
-            res.append(" ").append(1);
-        } else {
-            res.append(" ").append(0);
-        }
+        FeatureWriter.appendFlag(res, hasRightAttachment);
 
         if (isNotEmpty(label)) {
-            res.append(" ").append(label);
+            res.append(' ').append(label);
         }
 
-        return res.toString();
+        return true;
     }
 
     /**
@@ -14,27 +14,29 @@ public class FeaturesVectorValues {
     public String punctType = null;
 
     public String printVector() {
+        StringBuilder res = new StringBuilder();
+        return writeVector(res) ? res.toString() : null;
+    }
+
+    /**
+     * Write the features of the token at the end of the buffer, as {@link #printVector()} without any
+     * intermediate string.
+     *
+     * @return false when the token is empty, nothing is written
+     */
+    public boolean writeVector(StringBuilder res) {
         if (isEmpty(value)) {
-            return null;
+            return false;
         }
-        StringBuffer res = new StringBuffer();
 
         res.append(value);
 
-        if (isUpperCase) {
-            res.append(" ").append(1);
-        } else {
-            res.append(" ").append(0);
-        }
+        FeatureWriter.appendFlag(res, isUpperCase);
 
-        if (isDigit) {
-            res.append(" ").append(1);
-        } else {
-            res.append(" ").append(0);
-        }
+        FeatureWriter.appendFlag(res, isDigit);
 
         // punctuation information (1)
-        res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+        res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
 //        if (isKnownOperationToken) {
 //            res.append(" ").append(1);
@@ -43,10 +45,10 @@ public class FeaturesVectorValues {
 //        }
 
         if (isNotEmpty(label)) {
-            res.append(" ").append(label);
+            res.append(' ').append(label);
         }
 
-        return res.toString();
+        return true;
     }
 
     /**
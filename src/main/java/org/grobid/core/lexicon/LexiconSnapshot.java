@@ -0,0 +1,268 @@
+package org.grobid.core.lexicon;
+
+import org.apache.commons.io.IOUtils;
+import org.grobid.core.exceptions.GrobidException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.grobid.core.lexicon.QuantityLexicon.PREFIX_EN_PATH;
+import static org.grobid.core.lexicon.QuantityLexicon.UNITS_EN_PATH;
+
+/**
+ * Binary snapshot of the compiled unit lexicon: the unit matcher, the unit definitions and the look-up maps,
+ * written at build time from the JSON resources (gradle lexiconSnapshot) and memory-mapped at startup instead
+ * of parsing and expanding the units again.
+ * <p>
+ * The header holds a checksum of the lexicon resources and of the bytecode of the classes compiling the lexicon:
+ * a snapshot built from other resources, by another build of these classes or with another format version,
+ * is ignored and the lexicon is loaded from the JSON resources.
+ */
+public class LexiconSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LexiconSnapshot.class);
+
+    // "GQLX"
+    static final int MAGIC = 0x47514C58;
+    // to be increased with any change of the content of the snapshot or of the way the lexicon is compiled
+    static final int VERSION = 1;
+
+    // the classes compiling the lexicon written in the snapshot, a change of their bytecode invalidates it
+    private static final String[] LEXICON_CLASSES = {
+        "org.grobid.core.lexicon.LexiconSnapshot",
+        "org.grobid.core.lexicon.LexiconSnapshot$Reader",
+        "org.grobid.core.lexicon.LexiconSnapshot$Writer",
+        "org.grobid.core.lexicon.QuantityLexicon",
+        "org.grobid.core.lexicon.QuantityLexicon$InflectionName",
+        "org.grobid.core.lexicon.UnitNameMatcher",
+        "org.grobid.core.lexicon.UnitNameMatcher$Matching",
+        "org.grobid.core.lexicon.PrefixedTermMap",
+        "org.grobid.core.lexicon.PrefixedTermMap$Entry",
+        "org.grobid.core.analyzers.QuantityAnalyzer"
+    };
+
+    private LexiconSnapshot() {
+    }
+
+    /**
+     * Write the snapshot of a lexicon loaded from the current resources
+     */
+    public static void write(QuantityLexicon lexicon, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            Writer writer = new Writer(output);
+            writer.writeInt(MAGIC);
+            writer.writeInt(VERSION);
+            writer.writeLong(checksum());
+            lexicon.writeSnapshot(writer);
+        }
+    }
+
+    /**
+     * Load the lexicon from the snapshot
+     *
+     * @return the lexicon, or null when the snapshot is missing, invalid or built from other resources
+     */
+    public static QuantityLexicon load(Path path) {
+        if (!Files.isRegularFile(path)) {
+            LOGGER.warn("The lexicon snapshot " + path + " does not exist, the lexicon is loaded from the resources.");
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Reader reader = new Reader(buffer);
+            if (reader.readInt() != MAGIC || reader.readInt() != VERSION || reader.readLong() != checksum()) {
+                LOGGER.warn("The lexicon snapshot " + path + " is outdated, the lexicon is loaded from the resources.");
+                return null;
+            }
+            QuantityLexicon lexicon = QuantityLexicon.readSnapshot(reader);
+            LOGGER.info("Unit lexicon loaded from the snapshot " + path);
+            return lexicon;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot read the lexicon snapshot " + path + ", the lexicon is loaded from the resources.", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the checksum of the lexicon resources the snapshot is built from and of the classes compiling it
+     */
+    static long checksum() {
+        List<String> resources = new ArrayList<>();
+        resources.add(PREFIX_EN_PATH);
+        resources.add(UNITS_EN_PATH);
+        for (String className : LEXICON_CLASSES) {
+            resources.add(className.replace('.', '/') + ".class");
+        }
+
+        CRC32 crc = new CRC32();
+        for (String resource : resources) {
+            InputStream is = LexiconSnapshot.class.getClassLoader().getResourceAsStream(resource);
+            if (is == null) {
+                throw new GrobidException("Cannot find the lexicon resource " + resource);
+            }
+            try {
+                crc.update(IOUtils.toByteArray(is));
+            } catch (IOException e) {
+                throw new GrobidException("Cannot read the lexicon resource " + resource, e);
+            } finally {
+                IOUtils.closeQuietly(is);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Build the snapshot from the JSON resources
+     *
+     * @param args the path of the snapshot
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: LexiconSnapshot <snapshot path>");
+            System.exit(1);
+        }
+        Path path = Paths.get(args[0]);
+        write(new QuantityLexicon(null, true), path);
+        System.out.println("Lexicon snapshot written in " + path.toAbsolutePath());
+    }
+
+    static class Writer {
+        private final DataOutputStream output;
+
+        Writer(DataOutputStream output) {
+            this.output = output;
+        }
+
+        void writeInt(int value) throws IOException {
+            output.writeInt(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            output.writeLong(value);
+        }
+
+        void writeBoolean(boolean value) throws IOException {
+            output.writeBoolean(value);
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                output.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        void writeStrings(Collection<String> values) throws IOException {
+            if (values == null) {
+                output.writeInt(-1);
+                return;
+            }
+            output.writeInt(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        void writeInts(int[] values) throws IOException {
+            if (values == null) {
+                output.writeInt(-1);
+                return;
+            }
+            output.writeInt(values.length);
+            for (int value : values) {
+                output.writeInt(value);
+            }
+        }
+
+        void writeBooleans(boolean[] values) throws IOException {
+            output.writeInt(values.length);
+            for (boolean value : values) {
+                output.writeBoolean(value);
+            }
+        }
+    }
+
+    static class Reader {
+        private final ByteBuffer buffer;
+
+        Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int readInt() {
+            return buffer.getInt();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        String readString() {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, UTF_8);
+        }
+
+        List<String> readStrings() {
+            int size = buffer.getInt();
+            if (size < 0) {
+                return null;
+            }
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        int[] readInts() {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            int[] values = new int[length];
+            buffer.asIntBuffer().get(values);
+            buffer.position(buffer.position() + length * Integer.BYTES);
+            return values;
+        }
+
+        boolean[] readBooleans() {
+            int length = buffer.getInt();
+            boolean[] values = new boolean[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = buffer.get() != 0;
+            }
+            return values;
+        }
+    }
+}
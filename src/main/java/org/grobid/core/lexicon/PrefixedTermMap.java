@@ -0,0 +1,179 @@
+package org.grobid.core.lexicon;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Map of the unit terms to their value, where a term accepting the unit prefixes is stored once instead of
+ * once per prefixed variant.
+ * <p>
+ * A prefix is inserted at the start of a simple term (m, km), or at the start of the first two elements of a
+ * composed term (m/s, km/s, m/ks, km/ks). A key is looked up as it is, then as each variant of a stored
+ * term; as in a map filled with all the variants in the loading order, the value put last wins.
+ */
+class PrefixedTermMap<T> {
+
+    private static final Pattern COMPOSED_UNIT_ELEMENT = Pattern.compile("[^/*]+");
+
+    private final List<String> prefixes;
+    private final Map<String, Entry<T>> terms = new HashMap<>();
+    private final Map<String, Entry<T>> prefixedTerms = new HashMap<>();
+    private int rank = 0;
+
+    /**
+     * @param prefixes the prefixes inserted in the terms, as they appear in the keys
+     */
+    PrefixedTermMap(List<String> prefixes) {
+        this.prefixes = new ArrayList<>(prefixes);
+    }
+
+    public void put(String key, T value) {
+        terms.put(key, new Entry<>(value, rank++, null));
+    }
+
+    /**
+     * Put the term and all its prefixed variants
+     *
+     * @param offsets where the prefixes are inserted: 0 for a simple term, the start of its first two elements
+     *                for a composed term (see {@link #composedUnitElements(String)})
+     */
+    public void putPrefixed(String key, int[] offsets, T value) {
+        Entry<T> entry = new Entry<>(value, rank++, offsets);
+        terms.put(key, entry);
+        prefixedTerms.put(key, entry);
+    }
+
+    public T get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Entry<T> best = terms.get(key);
+
+        if (key.indexOf('/') >= 0 || key.indexOf('*') >= 0) {
+            int[] elements = composedUnitElements(key);
+            if (elements == null) {
+                return best != null ? best.value : null;
+            }
+            int first = elements[0];
+            int second = elements[1];
+            for (String firstPrefix : prefixesAt(key, first)) {
+                for (String secondPrefix : prefixesAt(key, second)) {
+                    if (firstPrefix.isEmpty() && secondPrefix.isEmpty()) {
+                        continue;
+                    }
+                    String term = key.substring(0, first) + key.substring(first + firstPrefix.length(), second)
+                        + key.substring(second + secondPrefix.length());
+                    best = best(best, prefixedTerms.get(term), first, second - firstPrefix.length());
+                }
+            }
+        } else {
+            for (String prefix : prefixes) {
+                if (key.startsWith(prefix)) {
+                    best = best(best, prefixedTerms.get(key.substring(prefix.length())), 0);
+                }
+            }
+        }
+
+        return best != null ? best.value : null;
+    }
+
+    private List<String> prefixesAt(String key, int offset) {
+        List<String> result = new ArrayList<>();
+        result.add("");
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix, offset)) {
+                result.add(prefix);
+            }
+        }
+        return result;
+    }
+
+    private static <T> Entry<T> best(Entry<T> best, Entry<T> candidate, int... offsets) {
+        if (candidate == null || !Arrays.equals(candidate.offsets, offsets)) {
+            return best;
+        }
+        return best == null || candidate.rank > best.rank ? candidate : best;
+    }
+
+    /**
+     * @return the start of the first two elements of a composed unit, split on / and *, or null if
+     * there are less than two elements
+     */
+    static int[] composedUnitElements(String term) {
+        Matcher matcher = COMPOSED_UNIT_ELEMENT.matcher(term);
+        if (!matcher.find()) {
+            return null;
+        }
+        int first = matcher.start();
+        if (!matcher.find()) {
+            return null;
+        }
+        return new int[]{first, matcher.start()};
+    }
+
+    public int size() {
+        return terms.size();
+    }
+
+    /**
+     * Write the map in a lexicon snapshot, the values as their index
+     */
+    void write(LexiconSnapshot.Writer writer, ToIntFunction<T> valueIndex) throws IOException {
+        writer.writeStrings(prefixes);
+        writer.writeInt(rank);
+        writeEntries(writer, terms, valueIndex);
+        writeEntries(writer, prefixedTerms, valueIndex);
+    }
+
+    private static <T> void writeEntries(LexiconSnapshot.Writer writer, Map<String, Entry<T>> entries,
+                                         ToIntFunction<T> valueIndex) throws IOException {
+        writer.writeInt(entries.size());
+        for (Map.Entry<String, Entry<T>> entry : entries.entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeInt(valueIndex.applyAsInt(entry.getValue().value));
+            writer.writeInt(entry.getValue().rank);
+            writer.writeInts(entry.getValue().offsets);
+        }
+    }
+
+    /**
+     * Read a map written by {@link #write(LexiconSnapshot.Writer, ToIntFunction)}
+     */
+    static <T> PrefixedTermMap<T> read(LexiconSnapshot.Reader reader, IntFunction<T> values) {
+        PrefixedTermMap<T> map = new PrefixedTermMap<>(reader.readStrings());
+        map.rank = reader.readInt();
+        readEntries(reader, map.terms, values);
+        readEntries(reader, map.prefixedTerms, values);
+        return map;
+    }
+
+    private static <T> void readEntries(LexiconSnapshot.Reader reader, Map<String, Entry<T>> entries,
+                                        IntFunction<T> values) {
+        int size = reader.readInt();
+        for (int i = 0; i < size; i++) {
+            String key = reader.readString();
+            T value = values.apply(reader.readInt());
+            entries.put(key, new Entry<>(value, reader.readInt(), reader.readInts()));
+        }
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final int rank;
+        private final int[] offsets;
+
+        Entry(T value, int rank, int[] offsets) {
+            this.value = value;
+            this.rank = rank;
+            this.offsets = offsets;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.grobid.core.lexicon;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.grobid.core.analyzers.QuantityAnalyzer;
 import org.grobid.core.data.RegexValueHolder;
 import org.grobid.core.data.Unit;
@@ -11,7 +12,10 @@ import org.grobid.core.utilities.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,24 +47,46 @@ public class QuantityLexicon {
     private Pattern composedUnitPatternWithDelimiter = Pattern.compile(COMPOSED_UNIT_REGEX_WITH_DELIMITER);
 
     // lexical information - for feature generations
-    private FastMatcher unitPattern = null;
+    private UnitNameMatcher unitPattern = null;
     private Set<String> unitTokens = null;
     private Set<String> unitTokensLowerCase = null;
 
+    // the unit tokens accepting a prefix in front of them (m for km, meter for kilometer), the prefixed tokens
+    // are not stored
+    private Set<String> notationPrefixedTokens = null;
+    private Set<String> notationPrefixedTokensLowerCase = null;
+    private Set<String> namePrefixedTokens = null;
+    private Set<String> namePrefixedTokensLowerCase = null;
+
     // the list of tokens involved for expressing numbers with words
     // this set depends on the language
     private Set<String> numberTokens = null;
 
     private Map<String, String> prefixes = null; // map prefix symbol to prefix string
+
+    // the prefix symbols (k) and prefix strings (kilo), in the order of the derivational expansion
+    private List<String> notationPrefixes = null;
+    private List<String> namePrefixes = null;
+    private List<String> lowerCaseNotationPrefixes = null;
+    private List<String> lowerCaseNamePrefixes = null;
+    private int notationPrefixSet;
+    private int namePrefixSet;
+
+    // when false, all the prefixed variants of the unit terms are expanded and stored
+    private final boolean compositionalPrefixes;
+
     private Map<String, List<String>> inflection = null; // map a unit string to its morphological inflections
 
+    // the unit definitions in the loading order
+    private List<UnitDefinition> units = null;
+
     // full unit information accessible from the unit names
     // this mapping depends on the language
-    private Map<String, UnitDefinition> name2unit = null;
+    private PrefixedTermMap<UnitDefinition> name2unit = null;
 
     // full unit information accessible from the unit notation
     // this mapping depends on the language
-    private Map<String, UnitDefinition> notation2unit = null;
+    private PrefixedTermMap<UnitDefinition> notation2unit = null;
 
     // mapping between measurement types and the SI units for this type, the type here is represented with
     // the name() value of the enum
@@ -68,9 +94,31 @@ public class QuantityLexicon {
 
     // mapping between inflection (meter, meters) to name (m), considering kilometer a different unit than meter,
     // altough they are two different representation of the same unit
-    private Map<String, String> inflection2name = null;
+    private Map<String, InflectionName> inflection2name = null;
+
+    // the inflections of the units supporting the prefixes, for the prefixed forms (kilometers, kmeters -> km),
+    // with the rank of their first prefixed form
+    private Map<String, InflectionName> prefixedInflection2name = null;
+    private int inflectionRank = 0;
+
+    // notified of each term loaded in the unit matcher, for the comparisons with the generic matcher
+    private final Consumer<String> unitTermListener;
 
     private QuantityLexicon() {
+        this(null, true);
+    }
+
+    QuantityLexicon(Consumer<String> unitTermListener) {
+        this(unitTermListener, true);
+    }
+
+    /**
+     * @param compositionalPrefixes false to expand and store all the prefixed variants of the unit terms,
+     *                              the results of the look-ups are the same
+     */
+    QuantityLexicon(Consumer<String> unitTermListener, boolean compositionalPrefixes) {
+        this.unitTermListener = unitTermListener;
+        this.compositionalPrefixes = compositionalPrefixes;
         init();
     }
 
@@ -81,21 +129,195 @@ public class QuantityLexicon {
         return instance;
     }
 
+    private QuantityLexicon(LexiconSnapshot.Reader reader) {
+        this.unitTermListener = null;
+        this.compositionalPrefixes = reader.readBoolean();
+        readSnapshotContent(reader);
+    }
+
+    /**
+     * Load the lexicon from a snapshot written by {@link LexiconSnapshot#write(QuantityLexicon, java.nio.file.Path)}
+     */
+    static QuantityLexicon readSnapshot(LexiconSnapshot.Reader reader) {
+        return new QuantityLexicon(reader);
+    }
+
     private static synchronized void getNewInstance() {
-        instance = new QuantityLexicon();
+        QuantityLexicon lexicon = null;
+        String snapshot = QuantitiesProperties.getLexiconSnapshot();
+        if (isNotBlank(snapshot)) {
+            lexicon = LexiconSnapshot.load(Paths.get(snapshot));
+        }
+        instance = lexicon != null ? lexicon : new QuantityLexicon();
     }
 
     private void init() {
         unitTokens = new HashSet<>();
         unitTokensLowerCase = new HashSet<>();
-        unitPattern = new FastMatcher();
+        notationPrefixedTokens = new HashSet<>();
+        notationPrefixedTokensLowerCase = new HashSet<>();
+        namePrefixedTokens = new HashSet<>();
+        namePrefixedTokensLowerCase = new HashSet<>();
 
         prefixes = loadPrefixes(this.getClass().getClassLoader().getResourceAsStream(PREFIX_EN_PATH));
+        initPrefixLists();
+
+        unitPattern = new UnitNameMatcher();
+        notationPrefixSet = unitPattern.addPrefixSet(notationPrefixes);
+        namePrefixSet = unitPattern.addPrefixSet(namePrefixes);
+
+        notation2unit = new PrefixedTermMap<>(notationPrefixes);
+        name2unit = new PrefixedTermMap<>(lowerCaseNamePrefixes);
+        inflection2name = new HashMap<>();
+        prefixedInflection2name = new HashMap<>();
+        units = new ArrayList<>();
+
         readJsonFile(this.getClass().getClassLoader().getResourceAsStream(UNITS_EN_PATH), "units", this::processJsonNode);
+        unitPattern.compile();
+
+        numberTokens = WordsToNumber.getInstance().getTokenSet();
+    }
+
+    private void initPrefixLists() {
+        notationPrefixes = new ArrayList<>();
+        namePrefixes = new ArrayList<>();
+        for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+            notationPrefixes.add(prefix.getKey());
+            namePrefixes.add(prefix.getValue());
+        }
+        lowerCaseNotationPrefixes = toLowerCase(notationPrefixes);
+        lowerCaseNamePrefixes = toLowerCase(namePrefixes);
+    }
+
+    /**
+     * Write the compiled lexicon in a snapshot, the unit definitions being referenced by their index in the
+     * loading order
+     */
+    void writeSnapshot(LexiconSnapshot.Writer writer) throws IOException {
+        writer.writeBoolean(compositionalPrefixes);
+        writer.writeStrings(notationPrefixes);
+        writer.writeStrings(namePrefixes);
+        writer.writeInt(notationPrefixSet);
+        writer.writeInt(namePrefixSet);
+
+        Map<UnitDefinition, Integer> unitIndexes = new IdentityHashMap<>();
+        writer.writeInt(units.size());
+        for (UnitDefinition unit : units) {
+            unitIndexes.put(unit, unitIndexes.size());
+            writer.writeString(unit.getType().name());
+            writer.writeString(unit.getSystem().name());
+            writer.writeBoolean(unit.isSupportsPrefixes());
+            writer.writeBoolean(unit.isSkipNormalisation());
+            writer.writeStrings(unit.getNames());
+            writer.writeStrings(unit.getNotations());
+        }
+
+        for (Set<String> tokens : Arrays.asList(unitTokens, unitTokensLowerCase, notationPrefixedTokens,
+            notationPrefixedTokensLowerCase, namePrefixedTokens, namePrefixedTokensLowerCase)) {
+            writer.writeStrings(tokens);
+        }
+
+        writer.writeInt(inflection != null ? inflection.size() : -1);
+        if (inflection != null) {
+            for (Map.Entry<String, List<String>> entry : inflection.entrySet()) {
+                writer.writeString(entry.getKey());
+                writer.writeStrings(entry.getValue());
+            }
+        }
+
+        name2unit.write(writer, unitIndexes::get);
+        notation2unit.write(writer, unitIndexes::get);
+
+        writer.writeInt(type2SIUnit != null ? type2SIUnit.size() : -1);
+        if (type2SIUnit != null) {
+            for (Map.Entry<String, UnitDefinition> entry : type2SIUnit.entrySet()) {
+                writer.writeString(entry.getKey());
+                writer.writeInt(unitIndexes.get(entry.getValue()));
+            }
+        }
+
+        for (Map<String, InflectionName> inflections : Arrays.asList(inflection2name, prefixedInflection2name)) {
+            writer.writeInt(inflections.size());
+            for (Map.Entry<String, InflectionName> entry : inflections.entrySet()) {
+                writer.writeString(entry.getKey());
+                writer.writeString(entry.getValue().name);
+                writer.writeInt(entry.getValue().rank);
+            }
+        }
+        writer.writeInt(inflectionRank);
+
+        unitPattern.write(writer);
+    }
+
+    private void readSnapshotContent(LexiconSnapshot.Reader reader) {
+        List<String> notationPrefixList = reader.readStrings();
+        List<String> namePrefixList = reader.readStrings();
+        // same order as the resources, for the expansions
+        prefixes = new LinkedHashMap<>();
+        for (int i = 0; i < notationPrefixList.size(); i++) {
+            prefixes.put(notationPrefixList.get(i), namePrefixList.get(i));
+        }
+        initPrefixLists();
+        notationPrefixSet = reader.readInt();
+        namePrefixSet = reader.readInt();
+
+        int unitCount = reader.readInt();
+        units = new ArrayList<>(unitCount);
+        for (int i = 0; i < unitCount; i++) {
+            UnitDefinition unit = new UnitDefinition(UnitUtilities.Unit_Type.valueOf(reader.readString()),
+                UnitUtilities.System_Type.valueOf(reader.readString()));
+            unit.setSupportsPrefixes(reader.readBoolean());
+            unit.setSkipNormalisation(reader.readBoolean());
+            unit.setNames(reader.readStrings());
+            unit.setNotations(reader.readStrings());
+            units.add(unit);
+        }
+
+        unitTokens = new HashSet<>(reader.readStrings());
+        unitTokensLowerCase = new HashSet<>(reader.readStrings());
+        notationPrefixedTokens = new HashSet<>(reader.readStrings());
+        notationPrefixedTokensLowerCase = new HashSet<>(reader.readStrings());
+        namePrefixedTokens = new HashSet<>(reader.readStrings());
+        namePrefixedTokensLowerCase = new HashSet<>(reader.readStrings());
+
+        int inflectionCount = reader.readInt();
+        if (inflectionCount >= 0) {
+            inflection = new HashMap<>();
+            for (int i = 0; i < inflectionCount; i++) {
+                inflection.put(reader.readString(), reader.readStrings());
+            }
+        }
+
+        name2unit = PrefixedTermMap.read(reader, units::get);
+        notation2unit = PrefixedTermMap.read(reader, units::get);
+
+        int siUnitCount = reader.readInt();
+        if (siUnitCount >= 0) {
+            type2SIUnit = new HashMap<>();
+            for (int i = 0; i < siUnitCount; i++) {
+                type2SIUnit.put(reader.readString(), units.get(reader.readInt()));
+            }
+        }
+
+        inflection2name = readInflectionNames(reader);
+        prefixedInflection2name = readInflectionNames(reader);
+        inflectionRank = reader.readInt();
+
+        unitPattern = UnitNameMatcher.read(reader);
 
         numberTokens = WordsToNumber.getInstance().getTokenSet();
     }
 
+    private static Map<String, InflectionName> readInflectionNames(LexiconSnapshot.Reader reader) {
+        int size = reader.readInt();
+        Map<String, InflectionName> inflectionNames = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String inflectedForm = reader.readString();
+            inflectionNames.put(inflectedForm, new InflectionName(reader.readString(), reader.readInt()));
+        }
+        return inflectionNames;
+    }
+
 
     private void processJsonNode(JsonNode node) {
         UnitUtilities.Unit_Type type = UnitUtilities.Unit_Type.valueOf(node.get("type").asText());
@@ -104,6 +326,7 @@ public class QuantityLexicon {
         UnitDefinition unitDefinition = new UnitDefinition();
         unitDefinition.setSystem(system);
         unitDefinition.setType(type);
+        units.add(unitDefinition);
 
         JsonNode supportsPrefixes = node.get("supportsPrefixes");
         if (supportsPrefixes != null) {
@@ -140,7 +363,7 @@ public class QuantityLexicon {
                 } else {
                     unitDefinition.addNotation(rawNotation);
                     addToUnitTokens(rawNotation);
-                    unitPattern.loadTerm(rawNotation, QuantityAnalyzer.getInstance());
+                    loadUnitTerm(rawNotation);
                 }
             }
         }
@@ -197,9 +420,6 @@ public class QuantityLexicon {
         List<String> notations = unitDefinition.getNotations();
         if ((notations != null) && (notations.size() > 0)) {
             for (int j = 0; j < notations.size(); j++) {
-                if (notation2unit == null) {
-                    notation2unit = new HashMap<>();
-                }
                 notation2unit.put(notations.get(j).trim(), unitDefinition);
             }
         } else {
@@ -211,10 +431,6 @@ public class QuantityLexicon {
         // add unit names in the first map
         List<String> names = unitDefinition.getNames();
         if (CollectionUtils.isNotEmpty(names)) {
-            if (name2unit == null) {
-                name2unit = new HashMap<>();
-            }
-
             for (int j = 0; j < names.size(); j++) {
                 name2unit.put(names.get(j).trim().toLowerCase(), unitDefinition);
             }
@@ -223,9 +439,6 @@ public class QuantityLexicon {
 
     private void processInflections(String notation, UnitDefinition unitDefinition, String lemma, List<String> inflections) {
         UnitUtilities.System_Type system = unitDefinition.getSystem();
-        if (inflection2name == null) {
-            inflection2name = new HashMap<>();
-        }
         for (String inflectedForm : inflections) {
             String name = notation;
             if (isBlank(name) /*&& !name.equals(subPiece)*/) {
@@ -233,44 +446,45 @@ public class QuantityLexicon {
             }
 
             // inflected -> name (e.g. meters -> m)
-            inflection2name.put(inflectedForm, name);
+            inflection2name.put(inflectedForm, new InflectionName(name, inflectionRank++));
 
             if (unitDefinition.isSupportsPrefixes()) {
-                for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
-                    // complex unit inflected form -> name (kilometers -> km)
-                    inflection2name.put(prefix.getValue() + inflectedForm, prefix.getKey() + name);
-
-                    // (variation) complex unit inflected form -> name (e.g. kmeter -> km)
-                    inflection2name.put(prefix.getKey() + inflectedForm, prefix.getKey() + name);
+                if (compositionalPrefixes) {
+                    // the prefixed forms are resolved in getNameByInflection()
+                    prefixedInflection2name.put(inflectedForm, new InflectionName(name, inflectionRank));
+                    inflectionRank += 2 * notationPrefixes.size();
+                } else {
+                    for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+                        // complex unit inflected form -> name (kilometers -> km)
+                        inflection2name.put(prefix.getValue() + inflectedForm,
+                            new InflectionName(prefix.getKey() + name, inflectionRank++));
+
+                        // (variation) complex unit inflected form -> name (e.g. kmeter -> km)
+                        inflection2name.put(prefix.getKey() + inflectedForm,
+                            new InflectionName(prefix.getKey() + name, inflectionRank++));
+                    }
                 }
             }
 
 
             if ((system == UnitUtilities.System_Type.SI_BASE) || (system == UnitUtilities.System_Type.SI_DERIVED)) {
                 // expansion with derivational morphology, but only for SI units!
-                List<String> derivations = derivationalMorphologyExpansion(inflectedForm, false);
-                for (String derivation : derivations) {
-                    unitDefinition.addName(derivation);
-                    try {
-                        unitPattern.loadTerm(derivation, QuantityAnalyzer.getInstance());
-                    } catch (Exception e) {
-                        LOGGER.error("invalid unit term: " + derivation);
-                    }
-                    List<String> subSubPieces = null;
-                    try {
-                        subSubPieces = QuantityAnalyzer.getInstance().tokenize(derivation);
-
-                        for (String word : subSubPieces) {
-                            addToUnitTokens(word);
-                        }
-                    } catch (Exception e) {
-                        LOGGER.error("fail to tokenize:, " + derivation, e);
+                int[] offsets = prefixOffsets(inflectedForm, namePrefixes);
+                if (offsets != null && inflectedForm.toLowerCase().length() == inflectedForm.length()) {
+                    unitDefinition.addName(inflectedForm);
+                    name2unit.putPrefixed(inflectedForm.toLowerCase(), offsets, unitDefinition);
+                    loadPrefixedUnitTerm(inflectedForm, false, offsets);
+                } else {
+                    List<String> derivations = derivationalMorphologyExpansion(inflectedForm, false);
+                    for (String derivation : derivations) {
+                        unitDefinition.addName(derivation);
+                        loadUnitTermAndTokens(derivation);
                     }
                 }
             } else {
                 unitDefinition.addName(inflectedForm);
                 try {
-                    unitPattern.loadTerm(inflectedForm, QuantityAnalyzer.getInstance());
+                    loadUnitTerm(inflectedForm);
                 } catch (Exception e) {
                     LOGGER.error("invalid unit term: " + inflectedForm);
                 }
@@ -288,38 +502,139 @@ public class QuantityLexicon {
     }
 
     private void expandAndAdd(UnitDefinition unitDefinition, String subPiece) {
+        int[] offsets = prefixOffsets(subPiece, notationPrefixes);
+        if (offsets != null) {
+            unitDefinition.addNotation(subPiece);
+            notation2unit.putPrefixed(subPiece, offsets, unitDefinition);
+            loadPrefixedUnitTerm(subPiece, true, offsets);
+            return;
+        }
+
         List<String> derivations = derivationalMorphologyExpansion(subPiece, true);
         for (String derivation : derivations) {
-            try {
-                unitPattern.loadTerm(derivation, QuantityAnalyzer.getInstance());
-            } catch (Exception e) {
-                LOGGER.error("Invalid unit term: " + derivation);
-            }
             unitDefinition.addNotation(derivation);
+            loadUnitTermAndTokens(derivation);
+        }
+    }
 
-            List<String> subSubPieces = null;
-            try {
-                subSubPieces = QuantityAnalyzer.getInstance().tokenize(derivation);
-                for (String word : subSubPieces) {
-                    addToUnitTokens(word);
-                }
-            } catch (Exception e) {
-                LOGGER.error("fail to tokenize:, " + derivation, e);
+    /**
+     * Where the prefixes are inserted in the term by {@link #derivationalMorphologyExpansion(String, boolean)}:
+     * at the start of a simple term, at the start of the first two elements of a composed term.
+     *
+     * @return the offsets, or null when the variants of the term are not all obtained this way and must be
+     * expanded, e.g. m/min where the replacement of the first element would also prefix the second one
+     */
+    private int[] prefixOffsets(String term, List<String> prefixStrings) {
+        if (!compositionalPrefixes || !term.equals(term.trim())) {
+            return null;
+        }
+        if (!isComposedUnit(term)) {
+            return new int[]{0};
+        }
+
+        List<RegexValueHolder> decomposition = decomposeComplexUnit(term);
+        if (decomposition.size() < 2) {
+            return null;
+        }
+        RegexValueHolder firstElement = decomposition.get(0);
+        RegexValueHolder secondElement = decomposition.get(1);
+        if (!occursOnlyAt(term, firstElement.getValue(), firstElement.getStart())
+            || !occursOnlyAt(term, secondElement.getValue(), secondElement.getStart())) {
+            return null;
+        }
+        for (String prefix : prefixStrings) {
+            String expanded = term.substring(0, firstElement.getStart()) + prefix + term.substring(firstElement.getStart());
+            if (!occursOnlyAt(expanded, secondElement.getValue(), secondElement.getStart() + prefix.length())) {
+                return null;
             }
         }
+        return new int[]{firstElement.getStart(), secondElement.getStart()};
+    }
+
+    private static boolean occursOnlyAt(String text, String element, int offset) {
+        return text.indexOf(element) == offset && text.lastIndexOf(element) == offset;
+    }
+
+    private void loadUnitTermAndTokens(String term) {
+        try {
+            loadUnitTerm(term);
+        } catch (Exception e) {
+            LOGGER.error("Invalid unit term: " + term);
+        }
+
+        try {
+            for (String word : QuantityAnalyzer.getInstance().tokenize(term)) {
+                addToUnitTokens(word);
+            }
+        } catch (Exception e) {
+            LOGGER.error("fail to tokenize:, " + term, e);
+        }
+    }
+
+    /**
+     * Load the term once in the unit matcher and the unit tokens, with the tokens accepting a prefix, or all its
+     * prefixed variants when the prefixes change the tokenisation of the term
+     */
+    private void loadPrefixedUnitTerm(String term, boolean isNotation, int[] offsets) {
+        int prefixSet = isNotation ? notationPrefixSet : namePrefixSet;
+        if (!unitPattern.isPrefixable(term, QuantityAnalyzer.getInstance(), prefixSet, offsets)) {
+            for (String derivation : derivationalMorphologyExpansion(term, isNotation)) {
+                loadUnitTermAndTokens(derivation);
+            }
+            return;
+        }
+
+        try {
+            unitPattern.loadTerm(term, QuantityAnalyzer.getInstance(), prefixSet, offsets);
+        } catch (Exception e) {
+            LOGGER.error("Invalid unit term: " + term);
+        }
+        if (unitTermListener != null) {
+            derivationalMorphologyExpansion(term, isNotation).forEach(unitTermListener);
+        }
+
+        Set<String> prefixedTokens = isNotation ? notationPrefixedTokens : namePrefixedTokens;
+        Set<String> prefixedTokensLowerCase = isNotation ? notationPrefixedTokensLowerCase : namePrefixedTokensLowerCase;
+        int offset = 0;
+        for (String word : QuantityAnalyzer.getInstance().tokenize(term)) {
+            addToUnitTokens(word);
+            if (ArrayUtils.contains(offsets, offset)) {
+                prefixedTokens.add(word);
+                prefixedTokensLowerCase.add(word.toLowerCase());
+            }
+            offset += word.length();
+        }
+    }
+
+    private void loadUnitTerm(String term) {
+        unitPattern.loadTerm(term, QuantityAnalyzer.getInstance());
+        if (unitTermListener != null) {
+            unitTermListener.accept(term);
+        }
     }
 
     private void addToUnitTokens(String word) {
         word = trim(word);
-        if ((word.length() > 0) && !unitTokens.contains(word)) {
-            // we don't add pure digit sub-token and token delimiters
-            if ((TextUtilities.countDigit(word) != word.length()) && (!QuantityAnalyzer.DELIMITERS.contains(word))) {
-                unitTokens.add(word);
-                unitTokensLowerCase.add(word.toLowerCase());
-            }
+        if (!unitTokens.contains(word) && isUnitToken(word)) {
+            unitTokens.add(word);
+            unitTokensLowerCase.add(word.toLowerCase());
         }
     }
 
+    private static boolean isUnitToken(String word) {
+        // we don't add pure digit sub-token and token delimiters
+        return (word.length() > 0) && (TextUtilities.countDigit(word) != word.length())
+            && (!QuantityAnalyzer.DELIMITERS.contains(word));
+    }
+
+    private static List<String> toLowerCase(List<String> words) {
+        List<String> result = new ArrayList<>();
+        for (String word : words) {
+            result.add(word.toLowerCase());
+        }
+        return result;
+    }
+
     /**
      * Expansion of a non-notation unit name into its inflected forms. Note that the
      * input unit name is included in the returned list of forms.
@@ -444,7 +759,34 @@ public class QuantityLexicon {
      * mile per hours -> mile/h
      */
     public String getNameByInflection(String inflection) {
-        return inflection2name.get(inflection);
+        if (inflection == null) {
+            return null;
+        }
+        InflectionName found = inflection2name.get(inflection);
+
+        // the form put last in the expanded map wins: for each prefix, first the prefix string then the symbol
+        String name = found != null ? found.name : null;
+        int rank = found != null ? found.rank : -1;
+        for (int i = 0; i < notationPrefixes.size(); i++) {
+            InflectionName prefixed = getPrefixedInflection(inflection, namePrefixes.get(i));
+            if (prefixed != null && prefixed.rank + 2 * i > rank) {
+                name = notationPrefixes.get(i) + prefixed.name;
+                rank = prefixed.rank + 2 * i;
+            }
+            prefixed = getPrefixedInflection(inflection, notationPrefixes.get(i));
+            if (prefixed != null && prefixed.rank + 2 * i + 1 > rank) {
+                name = notationPrefixes.get(i) + prefixed.name;
+                rank = prefixed.rank + 2 * i + 1;
+            }
+        }
+        return name;
+    }
+
+    private InflectionName getPrefixedInflection(String inflection, String prefix) {
+        if (!inflection.startsWith(prefix)) {
+            return null;
+        }
+        return prefixedInflection2name.get(inflection.substring(prefix.length()));
     }
 
     public boolean inPrefixDictionary(String s) {
@@ -460,11 +802,29 @@ public class QuantityLexicon {
     }
 
     public boolean inUnitDictionary(String s) {
-        return unitTokens.contains(s);
+        return unitTokens.contains(s)
+            || inPrefixedUnitTokens(s, notationPrefixes, notationPrefixedTokens)
+            || inPrefixedUnitTokens(s, namePrefixes, namePrefixedTokens);
     }
 
     public boolean inUnitDictionaryCaseInsensitive(String s) {
-        return unitTokensLowerCase.contains(lowerCase(s));
+        String lowerCase = lowerCase(s);
+        return unitTokensLowerCase.contains(lowerCase)
+            || inPrefixedUnitTokens(lowerCase, lowerCaseNotationPrefixes, notationPrefixedTokensLowerCase)
+            || inPrefixedUnitTokens(lowerCase, lowerCaseNamePrefixes, namePrefixedTokensLowerCase);
+    }
+
+    private static boolean inPrefixedUnitTokens(String word, List<String> prefixes, Set<String> prefixedTokens) {
+        if (word == null || prefixedTokens.isEmpty() || !isUnitToken(word)) {
+            return false;
+        }
+        for (String prefix : prefixes) {
+            if (word.length() > prefix.length() && word.startsWith(prefix)
+                && prefixedTokens.contains(word.substring(prefix.length()))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -531,4 +891,15 @@ public class QuantityLexicon {
         }
         return numberTokens.contains(token.toLowerCase());
     }
-}
\ No newline at end of file
+
+    private static class InflectionName {
+        private final String name;
+        // position of the form in the loading order, the form loaded last wins
+        private final int rank;
+
+        InflectionName(String name, int rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+    }
+}
@@ -0,0 +1,548 @@
+package org.grobid.core.lexicon;
+
+import org.grobid.core.analyzers.Analyzer;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.OffsetPosition;
+import org.grobid.core.utilities.Pair;
+import org.grobid.core.utilities.TextUtilities;
+import org.grobid.core.utilities.UnicodeUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Token level automaton of the unit terms, returning the same positions as the {@link FastMatcher} loaded with
+ * the same terms, for the three matching methods used by the lexicon.
+ * <p>
+ * The terms are loaded with {@link #loadTerm(String, Analyzer)}, then {@link #compile()} interns their tokens
+ * to integer ids and freezes the trie in primitive arrays: a dense transition table for the first token of the
+ * terms and sorted edge lists for the following ones. The matching keeps the partial matches in a few int arrays
+ * instead of the nested maps and lists of the generic matcher.
+ * <p>
+ * A term can also be loaded with a set of prefixes ({@link #loadTerm(String, Analyzer, int, int...)}): some of its
+ * tokens then match with or without one of these prefixes glued in front of them, as if each prefixed variant of
+ * the term had been loaded.
+ */
+public class UnitNameMatcher {
+
+    public static final int NO_PREFIX = 0;
+
+    private static final int NONE = -1;
+    // the symbols of the trie are (token id << PREFIX_BITS | prefix set), the set 0 being the token without prefix
+    private static final int PREFIX_BITS = 2;
+    private static final int MAX_PREFIX_SETS = (1 << PREFIX_BITS) - 1;
+
+    private static final String DELIMITERS = TextUtilities.delimiters;
+    private static final Language LANGUAGE = new Language("en", 1.0);
+
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+
+    // the prefix sets, as given and lowercased, the set 0 is empty
+    private final List<List<String>> prefixSets = new ArrayList<>();
+    private final List<String[]> lowerCasePrefixSets = new ArrayList<>();
+
+    // during the loading, the edges of the trie by (node << 32 | symbol), the root is the node 0
+    private Map<Long, Integer> loadingEdges = new HashMap<>();
+    private BitSet loadingTerminals = new BitSet();
+    private int nodeCount = 1;
+    private int termCount = 0;
+
+    // compiled trie
+    private int[] rootTargets;
+    private int[] edgeStart;
+    private int[] edgeSymbols;
+    private int[] edgeTargets;
+    private boolean[] terminal;
+    private int maxSymbols;
+
+    public UnitNameMatcher() {
+        prefixSets.add(new ArrayList<>());
+        lowerCasePrefixSets.add(new String[0]);
+    }
+
+    /**
+     * Register a set of prefixes, for instance the symbols of the SI prefixes (k, M, µ...)
+     *
+     * @return the identifier of the set, to be given to {@link #loadTerm(String, Analyzer, int, int...)}
+     */
+    public int addPrefixSet(Collection<String> prefixes) {
+        checkNotCompiled();
+        if (prefixSets.size() > MAX_PREFIX_SETS) {
+            throw new IllegalStateException("At most " + MAX_PREFIX_SETS + " prefix sets are supported.");
+        }
+        Set<String> lowerCase = new LinkedHashSet<>();
+        for (String prefix : prefixes) {
+            if (isBlank(prefix)) {
+                throw new IllegalArgumentException("Invalid blank prefix.");
+            }
+            lowerCase.add(prefix.toLowerCase());
+        }
+        prefixSets.add(new ArrayList<>(prefixes));
+        lowerCasePrefixSets.add(lowerCase.toArray(new String[0]));
+        return prefixSets.size() - 1;
+    }
+
+    /**
+     * Add the term to the automaton, tokenised with the analyzer and lowercased, the spaces being ignored
+     *
+     * @return the number of terms added, 0 or 1
+     */
+    public int loadTerm(String term, Analyzer analyzer) {
+        return loadTerm(term, analyzer, NO_PREFIX);
+    }
+
+    /**
+     * Add the term to the automaton, the tokens starting at the given offsets of the term matching also
+     * with any prefix of the set in front of them. This is the same as loading each variant of the term,
+     * for all the combinations of prefixes, when {@link #isPrefixable(String, Analyzer, int, int...)} holds.
+     *
+     * @return the number of terms added, 0 or 1
+     */
+    public int loadTerm(String term, Analyzer analyzer, int prefixSet, int... offsets) {
+        checkNotCompiled();
+        if (isBlank(term)) {
+            return 0;
+        }
+        if (prefixSet < 0 || prefixSet >= prefixSets.size()) {
+            throw new IllegalArgumentException("Unknown prefix set: " + prefixSet);
+        }
+
+        int node = 0;
+        int offset = 0;
+        for (String token : analyzer.tokenize(term, LANGUAGE)) {
+            int tokenOffset = offset;
+            offset += token.length();
+            if (token.length() == 0 || token.equals(" ") || token.equals("\n")) {
+                continue;
+            }
+            int tokenId = tokenIds.computeIfAbsent(token.toLowerCase(), t -> tokenIds.size());
+            int symbol = tokenId << PREFIX_BITS;
+            if (prefixSet != NO_PREFIX && contains(offsets, tokenOffset)) {
+                symbol |= prefixSet;
+            }
+            long key = ((long) node << 32) | symbol;
+            Integer next = loadingEdges.get(key);
+            if (next == null) {
+                next = nodeCount++;
+                loadingEdges.put(key, next);
+            }
+            node = next;
+        }
+
+        if (node == 0) {
+            return 0;
+        }
+        loadingTerminals.set(node);
+        termCount++;
+        return 1;
+    }
+
+    /**
+     * @return true when, for each prefix of the set, inserting the prefix at one of the offsets of the term only
+     * glues it to the token starting there: the analyzer must split the text on local decisions, as the
+     * {@link org.grobid.core.analyzers.QuantityAnalyzer} does, so that the offsets can be checked one by one
+     */
+    public boolean isPrefixable(String term, Analyzer analyzer, int prefixSet, int... offsets) {
+        if (isBlank(term) || prefixSet <= NO_PREFIX || prefixSet >= prefixSets.size()) {
+            return false;
+        }
+        List<String> tokens = analyzer.tokenize(term, LANGUAGE);
+        for (int offset : offsets) {
+            int index = tokenIndex(tokens, offset);
+            if (index < 0) {
+                return false;
+            }
+            for (String prefix : prefixSets.get(prefixSet)) {
+                String prefixed = term.substring(0, offset) + prefix + term.substring(offset);
+                List<String> expected = new ArrayList<>(tokens);
+                expected.set(index, prefix + tokens.get(index));
+                if (!analyzer.tokenize(prefixed, LANGUAGE).equals(expected)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int tokenIndex(List<String> tokens, int offset) {
+        int start = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (start == offset) {
+                return tokens.get(i).length() > 0 ? i : -1;
+            }
+            start += tokens.get(i).length();
+        }
+        return -1;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkNotCompiled() {
+        if (loadingEdges == null) {
+            throw new IllegalStateException("The unit matcher is already compiled.");
+        }
+    }
+
+    /**
+     * Freeze the automaton, no term can be added afterwards
+     */
+    public void compile() {
+        if (loadingEdges == null) {
+            return;
+        }
+
+        rootTargets = new int[tokenIds.size() << PREFIX_BITS];
+        Arrays.fill(rootTargets, NONE);
+
+        // edges of the inner nodes, grouped by node and sorted by symbol
+        List<long[]> innerEdges = new ArrayList<>();
+        for (Map.Entry<Long, Integer> edge : loadingEdges.entrySet()) {
+            int node = (int) (edge.getKey() >>> 32);
+            int symbol = (int) (edge.getKey() & 0xFFFFFFFFL);
+            if (node == 0) {
+                rootTargets[symbol] = edge.getValue();
+            } else {
+                innerEdges.add(new long[]{node, symbol, edge.getValue()});
+            }
+        }
+        innerEdges.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        edgeStart = new int[nodeCount + 1];
+        edgeSymbols = new int[innerEdges.size()];
+        edgeTargets = new int[innerEdges.size()];
+        for (int i = 0; i < innerEdges.size(); i++) {
+            long[] edge = innerEdges.get(i);
+            edgeStart[(int) edge[0] + 1]++;
+            edgeSymbols[i] = (int) edge[1];
+            edgeTargets[i] = (int) edge[2];
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            edgeStart[node + 1] += edgeStart[node];
+        }
+
+        terminal = new boolean[nodeCount];
+        for (int node = loadingTerminals.nextSetBit(0); node >= 0; node = loadingTerminals.nextSetBit(node + 1)) {
+            terminal[node] = true;
+        }
+
+        maxSymbols = maxSymbols();
+
+        loadingEdges = null;
+        loadingTerminals = null;
+    }
+
+    private int maxSymbols() {
+        // a token matches at most its own symbol in each set, and one symbol per prefix it starts with
+        int count = prefixSets.size();
+        for (String[] prefixes : lowerCasePrefixSets) {
+            count += prefixes.length;
+        }
+        return count;
+    }
+
+    /**
+     * Same as {@link FastMatcher#matchLayoutToken(List)}: the positions are the indexes of the tokens in the list,
+     * the spaces and new lines are skipped
+     */
+    public List<OffsetPosition> matchLayoutToken(List<LayoutToken> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Matching matching = new Matching();
+        int position = 0;
+        for (LayoutToken token : tokens) {
+            String text = token.getText();
+            if (!text.equals(" ") && !text.equals("\n")) {
+                matching.next(UnicodeUtil.normaliseTextAndRemoveSpaces(text).toLowerCase(), position);
+            }
+            position++;
+        }
+        return matching.end();
+    }
+
+    /**
+     * Same as {@link FastMatcher#matchToken(String)}: the text is split on the GROBID delimiters, which count as
+     * a position without interrupting the matches, the spaces are skipped without counting
+     */
+    public List<OffsetPosition> matchToken(String text) {
+        Matching matching = new Matching();
+        int position = 0;
+        StringTokenizer st = new StringTokenizer(text, DELIMITERS, true);
+        while (st.hasMoreTokens()) {
+            String token = st.nextToken();
+            if (token.equals(" ")) {
+                continue;
+            }
+            if (DELIMITERS.contains(token)) {
+                position++;
+                continue;
+            }
+            matching.next(token.toLowerCase(), position);
+            position++;
+        }
+        return matching.end();
+    }
+
+    /**
+     * Same as {@link FastMatcher#matcherPairs(List)}, on the first element of the pairs (token, label): the
+     * new line markers and the delimiters count as a position without interrupting the matches
+     */
+    public List<OffsetPosition> matcherPairs(List<Pair<String, String>> tokens) {
+        Matching matching = new Matching();
+        int position = 0;
+        for (Pair<String, String> pair : tokens) {
+            String token = pair.getA();
+            if (token.trim().equals("@newline") || DELIMITERS.contains(token)) {
+                position++;
+                continue;
+            }
+            matching.next(token.toLowerCase(), position);
+            position++;
+        }
+        return matching.end();
+    }
+
+    private int tokenId(String token) {
+        Integer id = tokenIds.get(token);
+        return id != null ? id : NONE;
+    }
+
+    /**
+     * Collect the symbols matched by the lowercased token: the token itself, with or without prefix set, and
+     * the rest of the token after each prefix it starts with, in the set of this prefix
+     *
+     * @return the number of symbols written in the buffer
+     */
+    private int symbols(String token, int[] buffer) {
+        int count = 0;
+        int tokenId = tokenId(token);
+        if (tokenId != NONE) {
+            for (int prefixSet = 0; prefixSet < prefixSets.size(); prefixSet++) {
+                buffer[count++] = tokenId << PREFIX_BITS | prefixSet;
+            }
+        }
+        for (int prefixSet = 1; prefixSet < lowerCasePrefixSets.size(); prefixSet++) {
+            for (String prefix : lowerCasePrefixSets.get(prefixSet)) {
+                if (token.length() > prefix.length() && token.startsWith(prefix)) {
+                    int restId = tokenId(token.substring(prefix.length()));
+                    if (restId != NONE) {
+                        buffer[count++] = restId << PREFIX_BITS | prefixSet;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private int next(int node, int symbol) {
+        if (node == 0) {
+            return rootTargets[symbol];
+        }
+        int index = Arrays.binarySearch(edgeSymbols, edgeStart[node], edgeStart[node + 1], symbol);
+        return index >= 0 ? edgeTargets[index] : NONE;
+    }
+
+    /**
+     * Write the compiled automaton in a lexicon snapshot
+     */
+    void write(LexiconSnapshot.Writer writer) throws IOException {
+        if (terminal == null) {
+            throw new IllegalStateException("The unit matcher is not compiled.");
+        }
+        String[] tokens = new String[tokenIds.size()];
+        for (Map.Entry<String, Integer> tokenId : tokenIds.entrySet()) {
+            tokens[tokenId.getValue()] = tokenId.getKey();
+        }
+        writer.writeStrings(Arrays.asList(tokens));
+
+        writer.writeInt(prefixSets.size() - 1);
+        for (int prefixSet = 1; prefixSet < prefixSets.size(); prefixSet++) {
+            writer.writeStrings(prefixSets.get(prefixSet));
+        }
+
+        writer.writeInts(rootTargets);
+        writer.writeInts(edgeStart);
+        writer.writeInts(edgeSymbols);
+        writer.writeInts(edgeTargets);
+        writer.writeBooleans(terminal);
+        writer.writeInt(nodeCount);
+        writer.writeInt(termCount);
+    }
+
+    /**
+     * Read a compiled automaton written by {@link #write(LexiconSnapshot.Writer)}
+     */
+    static UnitNameMatcher read(LexiconSnapshot.Reader reader) {
+        UnitNameMatcher matcher = new UnitNameMatcher();
+        List<String> tokens = reader.readStrings();
+        for (int tokenId = 0; tokenId < tokens.size(); tokenId++) {
+            matcher.tokenIds.put(tokens.get(tokenId), tokenId);
+        }
+
+        int prefixSetCount = reader.readInt();
+        for (int i = 0; i < prefixSetCount; i++) {
+            matcher.addPrefixSet(reader.readStrings());
+        }
+
+        matcher.rootTargets = reader.readInts();
+        matcher.edgeStart = reader.readInts();
+        matcher.edgeSymbols = reader.readInts();
+        matcher.edgeTargets = reader.readInts();
+        matcher.terminal = reader.readBooleans();
+        matcher.nodeCount = reader.readInt();
+        matcher.termCount = reader.readInt();
+
+        matcher.maxSymbols = matcher.maxSymbols();
+        matcher.loadingEdges = null;
+        matcher.loadingTerminals = null;
+        return matcher;
+    }
+
+    public int getTermCount() {
+        return termCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * The partial matches of a sequence, in the order of the generic matcher: each of them is extended or dropped
+     * with the next token, a match is reported when a partial match on a complete term is replaced.
+     * <p>
+     * The nodes reached from the same start form a group, standing for the single node of the trie where all the
+     * prefixed variants would have been loaded: the group is terminal when one of its nodes is.
+     */
+    private class Matching {
+        private final int[] symbols = new int[maxSymbols];
+
+        private int[] starts = new int[8];
+        private int[] lasts = new int[8];
+        private int[] groupEnds = new int[8];
+        private int[] nodes = new int[8];
+        private int groupCount = 0;
+
+        private int[] nextStarts = new int[8];
+        private int[] nextLasts = new int[8];
+        private int[] nextGroupEnds = new int[8];
+        private int[] nextNodes = new int[8];
+        private int nextGroupCount = 0;
+        private int nextNodeCount = 0;
+
+        private List<OffsetPosition> results = null;
+
+        Matching() {
+            if (terminal == null) {
+                throw new IllegalStateException("The unit matcher is not compiled.");
+            }
+        }
+
+        void next(String token, int position) {
+            int symbolCount = symbols(token, symbols);
+            nextGroupCount = 0;
+            nextNodeCount = 0;
+
+            int from = 0;
+            for (int group = 0; group < groupCount; group++) {
+                boolean isTerminal = false;
+                int firstChild = nextNodeCount;
+                for (int i = from; i < groupEnds[group]; i++) {
+                    addChildren(nodes[i], symbolCount);
+                    isTerminal |= terminal[nodes[i]];
+                }
+                if (nextNodeCount > firstChild) {
+                    addNextGroup(starts[group], position);
+                }
+                if (isTerminal) {
+                    report(starts[group], lasts[group]);
+                }
+                from = groupEnds[group];
+            }
+
+            int firstChild = nextNodeCount;
+            addChildren(0, symbolCount);
+            if (nextNodeCount > firstChild) {
+                addNextGroup(position, position);
+            }
+
+            int[] swap = starts;
+            starts = nextStarts;
+            nextStarts = swap;
+            swap = lasts;
+            lasts = nextLasts;
+            nextLasts = swap;
+            swap = groupEnds;
+            groupEnds = nextGroupEnds;
+            nextGroupEnds = swap;
+            swap = nodes;
+            nodes = nextNodes;
+            nextNodes = swap;
+            groupCount = nextGroupCount;
+        }
+
+        private void addChildren(int node, int symbolCount) {
+            for (int s = 0; s < symbolCount; s++) {
+                int child = UnitNameMatcher.this.next(node, symbols[s]);
+                if (child != NONE) {
+                    if (nextNodeCount == nextNodes.length) {
+                        nextNodes = Arrays.copyOf(nextNodes, nextNodes.length * 2);
+                    }
+                    nextNodes[nextNodeCount++] = child;
+                }
+            }
+        }
+
+        private void addNextGroup(int start, int last) {
+            if (nextGroupCount == nextStarts.length) {
+                nextStarts = Arrays.copyOf(nextStarts, nextStarts.length * 2);
+                nextLasts = Arrays.copyOf(nextLasts, nextLasts.length * 2);
+                nextGroupEnds = Arrays.copyOf(nextGroupEnds, nextGroupEnds.length * 2);
+            }
+            nextStarts[nextGroupCount] = start;
+            nextLasts[nextGroupCount] = last;
+            nextGroupEnds[nextGroupCount] = nextNodeCount;
+            nextGroupCount++;
+        }
+
+        List<OffsetPosition> end() {
+            int from = 0;
+            for (int group = 0; group < groupCount; group++) {
+                for (int i = from; i < groupEnds[group]; i++) {
+                    if (terminal[nodes[i]]) {
+                        report(starts[group], lasts[group]);
+                        break;
+                    }
+                }
+                from = groupEnds[group];
+            }
+            groupCount = 0;
+            return results != null ? results : new ArrayList<>();
+        }
+
+        private void report(int start, int end) {
+            if (results == null) {
+                results = new ArrayList<>();
+            }
+            results.add(new OffsetPosition(start, end));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.grobid.core.utilities;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe, size-bounded cache (least recently used entries are evicted first) with hit, miss and eviction
+ * counters registered in {@link QuantitiesMetrics}, under {@code grobid-quantities.cache.<name>.*}.
+ * <p>
+ * A cache created with a maximum size of 0 (or less) is disabled: nothing is stored and every lookup is a miss.
+ * The values are returned as stored, callers holding mutable values should copy them.
+ */
+public class MeteredCache<K, V> {
+
+    private final Cache<K, V> cache;
+    private final boolean enabled;
+    private final MetricRegistry registry;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public MeteredCache(String name, long maximumSize) {
+        this(name, maximumSize, QuantitiesMetrics.getRegistry());
+    }
+
+    public MeteredCache(String name, long maximumSize, MetricRegistry registry) {
+        this.enabled = maximumSize > 0;
+        this.registry = registry;
+        this.hits = registry.counter(QuantitiesMetrics.name("cache", name, "hits"));
+        this.misses = registry.counter(QuantitiesMetrics.name("cache", name, "misses"));
+        this.evictions = registry.counter(QuantitiesMetrics.name("cache", name, "evictions"));
+
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(Math.max(maximumSize, 0))
+            .removalListener(notification -> {
+                if (notification.wasEvicted()) {
+                    evictions.inc();
+                }
+            })
+            .build();
+    }
+
+    /**
+     * @return the cached value, or null if absent
+     */
+    public V getIfPresent(K key) {
+        V value = enabled ? cache.getIfPresent(key) : null;
+        if (value != null) {
+            hits.inc();
+        } else {
+            misses.inc();
+        }
+        return value;
+    }
+
+    /**
+     * Return the cached value, or compute and store it. The computation is not locked: two threads missing
+     * the same key at the same time may both compute it, the last one is kept.
+     * Null values are returned but not stored.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if (enabled && key != null && value != null) {
+            cache.put(key, value);
+        }
+    }
+
+    public boolean contains(K key) {
+        return enabled && cache.getIfPresent(key) != null;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Register gauges for the number of entries, the hit ratio and the estimated memory footprint of the cache
+     *
+     * @param footprint estimation of the memory used by one value, in bytes
+     */
+    public MeteredCache<K, V> registerGauges(String name, ToLongFunction<V> footprint) {
+        Gauge<Long> size = cache::size;
+        Gauge<Double> hitRatio = new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(hits.getCount(), hits.getCount() + misses.getCount());
+            }
+        };
+        Gauge<Long> estimatedBytes = () -> cache.asMap().values().stream().mapToLong(footprint).sum();
+
+        registry.gauge(QuantitiesMetrics.name("cache", name, "size"), () -> size);
+        registry.gauge(QuantitiesMetrics.name("cache", name, "hit-ratio"), () -> hitRatio);
+        registry.gauge(QuantitiesMetrics.name("cache", name, "estimated-bytes"), () -> estimatedBytes);
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits.getCount();
+    }
+
+    public long getMisses() {
+        return misses.getCount();
+    }
+
+    public long getEvictions() {
+        return evictions.getCount();
+    }
+}
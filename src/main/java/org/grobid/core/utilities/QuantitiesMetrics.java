@@ -0,0 +1,27 @@
+package org.grobid.core.utilities;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Holder of the metric registry used by the core classes (caches, pools, ...).
+ * When running as a service, the registry is replaced by the Dropwizard one, so that the metrics are
+ * exposed on the admin connector. Outside the service (training, command line, tests) a local registry is used.
+ */
+public class QuantitiesMetrics {
+
+    public static final String PREFIX = "grobid-quantities";
+
+    private static volatile MetricRegistry registry = new MetricRegistry();
+
+    public static MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    public static void setRegistry(MetricRegistry metricRegistry) {
+        registry = metricRegistry;
+    }
+
+    public static String name(String... names) {
+        return MetricRegistry.name(PREFIX, names);
+    }
+}
@@ -0,0 +1,221 @@
+package org.grobid.core.utilities;
+
+/**
+ * Tuning parameters of the core classes. The values are set from the service configuration at startup,
+ * the defaults are used otherwise (training, command line, tests).
+ */
+public class QuantitiesProperties {
+
+    public static final int DEFAULT_UNIT_CACHE_SIZE = 10000;
+    public static final int DEFAULT_TEXT_PARSER_POOL_SIZE = 1;
+    public static final long DEFAULT_ENGINE_POOL_MAX_WAIT_MILLIS = 10_000L;
+    public static final long DEFAULT_ENGINE_POOL_IDLE_TIMEOUT_MILLIS = 600_000L;
+    public static final int DEFAULT_LABELLING_BATCH_MAX_SIZE = 32;
+    public static final int DEFAULT_FEATURE_CACHE_SIZE = 50000;
+
+    private static volatile int unitCacheSize = DEFAULT_UNIT_CACHE_SIZE;
+    private static volatile int textParserPoolSize = DEFAULT_TEXT_PARSER_POOL_SIZE;
+    private static volatile boolean parseOnlyMeasurementSentences = true;
+    private static volatile int parseCacheSize = 0;
+    private static volatile int enginePoolSize = 0;
+    private static volatile long enginePoolMaxWaitMillis = DEFAULT_ENGINE_POOL_MAX_WAIT_MILLIS;
+    private static volatile long enginePoolIdleTimeoutMillis = DEFAULT_ENGINE_POOL_IDLE_TIMEOUT_MILLIS;
+    private static volatile boolean wapitiJvmDecoder = false;
+    private static volatile long labellingBatchWindowMillis = 0;
+    private static volatile int labellingBatchMaxSize = DEFAULT_LABELLING_BATCH_MAX_SIZE;
+    private static volatile int[] labellingBuckets = new int[0];
+    private static volatile int textChunkSize = 0;
+    private static volatile int textChunkParallelism = 0;
+    private static volatile int pdfSectionParallelism = 1;
+    private static volatile boolean measurementPrefilter = false;
+    private static volatile int featureCacheSize = DEFAULT_FEATURE_CACHE_SIZE;
+    private static volatile String lexiconSnapshot = null;
+
+    /**
+     * Maximum number of parsed units kept in memory, 0 to disable the cache
+     */
+    public static int getUnitCacheSize() {
+        return unitCacheSize;
+    }
+
+    public static void setUnitCacheSize(int unitCacheSize) {
+        QuantitiesProperties.unitCacheSize = unitCacheSize;
+    }
+
+    /**
+     * Maximum number of ClearNLP pipelines used in parallel for the dependency parsing, each of them loads its own models
+     */
+    public static int getTextParserPoolSize() {
+        return textParserPoolSize;
+    }
+
+    public static void setTextParserPoolSize(int textParserPoolSize) {
+        QuantitiesProperties.textParserPoolSize = textParserPoolSize;
+    }
+
+    /**
+     * Whether the dependency parsing is limited to the sentences containing a measurement (without semantic role labelling)
+     */
+    public static boolean isParseOnlyMeasurementSentences() {
+        return parseOnlyMeasurementSentences;
+    }
+
+    public static void setParseOnlyMeasurementSentences(boolean parseOnlyMeasurementSentences) {
+        QuantitiesProperties.parseOnlyMeasurementSentences = parseOnlyMeasurementSentences;
+    }
+
+    /**
+     * Maximum number of sentence parses kept in memory, 0 (default) to disable the cache
+     */
+    public static int getParseCacheSize() {
+        return parseCacheSize;
+    }
+
+    public static void setParseCacheSize(int parseCacheSize) {
+        QuantitiesProperties.parseCacheSize = parseCacheSize;
+    }
+
+    /**
+     * Maximum number of quantity parser stacks used in parallel by the service, 0 (default) for the number of processors
+     */
+    public static int getEnginePoolSize() {
+        return enginePoolSize;
+    }
+
+    public static void setEnginePoolSize(int enginePoolSize) {
+        QuantitiesProperties.enginePoolSize = enginePoolSize;
+    }
+
+    /**
+     * Maximum time a request waits for a quantity parser stack before being rejected
+     */
+    public static long getEnginePoolMaxWaitMillis() {
+        return enginePoolMaxWaitMillis;
+    }
+
+    public static void setEnginePoolMaxWaitMillis(long enginePoolMaxWaitMillis) {
+        QuantitiesProperties.enginePoolMaxWaitMillis = enginePoolMaxWaitMillis;
+    }
+
+    /**
+     * Idle time after which a quantity parser stack is released, 0 to keep them
+     */
+    public static long getEnginePoolIdleTimeoutMillis() {
+        return enginePoolIdleTimeoutMillis;
+    }
+
+    public static void setEnginePoolIdleTimeoutMillis(long enginePoolIdleTimeoutMillis) {
+        QuantitiesProperties.enginePoolIdleTimeoutMillis = enginePoolIdleTimeoutMillis;
+    }
+
+    /**
+     * Decode the Wapiti models in the JVM instead of calling the native library
+     */
+    public static boolean isWapitiJvmDecoder() {
+        return wapitiJvmDecoder;
+    }
+
+    public static void setWapitiJvmDecoder(boolean wapitiJvmDecoder) {
+        QuantitiesProperties.wapitiJvmDecoder = wapitiJvmDecoder;
+    }
+
+    /**
+     * Time during which the concurrent labelling requests of a DeLFT model are batched together, 0 to disable
+     */
+    public static long getLabellingBatchWindowMillis() {
+        return labellingBatchWindowMillis;
+    }
+
+    public static void setLabellingBatchWindowMillis(long labellingBatchWindowMillis) {
+        QuantitiesProperties.labellingBatchWindowMillis = labellingBatchWindowMillis;
+    }
+
+    /**
+     * Maximum number of labelling requests in a batch
+     */
+    public static int getLabellingBatchMaxSize() {
+        return labellingBatchMaxSize;
+    }
+
+    public static void setLabellingBatchMaxSize(int labellingBatchMaxSize) {
+        QuantitiesProperties.labellingBatchMaxSize = labellingBatchMaxSize;
+    }
+
+    /**
+     * Upper bounds (number of tokens) of the length buckets labelled separately, empty to label the sequences together
+     */
+    public static int[] getLabellingBuckets() {
+        return labellingBuckets;
+    }
+
+    public static void setLabellingBuckets(int[] labellingBuckets) {
+        QuantitiesProperties.labellingBuckets = labellingBuckets != null ? labellingBuckets : new int[0];
+    }
+
+    /**
+     * Maximum number of tokens of the chunks of a long text processed separately, 0 to process the text at once
+     */
+    public static int getTextChunkSize() {
+        return textChunkSize;
+    }
+
+    public static void setTextChunkSize(int textChunkSize) {
+        QuantitiesProperties.textChunkSize = textChunkSize;
+    }
+
+    /**
+     * Number of chunks of a long text processed in parallel, 0 for the number of available processors
+     */
+    public static int getTextChunkParallelism() {
+        return textChunkParallelism;
+    }
+
+    public static void setTextChunkParallelism(int textChunkParallelism) {
+        QuantitiesProperties.textChunkParallelism = textChunkParallelism;
+    }
+
+    /**
+     * Number of segments of a PDF document processed in parallel, 1 to process them sequentially,
+     * 0 for the number of available processors
+     */
+    public static int getPdfSectionParallelism() {
+        return pdfSectionParallelism;
+    }
+
+    public static void setPdfSectionParallelism(int pdfSectionParallelism) {
+        QuantitiesProperties.pdfSectionParallelism = pdfSectionParallelism;
+    }
+
+    /**
+     * Skip the quantities model for the segments without digit nor number word
+     */
+    public static boolean isMeasurementPrefilter() {
+        return measurementPrefilter;
+    }
+
+    public static void setMeasurementPrefilter(boolean measurementPrefilter) {
+        QuantitiesProperties.measurementPrefilter = measurementPrefilter;
+    }
+
+    /**
+     * Maximum number of tokens whose context-free feature columns are kept in memory for each model, 0 to disable the cache
+     */
+    public static int getFeatureCacheSize() {
+        return featureCacheSize;
+    }
+
+    public static void setFeatureCacheSize(int featureCacheSize) {
+        QuantitiesProperties.featureCacheSize = featureCacheSize;
+    }
+
+    /**
+     * Path of the binary snapshot of the unit lexicon, empty to load the lexicon from the JSON resources
+     */
+    public static String getLexiconSnapshot() {
+        return lexiconSnapshot;
+    }
+
+    public static void setLexiconSnapshot(String lexiconSnapshot) {
+        QuantitiesProperties.lexiconSnapshot = lexiconSnapshot;
+    }
+}
@@ -0,0 +1,148 @@
+package org.grobid.core.utilities;
+
+import org.apache.commons.lang3.StringUtils;
+import org.grobid.core.layout.LayoutToken;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Unicode normalisation of the text before the labelling, done once per segment.
+ * <p>
+ * The text made only of printable ASCII characters is left as it is by all the normalisations, it is returned
+ * without being copied. The token lists normalised here are marked with {@link #markNormalised(List)}, so that
+ * the parsers receiving them ({@link #isNormalised(List)}) do not normalise their tokens again.
+ */
+public class TextNormalizer {
+
+    public static final char MINUS_SIGN = '\u2212';
+
+    /**
+     * @return true when the text is null or contains only printable ASCII characters (space to tilde)
+     */
+    public static boolean isClean(String text) {
+        if (text == null) {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x20 || c > 0x7E) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link UnicodeUtil#normaliseText(String)}, the clean text is returned as it is
+     */
+    public static String normaliseText(String text) {
+        if (isClean(text)) {
+            return text;
+        }
+        return UnicodeUtil.normaliseText(text);
+    }
+
+    /**
+     * Normalisation of the tokens of the quantities model: unicode normalisation and the minus sign
+     * replaced by an hyphen
+     */
+    public static String normaliseToken(String text) {
+        if (isClean(text)) {
+            return text;
+        }
+        return UnicodeUtil.normaliseText(text).replace(MINUS_SIGN, '-');
+    }
+
+    /**
+     * Normalisation of the tokens extracted from a document: the new lines and the control characters
+     * (the code points of the unicode category C) are replaced by a space, then as {@link #normaliseToken(String)}
+     */
+    public static String normaliseAndCleanup(String text) {
+        if (isClean(text)) {
+            return text;
+        }
+        String normalised = StringUtils.replace(text, "\r\n", " ");
+        normalised = StringUtils.replace(normalised, "\n", " ");
+        normalised = UnicodeUtil.normaliseText(normalised);
+        return replaceControlCharacters(normalised).replace(MINUS_SIGN, '-');
+    }
+
+    /**
+     * Replace each code point of the category C (control, format, private use, surrogate and unassigned)
+     * by a space, as {@code text.replaceAll("\\p{C}", " ")} in a single pass
+     */
+    protected static String replaceControlCharacters(String text) {
+        StringBuilder builder = null;
+        int i = 0;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            int next = i + Character.charCount(codePoint);
+            if (isControl(codePoint)) {
+                if (builder == null) {
+                    builder = new StringBuilder(text.length());
+                    builder.append(text, 0, i);
+                }
+                builder.append(' ');
+            } else if (builder != null) {
+                builder.append(text, i, next);
+            }
+            i = next;
+        }
+        return builder == null ? text : builder.toString();
+    }
+
+    private static boolean isControl(int codePoint) {
+        switch (Character.getType(codePoint)) {
+            case Character.CONTROL:
+            case Character.FORMAT:
+            case Character.PRIVATE_USE:
+            case Character.SURROGATE:
+            case Character.UNASSIGNED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Normalise the text of the tokens in place with {@link #normaliseToken(String)}
+     *
+     * @return the tokens, marked as normalised
+     */
+    public static List<LayoutToken> normaliseTokens(List<LayoutToken> tokens) {
+        NormalisedTokens normalised = new NormalisedTokens(tokens.size());
+        for (LayoutToken token : tokens) {
+            token.setText(normaliseToken(token.getText()));
+            normalised.add(token);
+        }
+        return normalised;
+    }
+
+    /**
+     * @return the tokens in a list marked as normalised, to be used only when the text of all of them
+     * has gone through {@link #normaliseToken(String)} or {@link #normaliseAndCleanup(String)}
+     */
+    public static List<LayoutToken> markNormalised(List<LayoutToken> tokens) {
+        if (tokens instanceof NormalisedTokens) {
+            return tokens;
+        }
+        return new NormalisedTokens(tokens);
+    }
+
+    public static boolean isNormalised(List<LayoutToken> tokens) {
+        return tokens instanceof NormalisedTokens;
+    }
+
+    private static class NormalisedTokens extends ArrayList<LayoutToken> {
+
+        NormalisedTokens(int initialCapacity) {
+            super(initialCapacity);
+        }
+
+        NormalisedTokens(Collection<LayoutToken> tokens) {
+            super(tokens);
+        }
+    }
+}
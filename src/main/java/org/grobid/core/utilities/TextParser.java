@@ -16,6 +16,8 @@ import com.googlecode.clearnlp.reader.DEPReader;
 import com.googlecode.clearnlp.tokenization.AbstractTokenizer;
 import com.googlecode.clearnlp.util.UTInput;
 import com.googlecode.clearnlp.util.pair.Pair;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.grobid.core.data.Sentence;
@@ -31,9 +33,14 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 // this is for version 1.3.0 of ClearNLP
@@ -53,18 +60,29 @@ public class TextParser {
 
     private String modelPath = null;
 
-    // these are the ClearParser components
+    // these are the ClearParser components: the tokenizer and the morphological analyzer only rely on
+    // dictionaries that are not modified while processing, so they are shared by all the threads
     private AbstractTokenizer tokenizer = null;
     private AbstractMPAnalyzer analyzer = null;
-    private Pair<POSTagger[], Double> taggers = null;
-    private AbstractDEPParser parser = null;
-    private AbstractPredIdentifier predicater = null;
-    private AbstractSRLabeler labeler = null;
     private DEPReader depReader = null;
     private SentenceUtilities segmenter;
 
-    // this is for version 1.3.0 of ClearNLP
-    private CRolesetClassifier roleClassifier = null;
+    // the statistical components keep a state while processing a sentence, each thread takes a set of them from the pool
+    private String posModelFile;
+    private String depModelFile;
+    private String predModelFile;
+    private String labelModelFile;
+    private String roleClassifierModelFile;
+
+    // optional cache of the parses of the sentences recurring verbatim (boilerplate of experimental sections), indexed by a
+    // hash of the sentence and the parsing mode. The offsets in the parse are relative to the sentence, so it can be shared.
+    private final MeteredCache<HashCode, SentenceParse> parseCache =
+        new MeteredCache<HashCode, SentenceParse>("sentences.parses", QuantitiesProperties.getParseCacheSize())
+            .registerGauges("sentences.parses", SentenceParse::estimateMemoryFootprint);
+
+    private int poolSize;
+    private final AtomicInteger createdPipelines = new AtomicInteger(0);
+    private final BlockingQueue<Pipeline> pipelines = new LinkedBlockingQueue<>();
 
     public static TextParser getInstance() throws Exception {
         if (instance == null)
@@ -113,20 +131,95 @@ public class TextParser {
         throws Exception {
         tokenizer = EngineGetter.getTokenizer(language, dictionaryFile);
         analyzer = EngineGetter.getMPAnalyzer(language, dictionaryFile);
-        taggers = EngineGetter.getPOSTaggers(posModelFile);
-        parser = EngineGetter.getDEPParser(depModelFile);
-        predicater = EngineGetter.getPredIdentifier(predModelFile);
-        labeler = EngineGetter.getSRLabeler(labelModelFile);
 
-        // this is for version 1.3.0 of ClearNLP
-        FileInputStream is = new FileInputStream(new File(roleClassifierModelFile));
-        roleClassifier = (CRolesetClassifier) EngineGetter.getComponent(is, AbstractReader.LANG_EN, NLPLib.MODE_ROLE);
+        this.posModelFile = posModelFile;
+        this.depModelFile = depModelFile;
+        this.predModelFile = predModelFile;
+        this.labelModelFile = labelModelFile;
+        this.roleClassifierModelFile = roleClassifierModelFile;
+
+        // the first pipeline is loaded immediately, the others when the load requires them
+        poolSize = Math.max(QuantitiesProperties.getTextParserPoolSize(), 1);
+        createdPipelines.incrementAndGet();
+        pipelines.add(new Pipeline());
 
         depReader = new DEPReader(0, 1, 2, 3, 4, 5, 6);
 
         segmenter = SentenceUtilities.getInstance();
     }
 
+    /**
+     * The set of ClearNLP components that cannot be shared between threads
+     */
+    private class Pipeline {
+        private final Pair<POSTagger[], Double> taggers;
+        private final AbstractDEPParser parser;
+        private final AbstractPredIdentifier predicater;
+        private final AbstractSRLabeler labeler;
+
+        // this is for version 1.3.0 of ClearNLP
+        private final CRolesetClassifier roleClassifier;
+
+        private Pipeline() throws Exception {
+            LOGGER.info("Loading ClearNLP pipeline " + createdPipelines.get() + "/" + poolSize);
+            taggers = EngineGetter.getPOSTaggers(posModelFile);
+            parser = EngineGetter.getDEPParser(depModelFile);
+            predicater = EngineGetter.getPredIdentifier(predModelFile);
+            labeler = EngineGetter.getSRLabeler(labelModelFile);
+
+            try (FileInputStream is = new FileInputStream(new File(roleClassifierModelFile))) {
+                roleClassifier = (CRolesetClassifier) EngineGetter.getComponent(is, AbstractReader.LANG_EN, NLPLib.MODE_ROLE);
+            }
+        }
+
+        private DEPTree parse(String sentence, boolean withSRL) {
+            //DEPTree tree = EngineProcess.getDEPTree(taggers, analyzer, parser, predicater, labeler, tokens);
+            DEPTree tree = EngineProcess.getDEPTree(tokenizer, taggers, analyzer, parser, sentence);
+            if (withSRL) {
+                EngineProcess.predictSRL(predicater, roleClassifier, labeler, tree);
+            } else {
+                // empty semantic heads, so that the SRL representation keeps the same columns
+                tree.initSHeads();
+            }
+            return tree;
+        }
+    }
+
+    /**
+     * Take a pipeline from the pool, a new one is loaded if all are in use and the pool is not full,
+     * otherwise wait until one is released.
+     */
+    private Pipeline acquirePipeline() {
+        Pipeline pipeline = pipelines.poll();
+        if (pipeline != null) {
+            return pipeline;
+        }
+
+        int created = createdPipelines.get();
+        while (created < poolSize) {
+            if (createdPipelines.compareAndSet(created, created + 1)) {
+                try {
+                    return new Pipeline();
+                } catch (Exception e) {
+                    createdPipelines.decrementAndGet();
+                    throw new GrobidException("Cannot load the ClearNLP models. ", e);
+                }
+            }
+            created = createdPipelines.get();
+        }
+
+        try {
+            return pipelines.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrobidException("Interrupted while waiting for a ClearNLP pipeline. ", e);
+        }
+    }
+
+    private void releasePipeline(Pipeline pipeline) {
+        pipelines.offer(pipeline);
+    }
+
     /**
      * Parsing of a sentence.
      *
@@ -135,30 +228,35 @@ public class TextParser {
      * as the n-best list of Parse object. If the CLEAR_PARSER is selected, only the
      * best parse is provided.
      */
-    public synchronized Sentence parse(String sentence) throws GrobidException {
+    public Sentence parse(String sentence) throws GrobidException {
         if (sentence == null) {
             throw new GrobidException("Sentence to be parsed is null.");
         } else if (sentence.length() == 0) {
             throw new GrobidException("Sentence to be parsed has a length of 0.");
         }
 
-        Sentence result = null;
-
-        List<SentenceParse> theResult = getSentenceParses(sentence);
-        result = new Sentence(sentence, theResult, new OffsetPosition(0, sentence.length()));
-
-        return result;
+        Pipeline pipeline = acquirePipeline();
+        try {
+            return new Sentence(sentence, getSentenceParses(pipeline, sentence, true), new OffsetPosition(0, sentence.length()));
+        } finally {
+            releasePipeline(pipeline);
+        }
     }
 
-    private List<SentenceParse> getSentenceParses(String sentence) {
-        DEPTree tree = EngineProcess.getDEPTree(tokenizer, taggers,
-            //analyzer, parser, predicater, labeler, sentence);
-            analyzer, parser, sentence);
-        EngineProcess.predictSRL(predicater, roleClassifier, labeler, tree);
-        // we only have the top parse with the ClearParser, no n-best ! and no score.
-        SentenceParse parse = new SentenceParse();
-        parse.setParseRepresentation(tree.toStringSRL());
-        parse.createMap(sentence);
+    private List<SentenceParse> getSentenceParses(Pipeline pipeline, String sentence, boolean withSRL) {
+        HashCode key = Hashing.murmur3_128().newHasher()
+            .putBoolean(withSRL)
+            .putString(sentence, StandardCharsets.UTF_8)
+            .hash();
+
+        SentenceParse parse = parseCache.getIfPresent(key);
+        if (parse == null) {
+            DEPTree tree = pipeline.parse(sentence, withSRL);
+            // we only have the top parse with the ClearParser, no n-best ! and no score.
+            parse = SentenceParse.fromTree(tree, sentence);
+            parseCache.put(key, parse);
+        }
+
         List<SentenceParse> theResult = new ArrayList<>();
         theResult.add(parse);
         return theResult;
@@ -174,7 +272,20 @@ public class TextParser {
      * semantic role labeling) as the n-best list of Parse object. If the CLEAR_PARSER is
      * selected, only the best parse is provided in the list.
      */
-    public synchronized List<Sentence> parseText(String text, List<OffsetPosition> measurementOffsets) throws GrobidException {
+    public List<Sentence> parseText(String text, List<OffsetPosition> measurementOffsets) throws GrobidException {
+        return parseText(text, measurementOffsets, QuantitiesProperties.isParseOnlyMeasurementSentences());
+    }
+
+    /**
+     * Parsing of some raw text.
+     *
+     * @param onlyMeasurementSentences if true, the text is first segmented and only the sentences containing
+     *                                 a measurement are parsed, without semantic role labelling (which is not
+     *                                 used for attaching the quantified objects). Otherwise, every sentence is parsed
+     *                                 with the full pipeline.
+     * @see #parseText(String, List)
+     */
+    public List<Sentence> parseText(String text, List<OffsetPosition> measurementOffsets, boolean onlyMeasurementSentences) throws GrobidException {
         if (text == null) {
             throw new GrobidException("Cannot parse the sentence, because it is null.");
         } else if (StringUtils.isEmpty(text)) {
@@ -188,31 +299,46 @@ public class TextParser {
         if (CollectionUtils.isEmpty(sentences)) {
             // there is some text but not in a state so that a sentence at least can be
             // identified by the sentence segmenter, so we parse it as a single sentence
-            Sentence pack = parse(text);
-            //ProcessedSentence pack = new ProcessedSentence(text, null, null, theResult);
-            results.add(pack);
-            return results;
+            sentences = Collections.singletonList(new OffsetPosition(0, text.length()));
         }
 
-        for (OffsetPosition sentencePosition : sentences) {
-            String sentence = text.substring(sentencePosition.start, sentencePosition.end);
-            //DEPTree tree = EngineProcess.getDEPTree(taggers, analyzer, parser, predicater, labeler, tokens);                  
-            DEPTree tree = EngineProcess.getDEPTree(tokenizer, taggers, analyzer, parser, sentence);
-            EngineProcess.predictSRL(predicater, roleClassifier, labeler, tree);
-            // we only have the top parse with the ClearParser, no n-best !
-            SentenceParse parse = new SentenceParse();
-            parse.setParseRepresentation(tree.toStringSRL());
-            //System.out.println(tree.toStringSRL());
-            List<SentenceParse> parses = new ArrayList<>();
-            parses.add(parse);
-            parse.createMap(sentence);
-            Sentence pack = new Sentence(sentence, parses, sentencePosition);
-            results.add(pack);
+        if (onlyMeasurementSentences) {
+            sentences = sentences.stream()
+                .filter(sentence -> containsMeasurement(sentence, measurementOffsets))
+                .collect(Collectors.toList());
+            if (sentences.isEmpty()) {
+                return results;
+            }
+        }
+
+        Pipeline pipeline = acquirePipeline();
+        try {
+            for (OffsetPosition sentencePosition : sentences) {
+                String sentence = text.substring(sentencePosition.start, sentencePosition.end);
+                // we only have the top parse with the ClearParser, no n-best !
+                List<SentenceParse> parses = getSentenceParses(pipeline, sentence, !onlyMeasurementSentences);
+                Sentence pack = new Sentence(sentence, parses, sentencePosition);
+                results.add(pack);
+            }
+        } finally {
+            releasePipeline(pipeline);
         }
 
         return results;
     }
 
+    /**
+     * @return true if one of the measurements overlaps the sentence (end offsets excluded), or if no measurement
+     * offsets are given
+     */
+    static boolean containsMeasurement(OffsetPosition sentence, List<OffsetPosition> measurementOffsets) {
+        if (measurementOffsets == null) {
+            return true;
+        }
+        return measurementOffsets.stream()
+            .anyMatch(measurement -> measurement.start < sentence.end && measurement.end > sentence.start);
+    }
+
     /**
      * Parsing text coming from a BufferedReader object.
      *
@@ -227,13 +353,17 @@ public class TextParser {
 
         List<OffsetPosition> sentences = segmenter.runSentenceDetection(text);
 
-        for (OffsetPosition sentencePosition : sentences) {
-            String sentence = text.substring(sentencePosition.start, sentencePosition.end);
-            //DEPTree tree = EngineProcess.getDEPTree(taggers, analyzer, parser, predicater, labeler, tokens);
-            List<SentenceParse> parses = getSentenceParses(sentence);
-            // To be reviewed! this is not exactly the original sentence, but not so important for the moment
-            Sentence pack = new Sentence(sentence, parses, null);
-            results.add(pack);
+        Pipeline pipeline = acquirePipeline();
+        try {
+            for (OffsetPosition sentencePosition : sentences) {
+                String sentence = text.substring(sentencePosition.start, sentencePosition.end);
+                List<SentenceParse> parses = getSentenceParses(pipeline, sentence, true);
+                // To be reviewed! this is not exactly the original sentence, but not so important for the moment
+                Sentence pack = new Sentence(sentence, parses, null);
+                results.add(pack);
+            }
+        } finally {
+            releasePipeline(pipeline);
         }
 
         return results;
@@ -6,6 +6,7 @@ import jakarta.inject.Singleton;
 import org.grobid.core.main.GrobidHomeFinder;
 import org.grobid.core.main.LibraryLoader;
 import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.QuantitiesProperties;
 import org.grobid.service.configuration.GrobidQuantitiesConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +24,28 @@ public class GrobidEngineInitialiser {
         GrobidProperties.getInstance(grobidHomeFinder);
         GrobidProperties.setContextExecutionServer(true);
         configuration.getModels().stream().forEach(GrobidProperties::addModel);
-        
+
+        QuantitiesProperties.setUnitCacheSize(configuration.getUnitCacheSize());
+        QuantitiesProperties.setTextParserPoolSize(configuration.getTextParserPoolSize());
+        QuantitiesProperties.setParseOnlyMeasurementSentences(configuration.isParseOnlyMeasurementSentences());
+        QuantitiesProperties.setParseCacheSize(configuration.getParseCacheSize());
+        QuantitiesProperties.setEnginePoolSize(configuration.getEnginePoolSize());
+        QuantitiesProperties.setEnginePoolMaxWaitMillis(configuration.getEnginePoolMaxWait() * 1000);
+        QuantitiesProperties.setEnginePoolIdleTimeoutMillis(configuration.getEnginePoolIdleTimeout() * 1000);
+        QuantitiesProperties.setWapitiJvmDecoder(configuration.isWapitiJvmDecoder());
+        QuantitiesProperties.setLabellingBatchWindowMillis(configuration.getLabellingBatchWindow());
+        QuantitiesProperties.setLabellingBatchMaxSize(configuration.getLabellingBatchMaxSize());
+        if (configuration.getLabellingBuckets() != null) {
+            QuantitiesProperties.setLabellingBuckets(configuration.getLabellingBuckets().stream()
+                .mapToInt(Integer::intValue).sorted().toArray());
+        }
+        QuantitiesProperties.setTextChunkSize(configuration.getTextChunkSize());
+        QuantitiesProperties.setTextChunkParallelism(configuration.getTextChunkParallelism());
+        QuantitiesProperties.setPdfSectionParallelism(configuration.getPdfSectionParallelism());
+        QuantitiesProperties.setMeasurementPrefilter(configuration.isMeasurementPrefilter());
+        QuantitiesProperties.setFeatureCacheSize(configuration.getFeatureCacheSize());
+        QuantitiesProperties.setLexiconSnapshot(configuration.getLexiconSnapshot());
+
         LibraryLoader.load();
     }
 }
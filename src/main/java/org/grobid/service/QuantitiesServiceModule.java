@@ -1,10 +1,13 @@
 package org.grobid.service;
 
 import com.google.inject.Provides;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import org.grobid.core.engines.QuantitiesEngine;
 import org.grobid.core.engines.QuantityParser;
+import org.grobid.core.engines.QuantityParserPool;
+import org.grobid.core.utilities.QuantitiesMetrics;
 import org.grobid.service.configuration.GrobidQuantitiesConfiguration;
 import org.grobid.service.controller.AnnotationController;
 import org.grobid.service.controller.HealthCheck;
@@ -19,6 +22,9 @@ public class QuantitiesServiceModule extends DropwizardAwareModule<GrobidQuantit
 
     @Override
     public void configure() {
+        // core metrics (caches, ...) are exposed with the ones of the service
+        QuantitiesMetrics.setRegistry(environment().metrics());
+
         // -- Generic modules --
         bind(GrobidEngineInitialiser.class);
         bind(HealthCheck.class);
@@ -52,6 +58,16 @@ public class QuantitiesServiceModule extends DropwizardAwareModule<GrobidQuantit
         return getEnvironment().metrics();
     }*/
 
+    @Provides
+    @Singleton
+    QuantityParserPool provideQuantityParserPool() {
+        GrobidQuantitiesConfiguration configuration = configuration();
+        return new QuantityParserPool(configuration.getEnginePoolSize(),
+            configuration.getEnginePoolMaxWait() * 1000,
+            configuration.getEnginePoolIdleTimeout() * 1000,
+            environment().metrics());
+    }
+
     @Provides
     Client provideClient() {
         return ClientBuilder.newClient();
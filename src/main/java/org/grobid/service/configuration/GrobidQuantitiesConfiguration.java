@@ -5,6 +5,7 @@ import io.dropwizard.core.Configuration;
 import org.apache.commons.io.IOUtils;
 import org.grobid.core.utilities.GrobidConfig;
 import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.QuantitiesProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +42,40 @@ public class GrobidQuantitiesConfiguration extends Configuration {
 
     private String cleanlpModelPath = "resources/cleanlp/models";
 
+    private int unitCacheSize = QuantitiesProperties.DEFAULT_UNIT_CACHE_SIZE;
+
+    private int textParserPoolSize = QuantitiesProperties.DEFAULT_TEXT_PARSER_POOL_SIZE;
+
+    private boolean parseOnlyMeasurementSentences = true;
+
+    private int parseCacheSize = 0;
+
+    private int enginePoolSize = 0;
+
+    private long enginePoolMaxWait = QuantitiesProperties.DEFAULT_ENGINE_POOL_MAX_WAIT_MILLIS / 1000;
+
+    private long enginePoolIdleTimeout = QuantitiesProperties.DEFAULT_ENGINE_POOL_IDLE_TIMEOUT_MILLIS / 1000;
+
+    private boolean wapitiJvmDecoder = false;
+
+    private long labellingBatchWindow = 0;
+
+    private int labellingBatchMaxSize = QuantitiesProperties.DEFAULT_LABELLING_BATCH_MAX_SIZE;
+
+    private List<Integer> labellingBuckets = new ArrayList<>();
+
+    private int textChunkSize = 0;
+
+    private int textChunkParallelism = 0;
+
+    private int pdfSectionParallelism = 1;
+
+    private boolean measurementPrefilter = false;
+
+    private int featureCacheSize = QuantitiesProperties.DEFAULT_FEATURE_CACHE_SIZE;
+
+    private String lexiconSnapshot = "";
+
     public String getGrobidHome() {
         return grobidHome;
     }
@@ -129,4 +164,149 @@ public class GrobidQuantitiesConfiguration extends Configuration {
     public void setCleanlpModelPath(String cleanlpModelPath) {
         this.cleanlpModelPath = cleanlpModelPath;
     }
+
+    public int getUnitCacheSize() {
+        return unitCacheSize;
+    }
+
+    public void setUnitCacheSize(int unitCacheSize) {
+        this.unitCacheSize = unitCacheSize;
+    }
+
+    public int getTextParserPoolSize() {
+        return textParserPoolSize;
+    }
+
+    public void setTextParserPoolSize(int textParserPoolSize) {
+        this.textParserPoolSize = textParserPoolSize;
+    }
+
+    public boolean isParseOnlyMeasurementSentences() {
+        return parseOnlyMeasurementSentences;
+    }
+
+    public void setParseOnlyMeasurementSentences(boolean parseOnlyMeasurementSentences) {
+        this.parseOnlyMeasurementSentences = parseOnlyMeasurementSentences;
+    }
+
+    public int getParseCacheSize() {
+        return parseCacheSize;
+    }
+
+    public void setParseCacheSize(int parseCacheSize) {
+        this.parseCacheSize = parseCacheSize;
+    }
+
+    public int getEnginePoolSize() {
+        return enginePoolSize;
+    }
+
+    public void setEnginePoolSize(int enginePoolSize) {
+        this.enginePoolSize = enginePoolSize;
+    }
+
+    /**
+     * In seconds
+     */
+    public long getEnginePoolMaxWait() {
+        return enginePoolMaxWait;
+    }
+
+    public void setEnginePoolMaxWait(long enginePoolMaxWait) {
+        this.enginePoolMaxWait = enginePoolMaxWait;
+    }
+
+    /**
+     * In seconds
+     */
+    public long getEnginePoolIdleTimeout() {
+        return enginePoolIdleTimeout;
+    }
+
+    public void setEnginePoolIdleTimeout(long enginePoolIdleTimeout) {
+        this.enginePoolIdleTimeout = enginePoolIdleTimeout;
+    }
+
+    public boolean isWapitiJvmDecoder() {
+        return wapitiJvmDecoder;
+    }
+
+    public void setWapitiJvmDecoder(boolean wapitiJvmDecoder) {
+        this.wapitiJvmDecoder = wapitiJvmDecoder;
+    }
+
+    /**
+     * In milliseconds
+     */
+    public long getLabellingBatchWindow() {
+        return labellingBatchWindow;
+    }
+
+    public void setLabellingBatchWindow(long labellingBatchWindow) {
+        this.labellingBatchWindow = labellingBatchWindow;
+    }
+
+    public int getLabellingBatchMaxSize() {
+        return labellingBatchMaxSize;
+    }
+
+    public void setLabellingBatchMaxSize(int labellingBatchMaxSize) {
+        this.labellingBatchMaxSize = labellingBatchMaxSize;
+    }
+
+    public List<Integer> getLabellingBuckets() {
+        return labellingBuckets;
+    }
+
+    public void setLabellingBuckets(List<Integer> labellingBuckets) {
+        this.labellingBuckets = labellingBuckets;
+    }
+
+    public int getTextChunkSize() {
+        return textChunkSize;
+    }
+
+    public void setTextChunkSize(int textChunkSize) {
+        this.textChunkSize = textChunkSize;
+    }
+
+    public int getTextChunkParallelism() {
+        return textChunkParallelism;
+    }
+
+    public void setTextChunkParallelism(int textChunkParallelism) {
+        this.textChunkParallelism = textChunkParallelism;
+    }
+
+    public int getPdfSectionParallelism() {
+        return pdfSectionParallelism;
+    }
+
+    public void setPdfSectionParallelism(int pdfSectionParallelism) {
+        this.pdfSectionParallelism = pdfSectionParallelism;
+    }
+
+    public boolean isMeasurementPrefilter() {
+        return measurementPrefilter;
+    }
+
+    public void setMeasurementPrefilter(boolean measurementPrefilter) {
+        this.measurementPrefilter = measurementPrefilter;
+    }
+
+    public int getFeatureCacheSize() {
+        return featureCacheSize;
+    }
+
+    public void setFeatureCacheSize(int featureCacheSize) {
+        this.featureCacheSize = featureCacheSize;
+    }
+
+    public String getLexiconSnapshot() {
+        return lexiconSnapshot;
+    }
+
+    public void setLexiconSnapshot(String lexiconSnapshot) {
+        this.lexiconSnapshot = lexiconSnapshot;
+    }
 }
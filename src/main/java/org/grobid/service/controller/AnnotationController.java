@@ -6,12 +6,15 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
+import org.grobid.core.data.BatchMeasurementsResponse;
 import org.grobid.core.data.MeasurementsResponse;
 import org.grobid.core.data.ServiceInfo;
 import org.grobid.core.data.UnitBlock;
+import org.grobid.core.engines.PdfProcessingMode;
 import org.grobid.core.engines.QuantitiesEngine;
 import org.grobid.core.engines.QuantityParser;
 import org.grobid.service.configuration.GrobidQuantitiesConfiguration;
+import org.grobid.service.exceptions.GrobidServiceException;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -25,6 +28,7 @@ public class AnnotationController {
     private static final String PATH_IS_ALIVE = "isalive";
 
     private static final String PATH_QUANTITY_TEXT = "processQuantityText";
+    private static final String PATH_QUANTITY_TEXT_BATCH = "processQuantityTextBatch";
     private static final String PATH_UNITS_TEXT = "processUnitsText";
     private static final String PATH_QUANTITY_XML = "processQuantityXML";
     private static final String PATH_ANNOTATE_QUANTITY_PDF = "annotateQuantityPDF";
@@ -76,8 +80,14 @@ public class AnnotationController {
     @Produces(MediaType.APPLICATION_JSON)
     @POST
     public String processPDF(@FormDataParam("input") InputStream uploadedInputStream,
-                             @FormDataParam("input") FormDataContentDisposition fileDetail) {
-        MeasurementsResponse response = engine.processPdf(uploadedInputStream);
+                             @FormDataParam("input") FormDataContentDisposition fileDetail,
+                             @FormDataParam("mode") String mode) {
+        PdfProcessingMode processingMode = PdfProcessingMode.fromName(mode);
+        if (processingMode == null) {
+            throw new GrobidServiceException("Unknown processing mode " + mode + ", expected full, segmentation or layout",
+                Response.Status.BAD_REQUEST);
+        }
+        MeasurementsResponse response = engine.processPdf(uploadedInputStream, processingMode);
         return response.toJson();
     }
 
@@ -92,6 +102,17 @@ public class AnnotationController {
         return response.toJson();
     }
 
+    @Path(PATH_QUANTITY_TEXT_BATCH)
+    @Consumes({MediaType.APPLICATION_JSON, "application/x-ndjson", MediaType.TEXT_PLAIN})
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public String processTextBatch(String input) {
+
+        BatchMeasurementsResponse response = engine.processTextBatch(input);
+
+        return response.toJson();
+    }
+
     @Path(PATH_PARSE_MEASURE)
     @Produces(MediaType.APPLICATION_JSON + ";charset=utf-8")
     @POST
@@ -1,11 +1,17 @@
 package org.grobid.core.analyzers;
 
+import org.apache.commons.io.IOUtils;
 import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.utilities.LayoutTokensUtil;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.StringTokenizer;
 
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
@@ -76,4 +82,71 @@ public class QuantityAnalyzerTest {
         assertThat(tokens.get(10).getText(), is("0"));
     }
 
-}
\ No newline at end of file
+    /**
+     * Tokenisation with a StringTokenizer and a regular expression, replaced by the single pass scanner
+     */
+    private static List<String> legacyTokenize(String text) {
+        List<String> result = new ArrayList<>();
+        StringTokenizer st = new StringTokenizer(text, QuantityAnalyzer.DELIMITERS, true);
+        while (st.hasMoreTokens()) {
+            result.addAll(Arrays.asList(st.nextToken().split("(?<=[a-zA-Z])(?=\\d)|(?<=\\d)(?=\\D)")));
+        }
+        return result;
+    }
+
+    private void assertSameAsLegacy(String text) {
+        List<String> expected = legacyTokenize(text);
+
+        assertThat(target.tokenize(text), is(expected));
+
+        List<LayoutToken> layoutTokens = target.tokenizeWithLayoutToken(text);
+        int offset = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(layoutTokens.get(i).getText(), is(expected.get(i)));
+            assertThat(layoutTokens.get(i).getOffset(), is(offset));
+            offset += expected.get(i).length();
+        }
+        assertThat(layoutTokens, hasSize(expected.size()));
+    }
+
+    @Test
+    public void testTokenize_corpus_shouldMatchLegacyTokenizer() throws Exception {
+        String[] resources = {"/test0.training.txt", "/test1.txt", "/test2.txt", "/test3.txt", "/test4.txt",
+            "/org/grobid/trainer/text.example.txt",
+            "/org/grobid/trainer/sax/trainingdata.sample.values.1.xml",
+            "/org/grobid/trainer/sax/trainingdata.sample.units.1.xml",
+            "/org/grobid/trainer/sax/trainingdata.sample.units.2.xml"};
+
+        for (String resource : resources) {
+            assertSameAsLegacy(IOUtils.toString(getClass().getResourceAsStream(resource), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testTokenize_randomText_shouldMatchLegacyTokenizer() throws Exception {
+        String alphabet = "aZk9 0.5,m²µ°±%‰\n\t\u00A0-–−×/(][)é٣½" + QuantityAnalyzer.DELIMITERS + "\uD835\uDC00";
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertSameAsLegacy(text.toString());
+        }
+    }
+
+    @Test
+    public void testTokenizeLayoutToken_shouldShiftOffsets() throws Exception {
+        LayoutToken chunk = new LayoutToken("1m74");
+        chunk.setOffset(10);
+
+        List<LayoutToken> tokens = target.tokenize(chunk, 10);
+
+        assertThat(tokens, hasSize(3));
+        assertThat(tokens.get(1).getText(), is("m"));
+        assertThat(tokens.get(1).getOffset(), is(11));
+        assertThat(tokens.get(2).getOffset(), is(12));
+    }
+}
@@ -0,0 +1,56 @@
+package org.grobid.core.analyzers;
+
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.UnicodeUtil;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+public class UnitCharacterSequenceTest {
+
+    @Test
+    public void testToLayoutTokens_shouldKeepOffsetsOfRepeatedCharacters() throws Exception {
+        UnitCharacterSequence target = new UnitCharacterSequence("m/m", 5);
+
+        List<LayoutToken> tokens = target.toLayoutTokens();
+
+        assertThat(tokens, hasSize(3));
+        assertThat(tokens.get(2).getText(), is("m"));
+        assertThat(tokens.get(2).getOffset(), is(7));
+    }
+
+    @Test
+    public void testGetToken_latinCharacter_shouldBeShared() throws Exception {
+        UnitCharacterSequence target = new UnitCharacterSequence("kg·m");
+
+        assertThat(target.getToken(0), is(sameInstance(new UnitCharacterSequence("k").getToken(0))));
+        assertThat(target.getToken(2), is("·"));
+    }
+
+    @Test
+    public void testIsBlank_shouldMatchOnlyWhitespaces() throws Exception {
+        UnitCharacterSequence target = new UnitCharacterSequence("km / s");
+
+        assertThat(target.isBlank(2), is(true));
+        assertThat(target.isBlank(3), is(false));
+    }
+
+    @Test
+    public void testByCharacter_normalisedText_shouldMatchAnalyzerTokenisation() throws Exception {
+        String text = UnicodeUtil.normaliseText("µmol·L−1 s");
+        List<LayoutToken> expected = QuantityAnalyzer.getInstance().tokenizeWithLayoutTokenByCharacter(text);
+
+        List<LayoutToken> tokens = new UnitCharacterSequence(text).toLayoutTokens();
+
+        assertThat(tokens, hasSize(expected.size()));
+        for (int i = 0; i < tokens.size(); i++) {
+            assertThat(tokens.get(i).getText(), is(expected.get(i).getText()));
+            assertThat(tokens.get(i).getOffset(), is(expected.get(i).getOffset()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.grobid.core.data;
+
+import com.googlecode.clearnlp.dependency.DEPFeat;
+import com.googlecode.clearnlp.dependency.DEPNode;
+import com.googlecode.clearnlp.dependency.DEPTree;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SentenceParseTest {
+
+    private static final String TEXT = "The mass is 10 kg.";
+
+    private static DEPTree tree() {
+        DEPTree tree = new DEPTree();
+        DEPNode the = new DEPNode(1, "The", "the", "DT", new DEPFeat());
+        DEPNode mass = new DEPNode(2, "mass", "mass", "NN", new DEPFeat());
+        DEPNode is = new DEPNode(3, "is", "be", "VBZ", new DEPFeat());
+        DEPNode ten = new DEPNode(4, "10", "0", "CD", new DEPFeat());
+        DEPNode kg = new DEPNode(5, "kg", "kg", "NN", new DEPFeat());
+        DEPNode dot = new DEPNode(6, ".", ".", ".", new DEPFeat());
+        tree.add(the);
+        tree.add(mass);
+        tree.add(is);
+        tree.add(ten);
+        tree.add(kg);
+        tree.add(dot);
+
+        the.setHead(mass, "det");
+        mass.setHead(is, "nsubj");
+        is.setHead(tree.get(0), "root");
+        ten.setHead(kg, "num");
+        kg.setHead(is, "attr");
+        dot.setHead(is, "punct");
+        tree.initXHeads();
+        tree.initSHeads();
+        return tree;
+    }
+
+    @Test
+    public void testFromTree_shouldBeSameAsTabulatedRepresentation() throws Exception {
+        DEPTree tree = tree();
+        SentenceParse expected = new SentenceParse(tree.toStringSRL(), 0.0, 0.0);
+        expected.createMap(TEXT);
+
+        SentenceParse parse = SentenceParse.fromTree(tree, TEXT);
+
+        assertThat(parse.getTokenCount(), is(expected.getTokenCount()));
+        for (int i = 1; i <= expected.getTokenCount(); i++) {
+            assertThat(parse.getForm(i), is(expected.getForm(i)));
+            assertThat(parse.getLemma(i), is(expected.getLemma(i)));
+            assertThat(parse.getPosTag(i), is(expected.getPosTag(i)));
+            assertThat(parse.getHead(i), is(expected.getHead(i)));
+            assertThat(parse.getFunction(i), is(expected.getFunction(i)));
+            assertThat(parse.getOffsetStart(i), is(expected.getOffsetStart(i)));
+            assertThat(parse.getOffsetEnd(i), is(expected.getOffsetEnd(i)));
+            assertThat(parse.isComplete(i), is(expected.isComplete(i)));
+        }
+        for (int i = 0; i <= expected.getTokenCount(); i++) {
+            assertThat(parse.getChildCount(i), is(expected.getChildCount(i)));
+            for (int c = 0; c < expected.getChildCount(i); c++) {
+                assertThat(parse.getChild(i, c), is(expected.getChild(i, c)));
+            }
+        }
+        for (int position = 0; position <= TEXT.length(); position++) {
+            assertThat(parse.getTokenAtPosition(position), is(expected.getTokenAtPosition(position)));
+        }
+
+        assertThat(parse.getTokenStructureByIndex("5"), is(expected.getTokenStructureByIndex("5")));
+        assertThat(parse.getParseRepresentation(), is(expected.getParseRepresentation()));
+    }
+
+    @Test
+    public void testGetFunction_moreThan256Functions_shouldKeepEachFunction() throws Exception {
+        StringBuilder rep = new StringBuilder();
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= 300; i++) {
+            rep.append(i).append("\tw").append(i).append("\tw\tNN\t_\t0\tfunction-").append(i).append("\t_\n");
+            text.append("w").append(i).append(" ");
+        }
+        SentenceParse parse = new SentenceParse(rep.toString(), 0.0, 0.0);
+
+        parse.createMap(text.toString());
+
+        for (int i = 1; i <= 300; i++) {
+            assertThat(parse.getFunction(i), is("function-" + i));
+        }
+    }
+}
@@ -273,4 +273,43 @@ public class QuantityNormalizerIntegrationTest {
 
 //        target.tryParsing(parsedUnit, );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testResolveUnit_sameUnitTwice_shouldBeResolvedOnce() throws Exception {
+        Unit parsedUnit = new Unit("km");
+        parsedUnit.setProductBlocks(Arrays.asList(new UnitBlock("k", "m", null)));
+
+        QuantityNormalizer.ResolvedUnit first = target.resolveUnit(parsedUnit);
+        QuantityNormalizer.ResolvedUnit second = target.resolveUnit(parsedUnit);
+
+        assertThat(second == first, is(true));
+        assertThat(first.getSystemUnitName(), is("m"));
+    }
+
+    @Test
+    public void testResolveUnit_sameRawNameWithOtherBlocks_shouldNotBeResolvedFromCache() throws Exception {
+        Unit parsedUnit = new Unit("unknown");
+        parsedUnit.setProductBlocks(Arrays.asList(new UnitBlock("k", "m", null)));
+        Unit otherParsedUnit = new Unit("unknown");
+        otherParsedUnit.setProductBlocks(Arrays.asList(new UnitBlock("k", "g", null)));
+
+        QuantityNormalizer.ResolvedUnit first = target.resolveUnit(parsedUnit);
+        QuantityNormalizer.ResolvedUnit second = target.resolveUnit(otherParsedUnit);
+
+        assertThat(first.getSystemUnitName(), is("m"));
+        assertThat(second.getSystemUnitName(), is("kg"));
+    }
+
+    @Test(expected = NormalizationException.class)
+    public void testResolveUnit_unparseableUnit_shouldFailAgainFromCache() throws Exception {
+        Unit parsedUnit = new Unit("blabla");
+        parsedUnit.setProductBlocks(Arrays.asList(new UnitBlock("blabla")));
+
+        try {
+            target.resolveUnit(parsedUnit);
+        } catch (NormalizationException e) {
+            // expected, the second call fails from the negative entry
+        }
+        target.resolveUnit(parsedUnit);
+    }
+}
@@ -1,6 +1,9 @@
 package org.grobid.core.data.normalization;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.grobid.core.data.Unit;
 import org.grobid.core.data.UnitBlock;
+import org.grobid.core.data.UnitDefinition;
 import org.grobid.core.engines.UnitParser;
 import org.grobid.core.lexicon.QuantityLexicon;
 import org.junit.Before;
@@ -8,7 +11,9 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.easymock.EasyMock.*;
 import static org.hamcrest.CoreMatchers.is;
@@ -226,4 +231,57 @@ public class UnitNormalizerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testTagUnits_shouldTagEachDistinctUnitOnce() throws Exception {
+        expect(mockQuantityLexicon.getNameByInflection("mg")).andReturn(null);
+        expect(mockQuantityLexicon.getNameByInflection("meters")).andReturn("m");
+        expect(mockUnitParser.tagUnits(Arrays.asList(Pair.of("mg", false), Pair.of("m", false))))
+            .andReturn(Arrays.asList(Arrays.asList(new UnitBlock("m", "g", null)), Arrays.asList(new UnitBlock("m"))));
+
+        replay(mockQuantityLexicon, mockUnitParser);
+        Map<Pair<String, Boolean>, List<UnitBlock>> taggedUnits = target.tagUnits(
+            Arrays.asList(new Unit("mg"), new Unit("meters"), new Unit("mg")));
+        verify(mockQuantityLexicon, mockUnitParser);
+
+        assertThat(taggedUnits.size(), is(2));
+        assertThat(taggedUnits.get(Pair.of("mg", false)).get(0).toString(), is("mg"));
+        assertThat(taggedUnits.get(Pair.of("meters", false)).get(0).toString(), is("m"));
+    }
+
+    @Test
+    public void testParseToProduct_preTagged_shouldNotCallTheParserAndCopyTheBlocks() throws Exception {
+        UnitBlock block = new UnitBlock("m", "g", null);
+        Map<Pair<String, Boolean>, List<UnitBlock>> taggedUnits = new HashMap<>();
+        taggedUnits.put(Pair.of("mg", false), Arrays.asList(block));
+
+        expect(mockQuantityLexicon.getNameByInflection("mg")).andReturn(null);
+
+        replay(mockQuantityLexicon, mockUnitParser);
+        List<UnitBlock> reformatted = target.parseToProduct("mg", false, taggedUnits);
+        verify(mockQuantityLexicon, mockUnitParser);
+
+        assertThat(reformatted, hasSize(1));
+        assertThat(reformatted.get(0).toString(), is("mg"));
+        assertThat(reformatted.get(0) == block, is(false));
+    }
+
+    @Test
+    public void testParseUnit_sameUnitTwice_shouldParseOnceAndReturnCopies() throws Exception {
+        expect(mockQuantityLexicon.getNameByInflection("mg")).andReturn(null);
+        expect(mockUnitParser.tagUnit("mg", false)).andReturn(Arrays.asList(new UnitBlock("m", "g", null)));
+        final UnitDefinition definition = new UnitDefinition();
+        expect(mockQuantityLexicon.getUnitByNotation("mg")).andReturn(definition);
+
+        replay(mockQuantityLexicon, mockUnitParser);
+        Unit first = target.parseUnit(new Unit("mg", 10, 12));
+        Unit second = target.parseUnit(new Unit("mg", 20, 22));
+        verify(mockQuantityLexicon, mockUnitParser);
+
+        assertThat(second.getRawName(), is("mg"));
+        assertThat(second.getUnitDefinition(), is(definition));
+        assertThat(second.getOffsetStart(), is(20));
+        assertThat(second.getOffsetEnd(), is(22));
+        assertThat(second.getProductBlocks().get(0) == first.getProductBlocks().get(0), is(false));
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.grobid.core.engines;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PdfProcessingModeTest {
+
+    @Test
+    public void testFromName_blank_shouldReturnFull() throws Exception {
+        assertThat(PdfProcessingMode.fromName(null), is(PdfProcessingMode.FULL));
+        assertThat(PdfProcessingMode.fromName(""), is(PdfProcessingMode.FULL));
+        assertThat(PdfProcessingMode.fromName("  "), is(PdfProcessingMode.FULL));
+    }
+
+    @Test
+    public void testFromName_caseInsensitive_shouldReturnTheMode() throws Exception {
+        assertThat(PdfProcessingMode.fromName("layout"), is(PdfProcessingMode.LAYOUT));
+        assertThat(PdfProcessingMode.fromName("Segmentation"), is(PdfProcessingMode.SEGMENTATION));
+        assertThat(PdfProcessingMode.fromName(" FULL "), is(PdfProcessingMode.FULL));
+    }
+
+    @Test
+    public void testFromName_unknown_shouldReturnNull() throws Exception {
+        assertThat(PdfProcessingMode.fromName("header"), is(nullValue()));
+    }
+}
@@ -0,0 +1,46 @@
+package org.grobid.core.engines;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.pool.BasePoolableObjectFactory;
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class QuantityParserPoolTest {
+
+    private static class MockFactory extends BasePoolableObjectFactory<QuantityParser> {
+        int created = 0;
+
+        @Override
+        public QuantityParser makeObject() {
+            created++;
+            return EasyMock.createMock(QuantityParser.class);
+        }
+    }
+
+    @Test
+    public void testBorrow_afterRelease_shouldReuseInstance() throws Exception {
+        MockFactory factory = new MockFactory();
+        QuantityParserPool target = new QuantityParserPool(factory, 2, 100, 0, new MetricRegistry());
+
+        QuantityParser first = target.borrow();
+        assertThat(target.getNumActive(), is(1));
+        target.release(first);
+
+        assertThat(target.borrow(), is(sameInstance(first)));
+        assertThat(factory.created, is(1));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testBorrow_poolExhausted_shouldTimeout() throws Exception {
+        QuantityParserPool target = new QuantityParserPool(new MockFactory(), 1, 50, 0, new MetricRegistry());
+
+        target.borrow();
+        target.borrow();
+    }
+}
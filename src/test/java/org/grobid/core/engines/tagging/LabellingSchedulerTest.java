@@ -0,0 +1,134 @@
+package org.grobid.core.engines.tagging;
+
+import com.codahale.metrics.MetricRegistry;
+import org.grobid.core.utilities.QuantitiesProperties;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+public class LabellingSchedulerTest {
+
+    private static String tag(String data) {
+        StringBuilder result = new StringBuilder();
+        for (String line : data.split("\n")) {
+            if (!line.trim().isEmpty()) {
+                result.append(line).append("\tL-").append(line).append("\n");
+            }
+        }
+        return result.toString();
+    }
+
+    private static List<String> labelConcurrently(LabellingScheduler target, Function<String, String> labeller,
+                                                  int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                String data = "a" + i + "\nb" + i + "\n";
+                futures.add(executor.submit(() -> target.label(data, labeller)));
+            }
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLabel_concurrentRequests_shouldBeBatched() throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        LabellingScheduler target = new LabellingScheduler("test", 200, 0, registry);
+        AtomicInteger calls = new AtomicInteger();
+
+        List<String> results = labelConcurrently(target, data -> {
+            calls.incrementAndGet();
+            return tag(data);
+        }, 8);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i), is("a" + i + "\tL-a" + i + "\nb" + i + "\tL-b" + i + "\n"));
+        }
+        assertThat(calls.get(), lessThan(8));
+        assertThat(registry.histogram("grobid-quantities.labelling.test.batch.size").getCount(), is((long) calls.get()));
+    }
+
+    @Test
+    public void testLabel_batchFailure_shouldLabelOneByOne() throws Exception {
+        LabellingScheduler target = new LabellingScheduler("test", 200, 0, new MetricRegistry());
+
+        List<String> results = labelConcurrently(target, data -> {
+            if (data.contains("\n\n")) {
+                throw new IllegalStateException("multi-sequence input not supported");
+            }
+            return tag(data);
+        }, 4);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i), is("a" + i + "\tL-a" + i + "\nb" + i + "\tL-b" + i + "\n"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLabel_failure_shouldBeRethrownToTheCaller() throws Exception {
+        LabellingScheduler target = new LabellingScheduler("test", 1, 0, new MetricRegistry());
+
+        target.label("a\n", data -> {
+            throw new IllegalArgumentException("invalid");
+        });
+    }
+
+    @Test
+    public void testProcess_multiSequenceRequests_shouldBucketEachSequenceByLength() throws Exception {
+        LabellingScheduler target = new LabellingScheduler("test", 1, 0, new MetricRegistry());
+        List<String> calls = new ArrayList<>();
+        Function<String, String> labeller = data -> {
+            calls.add(data);
+            return tag(data);
+        };
+        LabellingScheduler.LabellingRequest first = new LabellingScheduler.LabellingRequest("a\n\nb\nc\nd\n", labeller);
+        LabellingScheduler.LabellingRequest second = new LabellingScheduler.LabellingRequest("e\nf\ng\n\nh\n", labeller);
+
+        QuantitiesProperties.setLabellingBuckets(new int[]{1});
+        try {
+            target.process(Arrays.asList(first, second));
+        } finally {
+            QuantitiesProperties.setLabellingBuckets(null);
+        }
+
+        // one call for the short sequences of both requests, one for the long ones
+        assertThat(calls, hasSize(2));
+        assertThat(calls.get(0), is("a\n\nh\n\n"));
+        assertThat(calls.get(1), is("b\nc\nd\n\ne\nf\ng\n\n"));
+        assertThat(first.result.get(), is("a\tL-a\n\nb\tL-b\nc\tL-c\nd\tL-d\n"));
+        assertThat(second.result.get(), is("e\tL-e\nf\tL-f\ng\tL-g\n\nh\tL-h\n"));
+    }
+
+    @Test
+    public void testProcess_singleRequestWithoutBuckets_shouldBeLabelledAsIs() throws Exception {
+        LabellingScheduler target = new LabellingScheduler("test", 1, 0, new MetricRegistry());
+        List<String> calls = new ArrayList<>();
+        LabellingScheduler.LabellingRequest request = new LabellingScheduler.LabellingRequest("a\n\nb\nc\n", data -> {
+            calls.add(data);
+            return tag(data);
+        });
+
+        target.process(Arrays.asList(request));
+
+        assertThat(calls, is(Arrays.asList("a\n\nb\nc\n")));
+    }
+}
@@ -0,0 +1,112 @@
+package org.grobid.core.engines.tagging;
+
+import org.apache.commons.io.FileUtils;
+import org.grobid.core.GrobidModel;
+import org.grobid.core.engines.QuantitiesModels;
+import org.grobid.core.engines.UnitParserIntegrationTest;
+import org.grobid.trainer.AbstractTrainer;
+import org.grobid.trainer.QuantifiedObjectTrainer;
+import org.grobid.trainer.QuantitiesTrainer;
+import org.grobid.trainer.UnitTrainer;
+import org.grobid.trainer.ValueTrainer;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeNoException;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compare the labels of the JVM decoder with the native Wapiti labelling on the training corpora of the 4 models.
+ * The tests are skipped when grobid-home, the native Wapiti library or the Wapiti model is not available.
+ */
+public class WapitiJvmModelIntegrationTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WapitiJvmModelIntegrationTest.class);
+
+    @Before
+    public void setUp() throws Exception {
+        try {
+            UnitParserIntegrationTest.initEngineForTests();
+        } catch (Exception | LinkageError e) {
+            assumeNoException("grobid-home is not available", e);
+        }
+    }
+
+    @Test
+    public void testLabel_units_shouldMatchNativeWapiti() throws Exception {
+        checkSameLabels(QuantitiesModels.UNITS, new UnitTrainer(), new File("resources/dataset/units/corpus"));
+    }
+
+    @Test
+    public void testLabel_values_shouldMatchNativeWapiti() throws Exception {
+        checkSameLabels(QuantitiesModels.VALUES, new ValueTrainer(), new File("resources/dataset/values/corpus"));
+    }
+
+    @Test
+    public void testLabel_quantities_shouldMatchNativeWapiti() throws Exception {
+        checkSameLabels(QuantitiesModels.QUANTITIES, new QuantitiesTrainer(), new File("resources/dataset/quantities/corpus"));
+    }
+
+    @Test
+    public void testLabel_quantifiedObject_shouldMatchNativeWapiti() throws Exception {
+        checkSameLabels(QuantitiesModels.QUANTIFIED_OBJECT, new QuantifiedObjectTrainer(), new File("resources/dataset/quantifiedObject/corpus"));
+    }
+
+    private void checkSameLabels(GrobidModel model, AbstractTrainer trainer, File corpus) throws Exception {
+        File modelFile = new File(model.getModelPath());
+        assumeTrue("The Wapiti model " + modelFile + " is not available", modelFile.exists());
+
+        GenericTagger nativeTagger = null;
+        try {
+            nativeTagger = TaggerFactory.getTagger(model);
+        } catch (Exception | LinkageError e) {
+            assumeNoException("The native Wapiti library is not available", e);
+        }
+
+        File crfData = File.createTempFile("wapiti-jvm", ".crf");
+        crfData.deleteOnExit();
+        trainer.createCRFPPData(corpus, crfData, null, 1.0);
+
+        List<String> sequences = removeLabels(FileUtils.readFileToString(crfData, StandardCharsets.UTF_8));
+
+        WapitiJvmModel jvmModel = WapitiJvmModel.load(modelFile);
+        List<String> mismatches = new ArrayList<>();
+        for (String sequence : sequences) {
+            if (!jvmModel.label(sequence).trim().equals(nativeTagger.label(sequence).trim())) {
+                mismatches.add(sequence);
+            }
+        }
+        LOGGER.info(model.getModelName() + ": " + (sequences.size() - mismatches.size()) + " of "
+            + sequences.size() + " sequences labelled identically by the JVM decoder and the native Wapiti");
+
+        assertThat(sequences.isEmpty(), is(false));
+        assertThat(mismatches.isEmpty() ? "" : mismatches.get(0), mismatches.size(), is(0));
+    }
+
+    private static List<String> removeLabels(String crfData) {
+        List<String> sequences = new ArrayList<>();
+        StringBuilder sequence = new StringBuilder();
+        for (String line : crfData.split("\n")) {
+            if (line.trim().isEmpty()) {
+                if (sequence.length() > 0) {
+                    sequences.add(sequence.toString());
+                    sequence.setLength(0);
+                }
+                continue;
+            }
+            sequence.append(line, 0, line.lastIndexOf(' ')).append("\n");
+        }
+        if (sequence.length() > 0) {
+            sequences.add(sequence.toString());
+        }
+        return sequences;
+    }
+}
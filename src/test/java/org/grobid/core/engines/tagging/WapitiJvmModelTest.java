@@ -0,0 +1,74 @@
+package org.grobid.core.engines.tagging;
+
+import org.grobid.core.exceptions.GrobidException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class WapitiJvmModelTest {
+
+    // two labels, the current token and the previous token as unigrams and a transition feature
+    private static final String MODEL = "#mdl#2#5\n" +
+        "#rdr#3/1/0\n" +
+        "10:u0:%x[0,0],\n" +
+        "11:u1:%x[-1,0],\n" +
+        "1:b,\n" +
+        "#qrk#2\n" +
+        "1:A,\n" +
+        "1:B,\n" +
+        "#qrk#4\n" +
+        "4:u0:x,\n" +
+        "4:u0:y,\n" +
+        "7:u1:_x-1,\n" +
+        "1:b,\n" +
+        "0=0x1p+0\n" +
+        "3=0x1p+0\n" +
+        "5=0x1.4p+2\n" +
+        "8=0x0p+0\n" +
+        "9=-0x1.4p+3\n";
+
+    private WapitiJvmModel target;
+
+    @Before
+    public void setUp() throws Exception {
+        target = WapitiJvmModel.load(MODEL.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLoad_shouldReadLabels() throws Exception {
+        assertThat(target.getLabels().length, is(2));
+        assertThat(target.getLabels()[0], is("A"));
+        assertThat(target.getLabels()[1], is("B"));
+    }
+
+    @Test
+    public void testDecode_beforeFirstToken_shouldUseBoundaryObservation() throws Exception {
+        int[] path = target.decode(new String[][]{{"x"}});
+
+        assertThat(path[0], is(1));
+    }
+
+    @Test
+    public void testDecode_transitionWeight_shouldAvoidRepeatedLabel() throws Exception {
+        int[] path = target.decode(new String[][]{{"y"}, {"y"}});
+
+        assertThat(path[0], is(1));
+        assertThat(path[1], is(0));
+    }
+
+    @Test
+    public void testLabel_shouldFollowWapitiOutputFormat() throws Exception {
+        String output = target.label("x 1\nx 2\n\ny 3\n");
+
+        assertThat(output, is("x 1\tB\nx 2\tA\n\ny 3\tB\n\n"));
+    }
+
+    @Test(expected = GrobidException.class)
+    public void testLoad_unsupportedPatternCommand_shouldThrowException() throws Exception {
+        WapitiJvmModel.load(MODEL.replace("10:u0:%x[0,0],", "10:u0:%t[0,0],").getBytes(StandardCharsets.UTF_8));
+    }
+}
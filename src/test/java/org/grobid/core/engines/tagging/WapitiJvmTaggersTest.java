@@ -0,0 +1,64 @@
+package org.grobid.core.engines.tagging;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class WapitiJvmTaggersTest {
+
+    @Test
+    public void testLabel_beforeParity_shouldReturnTheNativeLabels() throws Exception {
+        WapitiJvmTaggers.ParityCheckedTagger target = new WapitiJvmTaggers.ParityCheckedTagger("test1", d -> "a A\n", 2);
+
+        assertThat(target.label("a", d -> "a A"), is("a A"));
+        assertThat(target.isDisabled(), is(false));
+    }
+
+    @Test
+    public void testLabel_afterParity_shouldUseTheJvmDecoderOnly() throws Exception {
+        AtomicInteger nativeCalls = new AtomicInteger();
+        UnaryOperator<String> nativeTagger = d -> {
+            nativeCalls.incrementAndGet();
+            return "a A";
+        };
+        WapitiJvmTaggers.ParityCheckedTagger target = new WapitiJvmTaggers.ParityCheckedTagger("test2", d -> "a A", 2);
+
+        target.label("a", nativeTagger);
+        target.label("a", nativeTagger);
+        target.label("a", nativeTagger);
+
+        assertThat(nativeCalls.get(), is(2));
+        assertThat(target.isDisabled(), is(false));
+    }
+
+    @Test
+    public void testLabel_mismatch_shouldDisableTheJvmDecoder() throws Exception {
+        AtomicInteger jvmCalls = new AtomicInteger();
+        UnaryOperator<String> jvmTagger = d -> {
+            jvmCalls.incrementAndGet();
+            return "a B";
+        };
+        WapitiJvmTaggers.ParityCheckedTagger target = new WapitiJvmTaggers.ParityCheckedTagger("test3", jvmTagger, 2);
+
+        assertThat(target.label("a", d -> "a A"), is("a A"));
+        assertThat(target.isDisabled(), is(true));
+
+        assertThat(target.label("a", d -> "a A"), is("a A"));
+        assertThat(target.label("a", d -> "a A"), is("a A"));
+        assertThat(jvmCalls.get(), is(1));
+    }
+
+    @Test
+    public void testLabel_jvmDecoderFailure_shouldDisableTheJvmDecoder() throws Exception {
+        WapitiJvmTaggers.ParityCheckedTagger target = new WapitiJvmTaggers.ParityCheckedTagger("test4", d -> {
+            throw new IllegalStateException();
+        }, 2);
+
+        assertThat(target.label("a", d -> "a A"), is("a A"));
+        assertThat(target.isDisabled(), is(true));
+    }
+}
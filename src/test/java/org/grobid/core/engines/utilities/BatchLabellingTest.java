@@ -0,0 +1,95 @@
+package org.grobid.core.engines.utilities;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+public class BatchLabellingTest {
+
+    @Test
+    public void testJoin_shouldSeparateSequencesWithEmptyLine() throws Exception {
+        String joined = BatchLabelling.join(Arrays.asList("a f1\nb f1\n", "c f1"));
+
+        assertThat(joined, is("a f1\nb f1\n\nc f1\n\n"));
+    }
+
+    @Test
+    public void testSplit_withoutSeparators_shouldRealignOnInputLines() throws Exception {
+        List<String> sequences = Arrays.asList("a f1\nb f1\n", "c f1\n");
+
+        List<String> results = BatchLabelling.split("a f1 <number>\nb f1 <number>\nc f1 <other>\n", sequences);
+
+        assertThat(results, hasSize(2));
+        assertThat(results.get(0), is("a f1 <number>\nb f1 <number>\n"));
+        assertThat(results.get(1), is("c f1 <other>\n"));
+    }
+
+    @Test
+    public void testSplit_withSeparators_shouldIgnoreEmptyLines() throws Exception {
+        List<String> sequences = Arrays.asList("a f1\n", "b f1\n");
+
+        List<String> results = BatchLabelling.split("a f1 <number>\n\nb f1 <other>\n\n", sequences);
+
+        assertThat(results, hasSize(2));
+        assertThat(results.get(0), is("a f1 <number>\n"));
+        assertThat(results.get(1), is("b f1 <other>\n"));
+    }
+
+    @Test
+    public void testSplit_mismatchingOutput_shouldReturnNull() throws Exception {
+        List<String> sequences = Arrays.asList("a f1\n", "b f1\n");
+
+        assertThat(BatchLabelling.split("a f1 <number>\n", sequences), is(nullValue()));
+    }
+
+    @Test
+    public void testLabel_singleSequence_shouldCallLabellerOnce() throws Exception {
+        List<String> results = BatchLabelling.label(Arrays.asList("a f1\n"), s -> s.trim() + " <number>\n");
+
+        assertThat(results, hasSize(1));
+        assertThat(results.get(0), is("a f1 <number>\n"));
+    }
+
+    @Test
+    public void testLabel_withBuckets_shouldGroupByLengthAndKeepOrder() throws Exception {
+        List<String> sequences = Arrays.asList("a f1\nb f1\nc f1\n", "d f1\n", "e f1\nf f1\ng f1\n", "h f1\n");
+        List<String> calls = new ArrayList<>();
+
+        List<String> results = BatchLabelling.label(sequences, s -> {
+            calls.add(s);
+            return s.replace(" f1", " f1 <x>");
+        }, new int[]{1, 8});
+
+        assertThat(calls, hasSize(2));
+        assertThat(calls.get(0), is("d f1\n\nh f1\n\n"));
+        assertThat(results, hasSize(4));
+        assertThat(results.get(0), is("a f1 <x>\nb f1 <x>\nc f1 <x>\n"));
+        assertThat(results.get(1), is("d f1 <x>\n"));
+        assertThat(results.get(2), is("e f1 <x>\nf f1 <x>\ng f1 <x>\n"));
+        assertThat(results.get(3), is("h f1 <x>\n"));
+    }
+
+    @Test
+    public void testSequences_shouldSplitOnEmptyLines() throws Exception {
+        List<String> sequences = BatchLabelling.sequences("a f1\nb f1\n\n\nc f1\n \nd f1");
+
+        assertThat(sequences, is(Arrays.asList("a f1\nb f1\n", "c f1\n", "d f1\n")));
+        assertThat(BatchLabelling.sequences("\n"), hasSize(0));
+    }
+
+    @Test
+    public void testBucketOf_shouldUseInclusiveUpperBounds() throws Exception {
+        int[] boundaries = {16, 64};
+
+        assertThat(BatchLabelling.bucketOf(16, boundaries), is(0));
+        assertThat(BatchLabelling.bucketOf(17, boundaries), is(1));
+        assertThat(BatchLabelling.bucketOf(1000, boundaries), is(2));
+    }
+}
@@ -0,0 +1,66 @@
+package org.grobid.core.engines.utilities;
+
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.LayoutTokensUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+public class TextChunkerTest {
+
+    private static List<LayoutToken> tokens(String... texts) {
+        List<LayoutToken> tokens = new ArrayList<>();
+        int offset = 0;
+        for (String text : texts) {
+            LayoutToken token = new LayoutToken(text);
+            token.setOffset(offset);
+            offset += text.length();
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testChunk_shortText_shouldReturnSingleChunk() throws Exception {
+        List<LayoutToken> tokens = tokens("3", " ", "mm", ".");
+
+        assertThat(TextChunker.chunk(tokens, 10), hasSize(1));
+    }
+
+    @Test
+    public void testChunk_shouldCutAtSentenceBoundary() throws Exception {
+        List<LayoutToken> tokens = tokens("It", " ", "is", " ", "3", " ", "mm", ".", " ", "It", " ", "is", " ", "2", " ", "kg", ".");
+
+        List<List<LayoutToken>> chunks = TextChunker.chunk(tokens, 12);
+
+        assertThat(chunks, hasSize(2));
+        assertThat(LayoutTokensUtil.toText(chunks.get(0)), is("It is 3 mm."));
+        assertThat(LayoutTokensUtil.toText(chunks.get(1)), is(" It is 2 kg."));
+        assertThat(chunks.get(1).get(0).getOffset(), is(11));
+    }
+
+    @Test
+    public void testChunk_shouldPreferParagraphBoundary() throws Exception {
+        List<LayoutToken> tokens = tokens("a", ".", " ", "b", " ", "c", "\n", "d", ".", " ", "e", " ", "f");
+
+        List<List<LayoutToken>> chunks = TextChunker.chunk(tokens, 10);
+
+        assertThat(LayoutTokensUtil.toText(chunks.get(0)), is("a. b c\n"));
+    }
+
+    @Test
+    public void testChunk_withoutBoundary_shouldCutAtMaximumSize() throws Exception {
+        List<LayoutToken> tokens = tokens("a", " ", "b", " ", "c", " ", "d");
+
+        List<List<LayoutToken>> chunks = TextChunker.chunk(tokens, 3);
+
+        assertThat(chunks, hasSize(3));
+        assertThat(chunks.get(0), hasSize(3));
+        assertThat(chunks.get(2), hasSize(1));
+    }
+}
@@ -0,0 +1,51 @@
+package org.grobid.core.features;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FeatureRowCacheTest {
+
+    @Test
+    public void testWrite_sameToken_shouldWriteTheCachedColumns() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BiConsumer<StringBuilder, String> writer = (res, token) -> {
+            calls.incrementAndGet();
+            res.append(token).append(' ').append(token.toLowerCase());
+        };
+        FeatureRowCache target = new FeatureRowCache("test", 10, new MetricRegistry());
+
+        StringBuilder result = new StringBuilder();
+        target.write(result, "The", writer);
+        result.append(" 0\n");
+        target.write(result, "The", writer);
+        result.append(" 1\n");
+
+        assertThat(result.toString(), is("The the 0\nThe the 1\n"));
+        assertThat(calls.get(), is(1));
+        assertThat(target.size(), is(1L));
+    }
+
+    @Test
+    public void testWrite_disabledCache_shouldCallTheWriterEachTime() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BiConsumer<StringBuilder, String> writer = (res, token) -> {
+            calls.incrementAndGet();
+            res.append(token);
+        };
+        FeatureRowCache target = new FeatureRowCache("test", 0, new MetricRegistry());
+
+        StringBuilder result = new StringBuilder();
+        target.write(result, "mg", writer);
+        target.write(result, "mg", writer);
+
+        assertThat(result.toString(), is("mgmg"));
+        assertThat(calls.get(), is(2));
+        assertThat(target.size(), is(0L));
+    }
+}
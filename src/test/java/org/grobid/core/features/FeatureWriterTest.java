@@ -0,0 +1,40 @@
+package org.grobid.core.features;
+
+import org.grobid.core.utilities.TextUtilities;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FeatureWriterTest {
+
+    @Test
+    public void testAppendPrefixesAndSuffixes_shouldBeSameAsTextUtilities() throws Exception {
+        for (String string : Arrays.asList("a", "mm", "kg", "The", "Colorado", "10", "°C", "1.5e-3")) {
+            StringBuilder expected = new StringBuilder();
+            for (int count = 1; count <= 4; count++) {
+                expected.append(" ").append(TextUtilities.prefix(string, count));
+            }
+            for (int count = 1; count <= 4; count++) {
+                expected.append(" ").append(TextUtilities.suffix(string, count));
+            }
+
+            StringBuilder res = new StringBuilder();
+            FeatureWriter.appendPrefixes(res, string);
+            FeatureWriter.appendSuffixes(res, string);
+
+            assertThat(string, res.toString(), is(expected.toString()));
+        }
+    }
+
+    @Test
+    public void testAppendFlag() throws Exception {
+        StringBuilder res = new StringBuilder("x");
+        FeatureWriter.appendFlag(res, true);
+        FeatureWriter.appendFlag(res, false);
+
+        assertThat(res.toString(), is("x 1 0"));
+    }
+}
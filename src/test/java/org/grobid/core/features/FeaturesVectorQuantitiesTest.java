@@ -11,6 +11,7 @@ import java.util.regex.Pattern;
 
 import static org.easymock.EasyMock.expect;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.powermock.api.easymock.PowerMock.*;
 
@@ -82,4 +83,36 @@ public class FeaturesVectorQuantitiesTest {
         verify(FeatureFactory.class, featureFactoryMock);
         assertThat(target.printVector(), is("a a a a a a a a a a NOCAPS NODIGIT 1 NOPUNCT x x 1 0 OTHER"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWriteVector_shouldAppendToTheBuffer() throws Exception {
+        String word = "The";
+
+        mockStatic(FeatureFactory.class);
+        expect(FeatureFactory.getInstance()).andReturn(featureFactoryMock);
+        expect(featureFactoryMock.test_all_capital(word)).andReturn(false);
+        expect(featureFactoryMock.test_first_capital(word)).andReturn(true);
+        expect(featureFactoryMock.test_number(word)).andReturn(false);
+        expect(featureFactoryMock.test_digit(word)).andReturn(false);
+        replay(FeatureFactory.class, featureFactoryMock);
+
+        FeaturesVectorQuantities target = FeaturesVectorQuantities.addFeaturesQuantities(word, null, false, true, true);
+
+        verify(FeatureFactory.class, featureFactoryMock);
+        StringBuilder buffer = new StringBuilder("previous\n");
+        assertThat(target.writeVector(buffer), is(true));
+        assertThat(buffer.toString(), is("previous\n" + target.printVector()));
+        assertThat(target.printVector(), is("The the T Th The The e he The The INITCAP NODIGIT 0 NOPUNCT Xxx Xx 0 1"));
+    }
+
+    @Test
+    public void testWriteVector_blankToken_shouldNotWrite() throws Exception {
+        FeaturesVectorQuantities target = new FeaturesVectorQuantities();
+        target.string = " ";
+
+        StringBuilder buffer = new StringBuilder();
+        assertThat(target.writeVector(buffer), is(false));
+        assertThat(buffer.length(), is(0));
+        assertThat(target.printVector(), is(nullValue()));
+    }
+}
@@ -0,0 +1,71 @@
+package org.grobid.core.lexicon;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PrefixedTermMapTest {
+
+    private PrefixedTermMap<String> target;
+
+    @Before
+    public void setUp() throws Exception {
+        target = new PrefixedTermMap<>(Arrays.asList("k", "M", "da", "d"));
+    }
+
+    @Test
+    public void testGet_simpleTerm_shouldReturnTheVariants() throws Exception {
+        target.putPrefixed("m", new int[]{0}, "length");
+
+        assertThat(target.get("m"), is("length"));
+        assertThat(target.get("km"), is("length"));
+        assertThat(target.get("dam"), is("length"));
+        assertThat(target.get("dm"), is("length"));
+        assertThat(target.get("cm"), is(nullValue()));
+        assertThat(target.get("kkm"), is(nullValue()));
+        assertThat(target.get(null), is(nullValue()));
+    }
+
+    @Test
+    public void testGet_composedTerm_shouldReturnAllTheCombinations() throws Exception {
+        target.putPrefixed("m/s", new int[]{0, 2}, "speed");
+
+        assertThat(target.get("m/s"), is("speed"));
+        assertThat(target.get("km/s"), is("speed"));
+        assertThat(target.get("m/ks"), is("speed"));
+        assertThat(target.get("Mm/das"), is("speed"));
+        assertThat(target.get("m/s/k"), is(nullValue()));
+        assertThat(target.get("km"), is(nullValue()));
+    }
+
+    @Test
+    public void testGet_composedTerm_shouldOnlyPrefixTheFirstTwoElements() throws Exception {
+        target.putPrefixed("kg*m/s", new int[]{0, 3}, "momentum");
+
+        assertThat(target.get("Mkg*km/s"), is("momentum"));
+        assertThat(target.get("kg*m/ks"), is(nullValue()));
+    }
+
+    @Test
+    public void testGet_shouldReturnTheValuePutLast() throws Exception {
+        target.put("km", "before");
+        target.putPrefixed("m", new int[]{0}, "length");
+        target.put("Mm", "after");
+
+        assertThat(target.get("km"), is("length"));
+        assertThat(target.get("Mm"), is("after"));
+        assertThat(target.get("m"), is("length"));
+    }
+
+    @Test
+    public void testComposedUnitElements() throws Exception {
+        assertThat(PrefixedTermMap.composedUnitElements("m/s"), is(new int[]{0, 2}));
+        assertThat(PrefixedTermMap.composedUnitElements("*V*s"), is(new int[]{1, 3}));
+        assertThat(PrefixedTermMap.composedUnitElements("m"), is(nullValue()));
+    }
+}
@@ -1,17 +1,26 @@
 package org.grobid.core.lexicon;
 
+import org.apache.commons.io.FileUtils;
+import org.grobid.core.analyzers.QuantityAnalyzer;
 import org.grobid.core.data.RegexValueHolder;
+import org.grobid.core.data.UnitDefinition;
+import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.utilities.OffsetPosition;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertNotNull;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -232,4 +241,127 @@ public class QuantityLexiconIntegrationTest {
         assertThat(out.get(0).getStart(), is(0));
         assertThat(out.get(0).getEnd(), is(4));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testInUnitNames_shouldBeSameAsFastMatcher() throws Exception {
+        List<String> terms = new ArrayList<>();
+        QuantityLexicon lexicon = new QuantityLexicon(terms::add);
+        FastMatcher fastMatcher = new FastMatcher();
+        for (String term : terms) {
+            fastMatcher.loadTerm(term, QuantityAnalyzer.getInstance());
+        }
+
+        List<String> texts = new ArrayList<>();
+        for (String name : new String[]{"test1.txt", "test2.txt", "test3.txt", "test4.txt"}) {
+            texts.add(FileUtils.readFileToString(new File("src/test/resources/" + name), StandardCharsets.UTF_8));
+        }
+        texts.addAll(FileUtils.readLines(new File("resources/locust/testData.txt"), StandardCharsets.UTF_8));
+
+        for (String text : texts) {
+            List<LayoutToken> tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(text);
+            assertThat(toString(lexicon.inUnitNames(tokens)), is(toString(fastMatcher.matchLayoutToken(tokens))));
+            assertThat(toString(lexicon.inUnitNames(text)), is(toString(fastMatcher.matchToken(text))));
+        }
+    }
+
+    @Test
+    public void testCompositionalPrefixes_shouldBeSameAsExpandedPrefixes() throws Exception {
+        List<String> terms = new ArrayList<>();
+        QuantityLexicon expanded = new QuantityLexicon(terms::add, false);
+
+        Set<String> inputs = new HashSet<>();
+        for (String term : terms) {
+            inputs.add(term);
+            inputs.add(term.toUpperCase());
+            inputs.add(term + "s");
+            inputs.addAll(QuantityAnalyzer.getInstance().tokenize(term));
+            for (String prefix : new String[]{"k", "M", "m", "da", "kilo", "milli", "Kilo"}) {
+                inputs.add(prefix + term);
+            }
+        }
+
+        for (String input : inputs) {
+            assertThat(input, target.getNameByInflection(input), is(expanded.getNameByInflection(input)));
+            assertThat(input, toString(target.getUnitByNotation(input)), is(toString(expanded.getUnitByNotation(input))));
+            assertThat(input, toString(target.getUnitbyName(input)), is(toString(expanded.getUnitbyName(input))));
+            assertThat(input, target.inUnitDictionary(input), is(expanded.inUnitDictionary(input)));
+            assertThat(input, target.inUnitDictionaryCaseInsensitive(input), is(expanded.inUnitDictionaryCaseInsensitive(input)));
+        }
+
+        List<String> texts = new ArrayList<>(FileUtils.readLines(new File("resources/locust/testData.txt"), StandardCharsets.UTF_8));
+        texts.add("The speed is 3 km/s or 10 mm/ms, the force 2 kN and the length 3 kilometers.");
+        for (String text : texts) {
+            List<LayoutToken> tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(text);
+            assertThat(toString(target.inUnitNames(tokens)), is(toString(expanded.inUnitNames(tokens))));
+            assertThat(toString(target.inUnitNames(text)), is(toString(expanded.inUnitNames(text))));
+        }
+    }
+
+    @Test
+    public void testLoadSnapshot_shouldBeSameAsResources() throws Exception {
+        List<String> terms = new ArrayList<>();
+        QuantityLexicon lexicon = new QuantityLexicon(terms::add);
+        File file = File.createTempFile("units", ".snapshot");
+        file.deleteOnExit();
+        LexiconSnapshot.write(lexicon, file.toPath());
+
+        QuantityLexicon snapshot = LexiconSnapshot.load(file.toPath());
+        assertNotNull(snapshot);
+
+        Set<String> inputs = new HashSet<>();
+        for (String term : terms) {
+            inputs.add(term);
+            inputs.add(term.toUpperCase());
+            inputs.addAll(QuantityAnalyzer.getInstance().tokenize(term));
+            inputs.add("k" + term);
+            inputs.add("kilo" + term);
+        }
+
+        for (String input : inputs) {
+            assertThat(input, snapshot.getNameByInflection(input), is(lexicon.getNameByInflection(input)));
+            assertThat(input, toString(snapshot.getUnitByNotation(input)), is(toString(lexicon.getUnitByNotation(input))));
+            assertThat(input, toString(snapshot.getUnitbyName(input)), is(toString(lexicon.getUnitbyName(input))));
+            assertThat(input, snapshot.inUnitDictionary(input), is(lexicon.inUnitDictionary(input)));
+            assertThat(input, snapshot.inUnitDictionaryCaseInsensitive(input), is(lexicon.inUnitDictionaryCaseInsensitive(input)));
+            assertThat(input, snapshot.inPrefixDictionary(input), is(lexicon.inPrefixDictionary(input)));
+        }
+        assertThat(toString(snapshot.getSIUnitByType("LENGTH")), is(toString(lexicon.getSIUnitByType("LENGTH"))));
+        assertThat(snapshot.getInflectionsByTerm("meter"), is(lexicon.getInflectionsByTerm("meter")));
+        assertThat(snapshot.derivationalMorphologyExpansion("m/s", true), is(lexicon.derivationalMorphologyExpansion("m/s", true)));
+
+        for (String text : FileUtils.readLines(new File("resources/locust/testData.txt"), StandardCharsets.UTF_8)) {
+            List<LayoutToken> tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(text);
+            assertThat(toString(snapshot.inUnitNames(tokens)), is(toString(lexicon.inUnitNames(tokens))));
+            assertThat(toString(snapshot.inUnitNames(text)), is(toString(lexicon.inUnitNames(text))));
+        }
+    }
+
+    @Test
+    public void testLoadSnapshot_outdated_shouldReturnNull() throws Exception {
+        File file = File.createTempFile("units", ".snapshot");
+        file.deleteOnExit();
+        LexiconSnapshot.write(new QuantityLexicon(null, true), file.toPath());
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        // the checksum of the resources and classes follows the magic number and the version
+        bytes[8] ^= 1;
+        Files.write(file.toPath(), bytes);
+
+        assertThat(LexiconSnapshot.load(file.toPath()), is(nullValue()));
+        assertThat(LexiconSnapshot.load(new File(file.getPath() + ".missing").toPath()), is(nullValue()));
+    }
+
+    private static String toString(List<OffsetPosition> positions) {
+        StringBuilder builder = new StringBuilder();
+        for (OffsetPosition position : positions) {
+            builder.append(position.start).append('-').append(position.end).append(' ');
+        }
+        return builder.toString();
+    }
+
+    private static String toString(UnitDefinition unitDefinition) {
+        if (unitDefinition == null) {
+            return null;
+        }
+        return unitDefinition.getType() + " " + unitDefinition.getSystem() + " " + unitDefinition.toJsonComplete();
+    }
+}
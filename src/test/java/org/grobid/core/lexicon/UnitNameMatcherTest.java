@@ -0,0 +1,141 @@
+package org.grobid.core.lexicon;
+
+import org.grobid.core.analyzers.QuantityAnalyzer;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.OffsetPosition;
+import org.grobid.core.utilities.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class UnitNameMatcherTest {
+
+    private static final List<String> TERMS = Arrays.asList("m", "km", "kilometer", "kilometer per second",
+        "kg", "kg/s", "mile per hour", "per", "\u00B0C", "degree Celsius", "m/s", "s");
+
+    private static final List<String> TEXTS = Arrays.asList(
+        "The car drove 10 kilometer per second, i.e. 36000 km per hour.",
+        "The speed is 5 m/s or 5 mile per hour per second.",
+        "A 20kg ingot was forged at 850 to 1,150\u00B0C (1.5 degree Celsius per km).",
+        "Kilometer KG and Degree celsius are matched without case.",
+        "No unit in this sentence.",
+        "kilometer per",
+        ""
+    );
+
+    private FastMatcher fastMatcher;
+    private UnitNameMatcher target;
+
+    @Before
+    public void setUp() throws Exception {
+        fastMatcher = new FastMatcher();
+        target = new UnitNameMatcher();
+        for (String term : TERMS) {
+            fastMatcher.loadTerm(term, QuantityAnalyzer.getInstance());
+            target.loadTerm(term, QuantityAnalyzer.getInstance());
+        }
+        target.compile();
+    }
+
+    @Test
+    public void testMatchLayoutToken_shouldBeSameAsFastMatcher() throws Exception {
+        for (String text : TEXTS) {
+            List<LayoutToken> tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(text);
+
+            assertThat(text, toString(target.matchLayoutToken(tokens)), is(toString(fastMatcher.matchLayoutToken(tokens))));
+        }
+    }
+
+    @Test
+    public void testMatchToken_shouldBeSameAsFastMatcher() throws Exception {
+        for (String text : TEXTS) {
+            assertThat(text, toString(target.matchToken(text)), is(toString(fastMatcher.matchToken(text))));
+        }
+    }
+
+    @Test
+    public void testMatcherPairs_shouldBeSameAsFastMatcher() throws Exception {
+        for (String text : TEXTS) {
+            List<Pair<String, String>> pairs = QuantityAnalyzer.getInstance().tokenize(text).stream()
+                .map(token -> new Pair<>(token, "<other>"))
+                .collect(Collectors.toList());
+
+            assertThat(text, toString(target.matcherPairs(pairs)), is(toString(fastMatcher.matcherPairs(pairs))));
+        }
+    }
+
+    @Test
+    public void testMatchLayoutToken_overlappingTerms_shouldReturnAllMatches() throws Exception {
+        List<LayoutToken> tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken("1 kilometer per second");
+
+        // the partial match on "kilometer" is reported when extended to "kilometer per"
+        assertThat(toString(target.matchLayoutToken(tokens)), is("[2-2, 4-4, 2-6]"));
+    }
+
+    @Test
+    public void testCompile_shouldCountTheTerms() throws Exception {
+        assertThat(target.getTermCount(), is(TERMS.size()));
+    }
+
+    @Test
+    public void testMatchLayoutToken_prefixedTerms_shouldBeSameAsLoadingTheVariants() throws Exception {
+        List<String> prefixes = Arrays.asList("k", "M", "m", "\u00B5", "da");
+        UnitNameMatcher prefixed = new UnitNameMatcher();
+        int prefixSet = prefixed.addPrefixSet(prefixes);
+        FastMatcher expanded = new FastMatcher();
+
+        for (String term : Arrays.asList("m", "g", "m/s", "s")) {
+            int[] offsets = term.equals("m/s") ? new int[]{0, 2} : new int[]{0};
+            assertThat(prefixed.isPrefixable(term, QuantityAnalyzer.getInstance(), prefixSet, offsets), is(true));
+            prefixed.loadTerm(term, QuantityAnalyzer.getInstance(), prefixSet, offsets);
+
+            expanded.loadTerm(term, QuantityAnalyzer.getInstance());
+            for (String prefix : prefixes) {
+                if (term.equals("m/s")) {
+                    expanded.loadTerm(prefix + term, QuantityAnalyzer.getInstance());
+                    expanded.loadTerm("m/" + prefix + "s", QuantityAnalyzer.getInstance());
+                    for (String secondPrefix : prefixes) {
+                        expanded.loadTerm(prefix + "m/" + secondPrefix + "s", QuantityAnalyzer.getInstance());
+                    }
+                } else {
+                    expanded.loadTerm(prefix + term, QuantityAnalyzer.getInstance());
+                }
+            }
+        }
+        prefixed.loadTerm("mm Hg", QuantityAnalyzer.getInstance());
+        expanded.loadTerm("mm Hg", QuantityAnalyzer.getInstance());
+        prefixed.compile();
+
+        List<String> texts = Arrays.asList("5 km/s and 3 Mm/das", "10 mm Hg", "2 kg, 3 \u00B5g and 4 dag",
+            "1 kkm", "3 m/ms or 4 mm/s", "KM/S");
+        for (String text : texts) {
+            List<LayoutToken> tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(text);
+            assertThat(text, toString(prefixed.matchLayoutToken(tokens)), is(toString(expanded.matchLayoutToken(tokens))));
+            assertThat(text, toString(prefixed.matchToken(text)), is(toString(expanded.matchToken(text))));
+        }
+    }
+
+    @Test
+    public void testIsPrefixable_prefixChangingTheTokenisation_shouldReturnFalse() throws Exception {
+        UnitNameMatcher prefixed = new UnitNameMatcher();
+        int prefixSet = prefixed.addPrefixSet(Arrays.asList("kilo", "mega"));
+
+        assertThat(prefixed.isPrefixable("meter", QuantityAnalyzer.getInstance(), prefixSet, 0), is(true));
+        // the second element starts with a space, kilo would be a token by itself
+        assertThat(prefixed.isPrefixable("min / meter", QuantityAnalyzer.getInstance(), prefixSet, 0, 5), is(false));
+        // no token starts at this offset
+        assertThat(prefixed.isPrefixable("meter", QuantityAnalyzer.getInstance(), prefixSet, 2), is(false));
+    }
+
+    private static String toString(List<OffsetPosition> positions) {
+        return positions.stream()
+            .map(position -> position.start + "-" + position.end)
+            .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,60 @@
+package org.grobid.core.utilities;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MeteredCacheTest {
+
+    @Test
+    public void testGet_shouldCountHitsAndMisses() throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        MeteredCache<String, String> target = new MeteredCache<>("test", 10, registry);
+
+        assertThat(target.get("a", String::toUpperCase), is("A"));
+        assertThat(target.get("a", k -> "should not be called"), is("A"));
+
+        assertThat(target.getMisses(), is(1L));
+        assertThat(target.getHits(), is(1L));
+        assertThat(registry.counter("grobid-quantities.cache.test.hits").getCount(), is(1L));
+    }
+
+    @Test
+    public void testPut_overMaximumSize_shouldEvict() throws Exception {
+        MeteredCache<Integer, Integer> target = new MeteredCache<>("test", 2, new MetricRegistry());
+
+        for (int i = 0; i < 5; i++) {
+            target.put(i, i);
+        }
+
+        assertThat(target.size(), is(2L));
+        assertThat(target.getEvictions(), is(3L));
+    }
+
+    @Test
+    public void testDisabledCache_shouldNotStore() throws Exception {
+        MeteredCache<String, String> target = new MeteredCache<>("test", 0, new MetricRegistry());
+
+        target.put("a", "A");
+
+        assertThat(target.isEnabled(), is(false));
+        assertThat(target.getIfPresent("a"), is(nullValue()));
+    }
+
+    @Test
+    public void testRegisterGauges_shouldExposeSizeHitRatioAndFootprint() throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        MeteredCache<String, String> target = new MeteredCache<String, String>("test", 10, registry)
+            .registerGauges("test", String::length);
+
+        target.get("abc", k -> "value");
+        target.get("abc", k -> "value");
+
+        assertThat(registry.getGauges().get("grobid-quantities.cache.test.size").getValue(), is(1L));
+        assertThat(registry.getGauges().get("grobid-quantities.cache.test.hit-ratio").getValue(), is(0.5));
+        assertThat(registry.getGauges().get("grobid-quantities.cache.test.estimated-bytes").getValue(), is(5L));
+    }
+}
@@ -0,0 +1,98 @@
+package org.grobid.core.utilities;
+
+import org.grobid.core.layout.LayoutToken;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TextNormalizerTest {
+
+    @Test
+    public void testNormaliseText_cleanText_shouldReturnSameInstance() throws Exception {
+        String text = "The length is 3.5 mm (+/- 0.1)";
+
+        assertThat(TextNormalizer.normaliseText(text), sameInstance(text));
+        assertThat(TextNormalizer.normaliseToken(text), sameInstance(text));
+        assertThat(TextNormalizer.normaliseAndCleanup(text), sameInstance(text));
+    }
+
+    @Test
+    public void testNormaliseText_printableAscii_shouldBeUnchangedByUnicodeNormalisation() throws Exception {
+        for (char c = 0x20; c <= 0x7E; c++) {
+            String text = String.valueOf(c);
+            assertThat(TextNormalizer.isClean(text), is(true));
+            assertThat(UnicodeUtil.normaliseText(text), is(text));
+        }
+    }
+
+    @Test
+    public void testIsClean_shouldRejectControlAndNonAscii() throws Exception {
+        assertThat(TextNormalizer.isClean("a\tb"), is(false));
+        assertThat(TextNormalizer.isClean("a\nb"), is(false));
+        assertThat(TextNormalizer.isClean("5\u00A0kg"), is(false));
+        assertThat(TextNormalizer.isClean("20 \u00B0C"), is(false));
+        assertThat(TextNormalizer.isClean(""), is(true));
+    }
+
+    @Test
+    public void testNormaliseToken_minusSign_shouldBeReplaced() throws Exception {
+        assertThat(TextNormalizer.normaliseToken("\u22125"), is("-5"));
+    }
+
+    @Test
+    public void testNormaliseAndCleanup_newLines_shouldBeReplacedBySpaces() throws Exception {
+        assertThat(TextNormalizer.normaliseAndCleanup("a\r\nb\nc"), is("a b c"));
+    }
+
+    @Test
+    public void testReplaceControlCharacters_shouldBeSameAsRegex() throws Exception {
+        List<String> texts = Arrays.asList(
+            "no control",
+            "\u0001start",
+            "end\u007F",
+            "soft\u00ADhyphen",
+            "zero\u200Bwidth",
+            "private\uE000use",
+            "emoji \uD83D\uDE00 kept",
+            "lone \uD83D high",
+            "lone \uDE00 low",
+            "supplementary private \uDB80\uDC00 use",
+            "20 \u00B0C \u00B1 2"
+        );
+
+        for (String text : texts) {
+            assertThat(text, TextNormalizer.replaceControlCharacters(text), is(text.replaceAll("\\p{C}", " ")));
+        }
+    }
+
+    @Test
+    public void testReplaceControlCharacters_noControl_shouldReturnSameInstance() throws Exception {
+        String text = "20 \u00B0C";
+
+        assertThat(TextNormalizer.replaceControlCharacters(text), sameInstance(text));
+    }
+
+    @Test
+    public void testNormaliseTokens_shouldMarkTheTokens() throws Exception {
+        List<LayoutToken> tokens = new ArrayList<>();
+        tokens.add(new LayoutToken("\u22123"));
+        tokens.add(new LayoutToken(" "));
+        tokens.add(new LayoutToken("mm"));
+
+        assertThat(TextNormalizer.isNormalised(tokens), is(false));
+
+        List<LayoutToken> normalised = TextNormalizer.normaliseTokens(tokens);
+
+        assertThat(TextNormalizer.isNormalised(normalised), is(true));
+        assertThat(normalised.size(), is(3));
+        assertThat(normalised.get(0).getText(), is("-3"));
+        assertThat(normalised.get(2), sameInstance(tokens.get(2)));
+        assertThat(TextNormalizer.markNormalised(normalised), sameInstance(normalised));
+    }
+}
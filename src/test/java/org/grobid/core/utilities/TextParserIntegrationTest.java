@@ -6,9 +6,14 @@ import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.grobid.core.engines.UnitParserIntegrationTest.initEngineForTests;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 
-@Ignore
 public class TextParserIntegrationTest {
 
     TextParser target;
@@ -24,6 +29,7 @@ public class TextParserIntegrationTest {
     }
 
     /** This test is specific to test a concurrency issue with clear NLP **/
+    @Ignore
     @Test
     public void testSafeThreadWhenParsingSentence_shouldWork() throws Exception {
 
@@ -43,6 +49,29 @@ public class TextParserIntegrationTest {
         
     }
 
+    @Test
+    public void testParseText_onlyMeasurementSentences_shouldKeepTheSentencesWithAMeasurement() throws Exception {
+        String text = "The sample weights 10 kg. It is blue. The length is 3 m.";
+        List<OffsetPosition> measurements = Arrays.asList(
+            new OffsetPosition(text.indexOf("10 kg"), text.indexOf("10 kg") + 5),
+            new OffsetPosition(text.indexOf("3 m"), text.indexOf("3 m") + 3));
+
+        List<Sentence> allSentences = target.parseText(text, measurements, false);
+        List<Sentence> sentences = target.parseText(text, measurements, true);
+
+        assertThat(allSentences, hasSize(3));
+        assertThat(sentences, hasSize(2));
+        assertThat(sentences.get(0).getOffsetStart(), is(allSentences.get(0).getOffsetStart()));
+        assertThat(sentences.get(0).getOffsetEnd(), is(allSentences.get(0).getOffsetEnd()));
+        assertThat(sentences.get(1).getOffsetStart(), is(allSentences.get(2).getOffsetStart()));
+        assertThat(sentences.get(1).getOffsetEnd(), is(allSentences.get(2).getOffsetEnd()));
+        for (Sentence sentence : sentences) {
+            assertThat(sentence.getSentence(), is(text.substring(sentence.getOffsetStart(), sentence.getOffsetEnd())));
+        }
+        assertThat(sentences.get(0).getSentence().startsWith("The sample"), is(true));
+        assertThat(sentences.get(1).getSentence().startsWith("The length"), is(true));
+    }
+
 }
 
 class FakeThread implements Runnable{
@@ -0,0 +1,43 @@
+package org.grobid.service.controller;
+
+import jakarta.ws.rs.core.Response;
+import org.grobid.core.engines.QuantitiesEngine;
+import org.grobid.service.configuration.GrobidQuantitiesConfiguration;
+import org.grobid.service.exceptions.GrobidServiceException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AnnotationControllerTest {
+    private QuantitiesEngine engine;
+    private AnnotationController target;
+
+    @Before
+    public void setUp() throws Exception {
+        engine = createMock(QuantitiesEngine.class);
+        target = new AnnotationController(new GrobidQuantitiesConfiguration(), engine);
+    }
+
+    @Test
+    public void testProcessPDF_unknownMode_shouldReturnBadRequest() throws Exception {
+        replay(engine);
+
+        try {
+            target.processPDF(new ByteArrayInputStream(new byte[]{1}), null, "header");
+            fail("The unknown mode should be rejected");
+        } catch (GrobidServiceException e) {
+            assertThat(e.getResponseCode(), is(Response.Status.BAD_REQUEST));
+        }
+
+        // the document is not processed
+        verify(engine);
+    }
+}
@@ -1,13 +1,33 @@
 package org.grobid.core.engines;
 
+import com.codahale.metrics.MetricRegistry
+import org.apache.commons.pool.BasePoolableObjectFactory
+import org.easymock.CaptureType
+import org.easymock.EasyMock
 import org.grobid.core.analyzers.QuantityAnalyzer
+import org.grobid.core.data.Measurement
+import org.grobid.core.exceptions.GrobidException
+import org.grobid.core.layout.LayoutToken
+import org.grobid.core.utilities.QuantitiesProperties
 import org.hamcrest.MatcherAssert.assertThat
 import org.hamcrest.Matchers.hasSize
 import org.hamcrest.Matchers.`is`
+import org.hamcrest.Matchers.greaterThan
+import org.hamcrest.Matchers.lessThanOrEqualTo
+import org.grobid.service.exceptions.GrobidServiceException
+import org.junit.jupiter.api.Assertions.assertThrows
 import org.junit.jupiter.api.Test
+import java.util.Collections
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
 
 class QuantitiesEngineTest {
 
+    private fun parserPool(size: Int) = QuantityParserPool(object : BasePoolableObjectFactory<QuantityParser>() {
+        override fun makeObject(): QuantityParser = EasyMock.createMock(QuantityParser::class.java)
+    }, size, 10_000, 0, MetricRegistry())
+
     @Test
     fun normaliseAndCleanup_shouldReplaceToken() {
         val tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken("This \uF0A0 is an interesting")
@@ -32,4 +52,141 @@ class QuantitiesEngineTest {
         assertThat(tokensNormalised, hasSize(tokens.size))
         assertThat(tokensNormalised[2].text, `is`("material"))
     }
-}
\ No newline at end of file
+
+    @Test
+    fun parseTextBatch_jsonArray_shouldKeepOrderAndIds() {
+        val items = QuantitiesEngine.parseTextBatch("""[{"id": "b", "text": "10 kg"}, {"id": 1, "text": "3 m"}]""")
+
+        assertThat(items, hasSize(2))
+        assertThat(items[0].left, `is`("b"))
+        assertThat(items[0].right, `is`("10 kg"))
+        assertThat(items[1].left, `is`("1"))
+    }
+
+    @Test
+    fun parseTextBatch_ndjson_shouldReadEachLine() {
+        val items = QuantitiesEngine.parseTextBatch("{\"id\": \"a\", \"text\": \"10 kg\"}\n{\"id\": \"b\", \"text\": \"3 m\"}\n")
+
+        assertThat(items, hasSize(2))
+        assertThat(items[1].left, `is`("b"))
+        assertThat(items[1].right, `is`("3 m"))
+    }
+
+    @Test
+    fun parseTextBatch_duplicatedId_shouldFail() {
+        assertThrows(GrobidServiceException::class.java) {
+            QuantitiesEngine.parseTextBatch("""[{"id": "a", "text": "10 kg"}, {"id": "a", "text": "3 m"}]""")
+        }
+    }
+
+    @Test
+    fun processSegments_withExecutor_shouldKeepDocumentOrder() {
+        val measurements = (0 until 6).map { Measurement() }
+        val segments = measurements.mapIndexed { i, measurement ->
+            Function<QuantityParser, List<Measurement>> {
+                Thread.sleep((6 - i) * 10L)
+                listOf(measurement)
+            }
+        }
+        val executor = Executors.newFixedThreadPool(3)
+        try {
+            val results = QuantitiesEngine.processSegments(segments, executor, parserPool(3))
+
+            assertThat(results, `is`(measurements))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun processSegments_failingSegment_shouldRethrowException() {
+        val segments = listOf(
+            Function<QuantityParser, List<Measurement>> { listOf(Measurement()) },
+            Function<QuantityParser, List<Measurement>> { throw GrobidException("failed") }
+        )
+        val executor = Executors.newFixedThreadPool(2)
+        val pool = parserPool(2)
+        try {
+            assertThrows(GrobidException::class.java) {
+                QuantitiesEngine.processSegments(segments, executor, pool)
+            }
+            assertThat(pool.numActive, `is`(0))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun processSegments_moreThreadsThanParsers_shouldLabelAtMostPoolSizeSegments() {
+        val running = AtomicInteger()
+        val maxRunning = AtomicInteger()
+        val parsers = Collections.synchronizedSet(HashSet<QuantityParser>())
+        val segments = (0 until 8).map {
+            Function<QuantityParser, List<Measurement>> { parser ->
+                parsers.add(parser)
+                maxRunning.accumulateAndGet(running.incrementAndGet()) { a, b -> maxOf(a, b) }
+                Thread.sleep(20)
+                running.decrementAndGet()
+                listOf(Measurement())
+            }
+        }
+        val executor = Executors.newFixedThreadPool(4)
+        val pool = parserPool(2)
+        try {
+            val results = QuantitiesEngine.processSegments(segments, executor, pool)
+
+            assertThat(results, hasSize(8))
+            assertThat(maxRunning.get() <= 2, `is`(true))
+            assertThat(parsers.size <= 2, `is`(true))
+            assertThat(pool.numActive, `is`(0))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun processSegments_sequential_shouldLeaseOneParser() {
+        val parsers = HashSet<QuantityParser>()
+        val segments = (0 until 3).map {
+            Function<QuantityParser, List<Measurement>> { parser ->
+                parsers.add(parser)
+                listOf(Measurement())
+            }
+        }
+        val pool = parserPool(2)
+
+        val results = QuantitiesEngine.processSegments(segments, null, pool)
+
+        assertThat(results, hasSize(3))
+        assertThat(parsers.size, `is`(1))
+        assertThat(pool.numActive, `is`(0))
+    }
+
+    @Test
+    fun getChunkSegments_longText_shouldProcessEachChunkOnce() {
+        val text = (1..10).joinToString(" ") { "The sample $it weights $it kg." }
+        val tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(text)
+        val chunks = EasyMock.newCapture<List<LayoutToken>>(CaptureType.ALL)
+        val parser = EasyMock.createMock(QuantityParser::class.java)
+        EasyMock.expect(parser.process(EasyMock.capture(chunks))).andReturn(listOf()).anyTimes()
+        EasyMock.replay(parser)
+
+        QuantitiesProperties.setTextChunkSize(16)
+        try {
+            val segments = QuantitiesEngine.getChunkSegments(tokens)
+            segments.forEach { it.apply(parser) }
+
+            assertThat(segments.size, greaterThan(1))
+            assertThat(chunks.values, hasSize(segments.size))
+            chunks.values.forEach { assertThat(it.size, lessThanOrEqualTo(16)) }
+            assertThat(chunks.values.flatten().joinToString("") { it.text }, `is`(text))
+        } finally {
+            QuantitiesProperties.setTextChunkSize(0)
+        }
+    }
+
+    @Test
+    fun getChunkSegments_noTokens_shouldReturnNoSegment() {
+        assertThat(QuantitiesEngine.getChunkSegments(listOf()), hasSize(0))
+    }
+}
@@ -7,13 +7,16 @@ import org.grobid.core.GrobidModels
 import org.grobid.core.analyzers.QuantityAnalyzer
 import org.grobid.core.data.Measurement
 import org.grobid.core.data.Quantity
+import org.grobid.core.data.Value
 import org.grobid.core.utilities.GrobidConfig.ModelParameters
 import org.grobid.core.utilities.GrobidProperties
 import org.grobid.core.utilities.MeasurementOperations
 import org.grobid.core.utilities.OffsetPosition
+import org.grobid.core.utilities.QuantitiesProperties
 import org.grobid.core.utilities.UnitUtilities
 import org.hamcrest.MatcherAssert.assertThat
 import org.hamcrest.Matchers.`is`
+import org.hamcrest.Matchers.nullValue
 import org.hamcrest.collection.IsCollectionWithSize
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.BeforeAll
@@ -36,6 +39,7 @@ class QuantityParserTest {
             .withConstructor(GrobidModel::class.java)
             .withArgs(GrobidModels.DUMMY)
             .addMockedMethod("parseValue", String::class.java)
+            .addMockedMethod("parseValues", List::class.java)
             .createMock()
 //        mockMeasurementOperations = EasyMock.createMock(MeasurementOperations::class.java)
         target = QuantityParser(GrobidModels.DUMMY, null, MeasurementOperations(null), mockValueParser)
@@ -502,6 +506,9 @@ tion Re x Lu (see table """
         sentences.add(OffsetPosition(1580, 1744))
 
         EasyMock.expect(mockValueParser.parseValue(EasyMock.anyObject())).andReturn(null).anyTimes()
+        EasyMock.expect(mockValueParser.parseValues(EasyMock.anyObject()))
+            .andAnswer { EasyMock.getCurrentArgument<List<String>>(0).map { null as Value? } }
+            .anyTimes()
 
         EasyMock.replay(mockValueParser)
         val measurements = target!!.extractMeasurement(tokens, result, sentences)
@@ -564,6 +571,41 @@ tion Re x Lu (see table """
         assertThat(foundSentence, `is`(OffsetPosition(0, 10)))
     }
 
+    @Test
+    fun testHasMeasurementCandidate_withoutDigits_shouldReturnFalse() {
+        val tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken("We thank the reviewers for their comments.")
+
+        assertThat(target.hasMeasurementCandidate(tokens), `is`(false))
+    }
+
+    @Test
+    fun testHasMeasurementCandidate_withDigitsOrFractions_shouldReturnTrue() {
+        assertThat(target.hasMeasurementCandidate(QuantityAnalyzer.getInstance().tokenizeWithLayoutToken("a length of 3 cm")), `is`(true))
+        assertThat(target.hasMeasurementCandidate(QuantityAnalyzer.getInstance().tokenizeWithLayoutToken("about ½ cup")), `is`(true))
+    }
+
+    @Test
+    fun testChunkText_longText_shouldSplitInChunksOfAtMostTheChunkSize() {
+        val text = "The sample weighs 3 kg. It is 2 m long.\n\nThe second paragraph gives 5 cm and 10 s."
+        val tokens = QuantityAnalyzer.getInstance().tokenizeWithLayoutToken(text)
+        try {
+            QuantitiesProperties.setTextChunkSize(12)
+            val chunks = QuantityParser.chunkText(text)
+
+            assertThat(chunks.size > 1, `is`(true))
+            assertThat(chunks.all { it.size <= 12 }, `is`(true))
+            assertThat(chunks.flatten().map { it.offset }, `is`(tokens.map { it.offset }))
+        } finally {
+            QuantitiesProperties.setTextChunkSize(0)
+        }
+    }
+
+    @Test
+    fun testChunkText_chunkingDisabled_shouldReturnASingleChunk() {
+        assertThat(QuantityParser.chunkText("a length of 3 cm").size, `is`(1))
+        assertThat(QuantityParser.chunkText("  "), `is`(nullValue()))
+    }
+
     companion object {
         @JvmStatic
         @BeforeAll
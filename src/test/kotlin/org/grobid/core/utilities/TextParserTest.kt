@@ -19,4 +19,28 @@ class TextParserTest {
         val output = TextParser.handleRawData(input)
         MatcherAssert.assertThat(output, Is.`is`("·g/ml"))
     }
+
+    @Test
+    fun testContainsMeasurement_overlappingMeasurement_shouldReturnTrue() {
+        val sentence = OffsetPosition(10, 20)
+
+        MatcherAssert.assertThat(TextParser.containsMeasurement(sentence, listOf(OffsetPosition(12, 15))), Is.`is`(true))
+        MatcherAssert.assertThat(TextParser.containsMeasurement(sentence, listOf(OffsetPosition(8, 11))), Is.`is`(true))
+        MatcherAssert.assertThat(TextParser.containsMeasurement(sentence, listOf(OffsetPosition(19, 25))), Is.`is`(true))
+        MatcherAssert.assertThat(TextParser.containsMeasurement(sentence, listOf(OffsetPosition(5, 25))), Is.`is`(true))
+    }
+
+    @Test
+    fun testContainsMeasurement_measurementAtTheBoundaries_shouldReturnFalse() {
+        val sentence = OffsetPosition(10, 20)
+
+        MatcherAssert.assertThat(TextParser.containsMeasurement(sentence, listOf(OffsetPosition(5, 10))), Is.`is`(false))
+        MatcherAssert.assertThat(TextParser.containsMeasurement(sentence, listOf(OffsetPosition(20, 25))), Is.`is`(false))
+        MatcherAssert.assertThat(TextParser.containsMeasurement(sentence, listOf()), Is.`is`(false))
+    }
+
+    @Test
+    fun testContainsMeasurement_nullOffsets_shouldReturnTrue() {
+        MatcherAssert.assertThat(TextParser.containsMeasurement(OffsetPosition(10, 20), null), Is.`is`(true))
+    }
 }